@@ -2,8 +2,10 @@ package com.oclock.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 
-@SpringBootApplication
+// A autenticação é só por JWT: sem o usuário em memória com senha gerada que o Spring Boot criaria por padrão
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
 public class OClockBancoHorasApiApplication {
 
 	public static void main(String[] args) {
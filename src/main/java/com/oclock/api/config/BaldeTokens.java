@@ -0,0 +1,42 @@
+package com.oclock.api.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem trava, na forma de GCRA: em vez de fichas e instante da última reposição, guarda um único
+ * instante teórico de chegada (em System.nanoTime) que cada requisição aceita empurra um intervalo para frente.
+ * A requisição passa enquanto esse instante não estiver mais que (capacidade - 1) intervalos à frente de agora,
+ * o que equivale a um balde de {@code capacidade} fichas repostas a {@code fichasPorSegundo}. A decisão é um
+ * compareAndSet, repetido só quando outra requisição do mesmo balde ganhou a corrida.
+ */
+final class BaldeTokens {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong chegadaTeorica;
+
+    BaldeTokens(double fichasPorSegundo, int capacidade, long agoraNanos) {
+        this.intervaloNanos = Math.max(1, (long) (1_000_000_000d / fichasPorSegundo));
+        this.toleranciaNanos = (capacidade - 1) * intervaloNanos;
+        this.chegadaTeorica = new AtomicLong(agoraNanos);
+    }
+
+    /**
+     * Consome uma ficha se houver. Devolve zero quando a requisição pode seguir ou, quando não pode, quantos
+     * nanossegundos faltam para a próxima ficha.
+     */
+    long consumir(long agoraNanos) {
+        while (true) {
+            long chegada = chegadaTeorica.get();
+            // Comparação por diferença: System.nanoTime pode dar a volta
+            long base = chegada - agoraNanos > 0 ? chegada : agoraNanos;
+            long espera = base - toleranciaNanos - agoraNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (chegadaTeorica.compareAndSet(chegada, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.oclock.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Limite de requisições simultâneas da API, ligado por padrão quando as threads virtuais estão ativas
+ * (spring.threads.virtual.enabled). O número de vagas acompanha o tamanho do pool do Hikari.
+ * Taxa por cliente e por usuário e teto de relatórios simultâneos (oclock.limites.*), no {@link LimiteRequisicoesFilter}.
+ */
+@Configuration
+public class ConcorrenciaConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "oclock.backpressure.enabled", havingValue = "true")
+    public LimiteConexoesBancoFilter limiteConexoesBancoFilter(
+            @Value("${oclock.backpressure.permissoes:${spring.datasource.hikari.maximum-pool-size:10}}") int permissoes,
+            @Value("${oclock.backpressure.espera-maxima:30s}") Duration esperaMaxima) {
+        return new LimiteConexoesBancoFilter(permissoes, esperaMaxima);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "oclock.backpressure.enabled", havingValue = "true")
+    public FilterRegistrationBean<LimiteConexoesBancoFilter> limiteConexoesBancoRegistration(LimiteConexoesBancoFilter filter) {
+        FilterRegistrationBean<LimiteConexoesBancoFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Antes da cadeia do Spring Security: quem espera vaga não segura nada além da própria thread virtual.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "oclock.limites.enabled", havingValue = "true")
+    public LimiteRequisicoesFilter limiteRequisicoesFilter(
+            @Value("${oclock.limites.cliente.fichas-por-segundo:20}") double fichasCliente,
+            @Value("${oclock.limites.cliente.capacidade:100}") int capacidadeCliente,
+            @Value("${oclock.limites.usuario.fichas-por-segundo:10}") double fichasUsuario,
+            @Value("${oclock.limites.usuario.capacidade:50}") int capacidadeUsuario,
+            @Value("${oclock.limites.relatorios.simultaneos:4}") int relatoriosSimultaneos,
+            @Value("${oclock.limites.relatorios.espera-maxima:2s}") Duration esperaRelatorio,
+            @Value("${oclock.limites.baldes.tamanho-maximo:100000}") long maximoBaldes,
+            @Value("${oclock.limites.baldes.expiracao:10m}") Duration expiracaoBaldes) {
+        return new LimiteRequisicoesFilter(new LimiteRequisicoesFilter.Taxa(fichasCliente, capacidadeCliente),
+                new LimiteRequisicoesFilter.Taxa(fichasUsuario, capacidadeUsuario),
+                relatoriosSimultaneos, esperaRelatorio, maximoBaldes, expiracaoBaldes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "oclock.limites.enabled", havingValue = "true")
+    public FilterRegistrationBean<LimiteRequisicoesFilter> limiteRequisicoesRegistration(LimiteRequisicoesFilter filter) {
+        FilterRegistrationBean<LimiteRequisicoesFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Logo depois da cadeia do Spring Security, que identifica o usuário do balde
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,101 @@
+package com.oclock.api.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Envolve o DataSource para contar, na {@link ContagemSql} da requisição, cada comando executado
+ * (execute*, um lote conta como um) e cada linha lida dos ResultSets.
+ * Conexões obtidas fora de uma requisição (Flyway, tarefas em segundo plano) saem sem proxy e não têm custo extra.
+ * Por ser um DelegatingDataSource, as métricas do Hikari continuam encontrando o pool original.
+ */
+public class ContadorSqlDataSource extends DelegatingDataSource {
+
+    public ContadorSqlDataSource(DataSource alvo) {
+        super(alvo);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return contar(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return contar(super.getConnection(username, password));
+    }
+
+    private static Connection contar(Connection connection) {
+        ContagemSql contagem = ContagemSql.atual();
+        if (contagem == null) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (alvo, method, args) -> {
+            Object resultado = invocar(alvo, method, args);
+            if (resultado instanceof Statement statement
+                    && (method.getName().startsWith("prepare") || method.getName().equals("createStatement"))) {
+                return contarComandos(statement, contagem);
+            }
+            return resultado;
+        });
+    }
+
+    private static Statement contarComandos(Statement statement, ContagemSql contagem) {
+        Class<? extends Statement> tipo = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return proxy(tipo, statement, (alvo, method, args) -> {
+            String nome = method.getName();
+            if (nome.startsWith("execute")) {
+                contagem.registrarComando();
+            }
+            Object resultado = invocar(alvo, method, args);
+            if (resultado instanceof ResultSet resultSet && (nome.equals("executeQuery") || nome.equals("getResultSet"))) {
+                return contarLinhas(resultSet, contagem);
+            }
+            return resultado;
+        });
+    }
+
+    private static ResultSet contarLinhas(ResultSet resultSet, ContagemSql contagem) {
+        return proxy(ResultSet.class, resultSet, (alvo, method, args) -> {
+            Object resultado = invocar(alvo, method, args);
+            if (Boolean.TRUE.equals(resultado) && method.getName().equals("next")) {
+                contagem.registrarLinha();
+            }
+            return resultado;
+        });
+    }
+
+    private interface Interceptador<T> {
+        Object invocar(T alvo, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<? extends T> tipo, T alvo, Interceptador<T> interceptador) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> interceptador.invocar(alvo, method, args);
+        };
+        return tipo.cast(Proxy.newProxyInstance(ContadorSqlDataSource.class.getClassLoader(), new Class<?>[]{tipo}, handler));
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.oclock.api.config;
+
+/**
+ * Comandos SQL executados e linhas lidas durante uma requisição. Fica em um ThreadLocal entre
+ * {@link #iniciar()} e {@link #encerrar()}; as conexões obtidas nesse intervalo, na mesma thread, são contadas.
+ */
+final class ContagemSql {
+
+    private static final ThreadLocal<ContagemSql> ATUAL = new ThreadLocal<>();
+
+    private long comandos;
+    private long linhas;
+
+    private ContagemSql() {
+    }
+
+    static ContagemSql iniciar() {
+        ContagemSql contagem = new ContagemSql();
+        ATUAL.set(contagem);
+        return contagem;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Contagem da requisição em andamento na thread atual, ou null fora de uma requisição.
+     */
+    static ContagemSql atual() {
+        return ATUAL.get();
+    }
+
+    void registrarComando() {
+        comandos++;
+    }
+
+    void registrarLinha() {
+        linhas++;
+    }
+
+    long getComandos() {
+        return comandos;
+    }
+
+    long getLinhas() {
+        return linhas;
+    }
+}
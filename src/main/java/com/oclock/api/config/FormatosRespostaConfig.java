@@ -0,0 +1,22 @@
+package com.oclock.api.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR (application/cbor) como alternativa binária ao JSON, escolhida pelo cliente com Accept: application/cbor.
+ * O ObjectMapper do conversor sai do mesmo Jackson2ObjectMapperBuilder do Spring Boot que monta o do JSON, então os
+ * dois formatos têm os mesmos campos e as mesmas representações (datas e durações em ISO-8601). Sem Accept, ou com *&#47;*, a resposta continua em JSON.
+ * A compressão (gzip) fica a cargo do Tomcat, em server.compression.*.
+ */
+@Configuration
+public class FormatosRespostaConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
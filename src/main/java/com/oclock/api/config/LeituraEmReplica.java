@@ -0,0 +1,19 @@
+package com.oclock.api.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método de serviço somente leitura cujas consultas podem ir para a réplica (oclock.replica.enabled).
+ * Vale para as consultas feitas durante o método fora de transação ou em transação read-only
+ * ({@code @Transactional(readOnly = true)}); transações de escrita abertas dentro dele continuam no primário.
+ * Não use em leituras que precisam enxergar o que acabou de ser gravado.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LeituraEmReplica {
+}
@@ -0,0 +1,22 @@
+package com.oclock.api.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Marca a thread durante os métodos {@link LeituraEmReplica} para o {@link RoteamentoDataSource}.
+ */
+@Aspect
+public class LeituraEmReplicaAspect {
+
+    @Around("@annotation(com.oclock.api.config.LeituraEmReplica)")
+    public Object emReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean anterior = RoteamentoDataSource.marcarLeituraEmReplica(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RoteamentoDataSource.marcarLeituraEmReplica(anterior);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.oclock.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisições da API em andamento ao tamanho do pool de conexões. Com threads virtuais o Tomcat
+ * não tem mais o teto de threads da plataforma; sem este limite milhares de requisições chegariam juntas
+ * ao pool do Hikari. As excedentes esperam na fila do semáforo (justa) até esperaMaxima e, depois disso,
+ * recebem 503 com Retry-After.
+ */
+public class LimiteConexoesBancoFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final Semaphore permissoes;
+    private final int totalPermissoes;
+    private final long esperaMaximaNanos;
+
+    public LimiteConexoesBancoFilter(int totalPermissoes, Duration esperaMaxima) {
+        this.permissoes = new Semaphore(totalPermissoes, true);
+        this.totalPermissoes = totalPermissoes;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean adquirida;
+        try {
+            adquirida = permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirida = false;
+        }
+        if (!adquirida) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado; tente novamente.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("oclock.backpressure.em.uso", permissoes, p -> totalPermissoes - p.availablePermits())
+                .description("Requisições da API em andamento (limitadas ao pool de conexões)")
+                .register(registry);
+        Gauge.builder("oclock.backpressure.em.espera", permissoes, Semaphore::getQueueLength)
+                .description("Requisições da API aguardando vaga")
+                .register(registry);
+    }
+}
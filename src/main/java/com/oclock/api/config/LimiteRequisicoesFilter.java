@@ -0,0 +1,238 @@
+package com.oclock.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oclock.api.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Controle de admissão da API, depois da autenticação: um {@link BaldeTokens} por cliente e outro por usuário
+ * autenticado, e um teto de relatórios calculados ao mesmo tempo (mensal, acumulado, da organização, folha e a
+ * exportação do período), que são os caminhos caros por chamada.
+ * O cliente é sempre algo emitido pelo servidor: o id do token (gerado a cada login, um por dispositivo ou sessão) ou,
+ * em tokens sem ele, o usuário. Só as chamadas sem autenticação (login) caem no endereço de origem; um cabeçalho
+ * escolhido pelo cliente não serve, porque bastaria trocá-lo a cada requisição para nunca esgotar o balde.
+ * Sem ficha, a resposta é 429 na hora, com Retry-After em segundos até a próxima ficha; sem vaga de relatório,
+ * a requisição espera até esperaRelatorio e depois recebe 429 com Retry-After: 1. A exportação responde em streaming
+ * depois que o filtro retorna; a vaga dela só é devolvida quando a resposta assíncrona termina.
+ * <p>
+ * Os baldes ficam em caches do Caffeine que descartam os parados há mais de expiracaoBaldes (um balde parado
+ * tempo suficiente para encher de novo é igual a um novo). Atrás de um proxy, o endereço de origem só é o do
+ * cliente com server.forward-headers-strategy configurado.
+ */
+public class LimiteRequisicoesFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final List<PathPattern> RELATORIOS = List.of(
+            PathPatternParser.defaultInstance.parse("/api/ponto/{userId}/banco-horas-mensal"),
+            PathPatternParser.defaultInstance.parse("/api/ponto/{userId}/banco-horas-acumulado"),
+            PathPatternParser.defaultInstance.parse("/api/ponto/banco-horas-mensal"),
+            PathPatternParser.defaultInstance.parse("/api/folha-pagamento"),
+            PathPatternParser.defaultInstance.parse("/api/ponto/periodo/exportar"));
+
+    private final Taxa porCliente;
+    private final Taxa porUsuario;
+    private final Cache<String, BaldeTokens> baldesClientes;
+    private final Cache<Integer, BaldeTokens> baldesUsuarios;
+    private final Semaphore vagasRelatorios;
+    private final int totalVagasRelatorios;
+    private final long esperaRelatorioNanos;
+
+    private final LongAdder rejeitadasCliente = new LongAdder();
+    private final LongAdder rejeitadasUsuario = new LongAdder();
+    private final LongAdder rejeitadasRelatorios = new LongAdder();
+    private final LongAdder enfileiradasRelatorios = new LongAdder();
+
+    public LimiteRequisicoesFilter(Taxa porCliente, Taxa porUsuario, int vagasRelatorios, Duration esperaRelatorio,
+                                   long maximoBaldes, Duration expiracaoBaldes) {
+        this.porCliente = porCliente;
+        this.porUsuario = porUsuario;
+        this.baldesClientes = Caffeine.newBuilder().maximumSize(maximoBaldes).expireAfterAccess(expiracaoBaldes).build();
+        this.baldesUsuarios = Caffeine.newBuilder().maximumSize(maximoBaldes).expireAfterAccess(expiracaoBaldes).build();
+        this.vagasRelatorios = new Semaphore(vagasRelatorios);
+        this.totalVagasRelatorios = vagasRelatorios;
+        this.esperaRelatorioNanos = esperaRelatorio.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long agora = System.nanoTime();
+        UsuarioAutenticado usuario = usuarioAutenticado();
+        long espera = baldesClientes.get(cliente(request, usuario), chave -> porCliente.novoBalde(agora)).consumir(agora);
+        if (espera > 0) {
+            rejeitadasCliente.increment();
+            rejeitar(response, segundos(espera), "Limite de requisições do cliente excedido; tente novamente.");
+            return;
+        }
+        if (usuario != null) {
+            espera = baldesUsuarios.get(usuario.idUsuario(), chave -> porUsuario.novoBalde(agora)).consumir(agora);
+            if (espera > 0) {
+                rejeitadasUsuario.increment();
+                rejeitar(response, segundos(espera), "Limite de requisições do usuário excedido; tente novamente.");
+                return;
+            }
+        }
+
+        if (!relatorio(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!adquirirVagaRelatorio()) {
+            rejeitadasRelatorios.increment();
+            rejeitar(response, 1, "Muitos relatórios em cálculo; tente novamente.");
+            return;
+        }
+        boolean assincrona = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarVagaAoConcluir());
+                assincrona = true;
+            }
+        } finally {
+            if (!assincrona) {
+                vagasRelatorios.release();
+            }
+        }
+    }
+
+    private boolean adquirirVagaRelatorio() {
+        if (vagasRelatorios.tryAcquire()) {
+            return true;
+        }
+        enfileiradasRelatorios.increment();
+        try {
+            return vagasRelatorios.tryAcquire(esperaRelatorioNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String cliente(HttpServletRequest request, UsuarioAutenticado usuario) {
+        if (usuario == null) {
+            return "endereco:" + request.getRemoteAddr();
+        }
+        return usuario.idToken() != null ? "token:" + usuario.idToken() : "usuario:" + usuario.idUsuario();
+    }
+
+    private static UsuarioAutenticado usuarioAutenticado() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario ? usuario : null;
+    }
+
+    private static boolean relatorio(HttpServletRequest request) {
+        PathContainer caminho = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (PathPattern padrao : RELATORIOS) {
+            if (padrao.matches(caminho)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+
+    private static void rejeitar(HttpServletResponse response, long retryAfterSegundos, String mensagem) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSegundos));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), mensagem);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("oclock.limites.rejeitadas", rejeitadasCliente, LongAdder::sum)
+                .description("Requisições recusadas com 429 pelo controle de admissão")
+                .tag("motivo", "cliente")
+                .register(registry);
+        FunctionCounter.builder("oclock.limites.rejeitadas", rejeitadasUsuario, LongAdder::sum)
+                .description("Requisições recusadas com 429 pelo controle de admissão")
+                .tag("motivo", "usuario")
+                .register(registry);
+        FunctionCounter.builder("oclock.limites.rejeitadas", rejeitadasRelatorios, LongAdder::sum)
+                .description("Requisições recusadas com 429 pelo controle de admissão")
+                .tag("motivo", "relatorios")
+                .register(registry);
+        FunctionCounter.builder("oclock.limites.relatorios.enfileiradas", enfileiradasRelatorios, LongAdder::sum)
+                .description("Relatórios que precisaram esperar vaga")
+                .register(registry);
+        Gauge.builder("oclock.limites.relatorios.em.uso", vagasRelatorios, v -> totalVagasRelatorios - v.availablePermits())
+                .description("Relatórios em cálculo")
+                .register(registry);
+        Gauge.builder("oclock.limites.relatorios.em.espera", vagasRelatorios, Semaphore::getQueueLength)
+                .description("Relatórios aguardando vaga")
+                .register(registry);
+    }
+
+    /**
+     * Devolve a vaga de relatório de uma resposta assíncrona uma única vez, ao fim dela (concluída, com erro ou
+     * por tempo esgotado, que também termina em onComplete).
+     */
+    private final class LiberarVagaAoConcluir implements AsyncListener {
+
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Um novo startAsync descarta os listeners anteriores
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                vagasRelatorios.release();
+            }
+        }
+    }
+
+    /**
+     * Reposição (fichas por segundo) e capacidade de um balde.
+     */
+    public record Taxa(double fichasPorSegundo, int capacidade) {
+
+        BaldeTokens novoBalde(long agoraNanos) {
+            return new BaldeTokens(fichasPorSegundo, capacidade, agoraNanos);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.oclock.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Contagem de comandos SQL e linhas lidas por requisição (oclock.metricas.sql.enabled, ligada por padrão).
+ * Os tempos dos métodos de serviço vêm de @Timed (management.observations.annotations.enabled) e os do pool
+ * de conexões das métricas hikaricp.* do Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "oclock.metricas.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricasConfig {
+
+    @Bean
+    public static BeanPostProcessor contadorSqlDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Só o DataSource da aplicação: com a réplica ligada, os pools primario e replica ficam atrás dele
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource && !(bean instanceof ContadorSqlDataSource)) {
+                    return new ContadorSqlDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MetricasSqlFilter metricasSqlFilter(MeterRegistry registry) {
+        return new MetricasSqlFilter(registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<MetricasSqlFilter> metricasSqlRegistration(MetricasSqlFilter filter) {
+        FilterRegistrationBean<MetricasSqlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Depois do limite de concorrência: a contagem começa quando a requisição já tem vaga
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
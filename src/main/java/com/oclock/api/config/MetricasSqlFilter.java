@@ -0,0 +1,53 @@
+package com.oclock.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Registra, por endpoint, quantos comandos SQL cada requisição executou e quantas linhas leu
+ * (oclock.sql.comandos e oclock.sql.linhas, com as tags uri e method como em http.server.requests).
+ * A contagem é feita pelo {@link ContadorSqlDataSource}; o trabalho assíncrono das exportações em streaming,
+ * fora da thread da requisição, não entra.
+ */
+public class MetricasSqlFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public MetricasSqlFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContagemSql contagem = ContagemSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContagemSql.encerrar();
+            // O padrão da rota (ex.: /api/ponto/bater/{idUsuario}) só existe depois que o DispatcherServlet escolheu o handler
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("uri", padrao != null ? padrao.toString() : "UNKNOWN", "method", request.getMethod());
+            DistributionSummary.builder("oclock.sql.comandos")
+                    .description("Comandos SQL executados por requisição")
+                    .tags(tags)
+                    .register(registry)
+                    .record(contagem.getComandos());
+            DistributionSummary.builder("oclock.sql.linhas")
+                    .description("Linhas lidas do banco por requisição")
+                    .baseUnit("rows")
+                    .tags(tags)
+                    .register(registry)
+                    .record(contagem.getLinhas());
+        }
+    }
+}
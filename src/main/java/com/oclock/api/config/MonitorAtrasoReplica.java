@@ -0,0 +1,104 @@
+package com.oclock.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o atraso da réplica com um batimento: a cada intervalo grava o relógio atual em replica_heartbeat no primário
+ * e lê o valor que a réplica já recebeu. Com atraso acima de atrasoMaximo (ou réplica inacessível) as leituras
+ * {@link LeituraEmReplica} voltam para o primário até a réplica alcançar. Começa indisponível, até a primeira medição.
+ */
+public class MonitorAtrasoReplica implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorAtrasoReplica.class);
+
+    private static final String GRAVAR_BATIMENTO = "UPDATE replica_heartbeat SET registrado_em_millis = ? WHERE id = 1";
+    private static final String LER_BATIMENTO = "SELECT registrado_em_millis FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primario;
+    private final JdbcTemplate replica;
+    private final Duration intervalo;
+    private final long atrasoMaximoMillis;
+    private ScheduledExecutorService agendador;
+
+    private volatile boolean disponivel;
+    private volatile long atrasoMillis = -1;
+
+    public MonitorAtrasoReplica(DataSource primario, DataSource replica, Duration intervalo, Duration atrasoMaximo) {
+        this.primario = new JdbcTemplate(primario);
+        this.replica = new JdbcTemplate(replica);
+        this.intervalo = intervalo;
+        this.atrasoMaximoMillis = atrasoMaximo.toMillis();
+    }
+
+    public void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("monitor-replica").daemon().factory());
+        agendador.scheduleWithFixedDelay(this::verificar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    /**
+     * Uma medição: grava o batimento no primário e compara com o que a réplica já tem.
+     */
+    public void verificar() {
+        long agora = System.currentTimeMillis();
+        try {
+            primario.update(GRAVAR_BATIMENTO, agora);
+        } catch (DataAccessException e) {
+            // Sem gravar no primário o batimento da réplica envelhece e o atraso medido cresce: o desvio é o mesmo
+            log.warn("Falha ao gravar o batimento da réplica no primário: {}", e.getMessage());
+        }
+        boolean estavaDisponivel = disponivel;
+        try {
+            Long recebido = replica.queryForObject(LER_BATIMENTO, Long.class);
+            atrasoMillis = recebido == null ? Long.MAX_VALUE : Math.max(0, agora - recebido);
+            disponivel = atrasoMillis <= atrasoMaximoMillis;
+        } catch (DataAccessException e) {
+            atrasoMillis = -1;
+            disponivel = false;
+            log.warn("Falha ao ler o batimento da réplica: {}", e.getMessage());
+        }
+        if (estavaDisponivel != disponivel) {
+            log.info(disponivel ? "Réplica em dia (atraso {} ms): leituras voltam para a réplica"
+                    : "Réplica atrasada ou inacessível (atraso {} ms): leituras vão para o primário", atrasoMillis);
+        }
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    /**
+     * Atraso medido na última verificação; negativo quando a réplica não pôde ser lida.
+     */
+    public Duration getAtraso() {
+        return Duration.ofMillis(atrasoMillis);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("oclock.replica.atraso", this, monitor -> monitor.atrasoMillis / 1000.0)
+                .description("Atraso da réplica medido pelo batimento (negativo quando inacessível)")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("oclock.replica.disponivel", this, monitor -> monitor.disponivel ? 1 : 0)
+                .description("1 quando as leituras marcadas estão indo para a réplica, 0 quando voltaram para o primário")
+                .register(registry);
+    }
+}
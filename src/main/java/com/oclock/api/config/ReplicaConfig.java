@@ -0,0 +1,64 @@
+package com.oclock.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura (oclock.replica.enabled). O primário continua configurado em spring.datasource.*; a réplica
+ * em oclock.replica.datasource.* (propriedades do Hikari: jdbc-url, username, password, maximum-pool-size...).
+ * O DataSource da aplicação passa a ser o {@link RoteamentoDataSource} atrás de um LazyConnectionDataSourceProxy:
+ * Flyway, escritas e leituras sem {@link LeituraEmReplica} seguem no primário.
+ */
+@Configuration
+@ConditionalOnProperty(name = "oclock.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("oclock.replica.datasource")
+    public HikariDataSource dataSourceReplica() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "iniciar", destroyMethod = "encerrar")
+    public MonitorAtrasoReplica monitorAtrasoReplica(@Qualifier("dataSourcePrimario") DataSource primario,
+                                                     @Qualifier("dataSourceReplica") DataSource replica,
+                                                     @Value("${oclock.replica.intervalo-verificacao:1s}") Duration intervalo,
+                                                     @Value("${oclock.replica.atraso-maximo:5s}") Duration atrasoMaximo) {
+        return new MonitorAtrasoReplica(primario, replica, intervalo, atrasoMaximo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MonitorAtrasoReplica monitor) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primario, replica, monitor::isDisponivel));
+    }
+
+    @Bean
+    public LeituraEmReplicaAspect leituraEmReplicaAspect() {
+        return new LeituraEmReplicaAspect();
+    }
+}
@@ -0,0 +1,74 @@
+package com.oclock.api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Escolhe o banco de cada conexão: a réplica só quando a thread está dentro de um método {@link LeituraEmReplica},
+ * fora de uma transação de escrita, e a réplica está em dia (replicaDisponivel); em qualquer outro caso, o primário.
+ * Precisa ficar atrás de um LazyConnectionDataSourceProxy: o JpaTransactionManager pede a conexão antes de marcar
+ * a transação como read-only, e o proxy só a obtém daqui no primeiro comando.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRIMARIO,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> LEITURA_EM_REPLICA = new ThreadLocal<>();
+
+    private final BooleanSupplier replicaDisponivel;
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica, BooleanSupplier replicaDisponivel) {
+        this.replicaDisponivel = replicaDisponivel;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Liga ou desliga a leitura em réplica para a thread atual; retorna o valor anterior, para restaurar em chamadas aninhadas.
+     */
+    static boolean marcarLeituraEmReplica(boolean ligada) {
+        boolean anterior = Boolean.TRUE.equals(LEITURA_EM_REPLICA.get());
+        if (ligada) {
+            LEITURA_EM_REPLICA.set(Boolean.TRUE);
+        } else {
+            LEITURA_EM_REPLICA.remove();
+        }
+        return anterior;
+    }
+
+    /**
+     * Executa a consulta no primário mesmo dentro de um método {@link LeituraEmReplica}; para leituras cujo resultado
+     * fica guardado além da requisição (caches), onde o atraso da réplica não pode entrar.
+     */
+    public static <T> T noPrimario(Supplier<T> consulta) {
+        boolean anterior = marcarLeituraEmReplica(false);
+        try {
+            return consulta.get();
+        } finally {
+            marcarLeituraEmReplica(anterior);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return destinoAtual();
+    }
+
+    Destino destinoAtual() {
+        // Consultas derivadas dos repositórios rodam sem transação; só uma transação de escrita prende ao primário
+        boolean emTransacaoDeEscrita = TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        boolean leitura = Boolean.TRUE.equals(LEITURA_EM_REPLICA.get()) && !emTransacaoDeEscrita;
+        return leitura && replicaDisponivel.getAsBoolean() ? Destino.REPLICA : Destino.PRIMARIO;
+    }
+}
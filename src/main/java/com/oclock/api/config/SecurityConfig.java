@@ -0,0 +1,74 @@
+package com.oclock.api.config;
+
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtAuthenticationFilter;
+import com.oclock.api.security.JwtService;
+import jakarta.servlet.DispatcherType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Configuration
+public class SecurityConfig {
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    // Depois que o primeiro usuário existe, o cadastro volta a exigir token sem consultar o banco a cada POST
+    private final AtomicBoolean usuariosCadastrados = new AtomicBoolean();
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtService jwtService, UserRepository userRepository) throws Exception {
+        // Sem sessão: cada requisição se autentica pelo token emitido em /api/users/login
+        http.csrf(csrf -> csrf.disable())
+                .cors(Customizer.withDefaults())
+                .httpBasic(basic -> basic.disable())
+                .formLogin(form -> form.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Retomada de uma resposta assíncrona (exportação em streaming, SSE) já autorizada no despacho
+                        // original; sem sessão, o token não é lido de novo e o despacho ASYNC seria negado
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/users/login").permitAll()
+                        // Instalação nova: sem nenhum usuário não há quem faça login, então o primeiro cadastro é livre
+                        .requestMatchers(HttpMethod.POST, "/api/users")
+                        .access((autenticacao, contexto) -> new AuthorizationDecision(
+                                autenticado(autenticacao) || semUsuarios(userRepository)))
+                        .requestMatchers("/actuator/health", "/error").permitAll()
+                        .anyRequest().authenticated()
+                );
+        return http.build();
+    }
+
+    private boolean autenticado(Supplier<Authentication> autenticacao) {
+        Authentication atual = autenticacao.get();
+        return atual != null && atual.isAuthenticated() && !trustResolver.isAnonymous(atual);
+    }
+
+    private boolean semUsuarios(UserRepository userRepository) {
+        if (usuariosCadastrados.get()) {
+            return false;
+        }
+        if (userRepository.count() > 0) {
+            usuariosCadastrados.set(true);
+            return false;
+        }
+        return true;
+    }
+}
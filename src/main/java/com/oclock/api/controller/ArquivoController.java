@@ -0,0 +1,47 @@
+package com.oclock.api.controller;
+
+import com.oclock.api.dto.MesArquivadoDTO;
+import com.oclock.api.service.ArquivamentoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Administração do arquivo de meses antigos: execução manual do arquivamento, arquivamento e restauração de um mês.
+ */
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+@RestController
+@RequestMapping("/api/arquivo")
+public class ArquivoController {
+
+    private final ArquivamentoService arquivamentoService;
+
+    @Autowired
+    public ArquivoController(ArquivamentoService arquivamentoService) {
+        this.arquivamentoService = arquivamentoService;
+    }
+
+    @PostMapping("/executar")
+    public ResponseEntity<List<MesArquivadoDTO>> arquivarMesesAntigos() {
+        return ResponseEntity.ok(arquivamentoService.arquivarMesesAntigos());
+    }
+
+    @GetMapping("/{idUsuario}")
+    public ResponseEntity<List<MesArquivadoDTO>> getMesesArquivados(@PathVariable Integer idUsuario) {
+        return ResponseEntity.ok(arquivamentoService.getMesesArquivados(idUsuario));
+    }
+
+    @PostMapping("/{idUsuario}/{ano}/{mes}")
+    public ResponseEntity<MesArquivadoDTO> arquivarMes(@PathVariable Integer idUsuario, @PathVariable int ano, @PathVariable int mes) {
+        return ResponseEntity.ok(arquivamentoService.arquivarMes(idUsuario, YearMonth.of(ano, mes)));
+    }
+
+    @PostMapping("/{idUsuario}/{ano}/{mes}/restaurar")
+    public ResponseEntity<Void> restaurarMes(@PathVariable Integer idUsuario, @PathVariable int ano, @PathVariable int mes) {
+        arquivamentoService.restaurarMes(idUsuario, YearMonth.of(ano, mes));
+        return ResponseEntity.noContent().build();
+    }
+}
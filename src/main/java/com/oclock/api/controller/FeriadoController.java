@@ -0,0 +1,48 @@
+package com.oclock.api.controller;
+
+import com.oclock.api.dto.FeriadoDTO;
+import com.oclock.api.service.FeriadoService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+@RestController
+@RequestMapping("/api/feriados")
+public class FeriadoController {
+
+    private final FeriadoService feriadoService;
+
+    @Autowired
+    public FeriadoController(FeriadoService feriadoService) {
+        this.feriadoService = feriadoService;
+    }
+
+    /**
+     * Feriados cadastrados; com ano, só os que caem nele (os recorrentes, a partir do ano de cadastro).
+     */
+    @GetMapping
+    public ResponseEntity<List<FeriadoDTO>> listar(@RequestParam(required = false) Integer ano) {
+        return ResponseEntity.ok(feriadoService.listar(ano));
+    }
+
+    @PostMapping
+    public ResponseEntity<FeriadoDTO> criar(@Valid @RequestBody FeriadoDTO feriado) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(feriadoService.criar(feriado));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<FeriadoDTO> atualizar(@PathVariable Integer id, @Valid @RequestBody FeriadoDTO feriado) {
+        return ResponseEntity.ok(feriadoService.atualizar(id, feriado));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> remover(@PathVariable Integer id) {
+        feriadoService.remover(id);
+        return ResponseEntity.noContent().build();
+    }
+}
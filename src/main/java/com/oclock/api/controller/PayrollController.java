@@ -0,0 +1,26 @@
+package com.oclock.api.controller;
+
+import com.oclock.api.dto.PayrollRunDTO;
+import com.oclock.api.service.PayrollService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+@RestController
+@RequestMapping("/api/folha-pagamento")
+public class PayrollController {
+
+    private final PayrollService payrollService;
+
+    @Autowired
+    public PayrollController(PayrollService payrollService) {
+        this.payrollService = payrollService;
+    }
+
+    @GetMapping
+    public ResponseEntity<PayrollRunDTO> runPayroll(@RequestParam int ano, @RequestParam int mes) {
+        PayrollRunDTO payroll = payrollService.runPayroll(ano, mes);
+        return ResponseEntity.ok(payroll);
+    }
+}
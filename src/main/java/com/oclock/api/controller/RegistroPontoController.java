@@ -2,40 +2,94 @@ package com.oclock.api.controller;
 
 import com.oclock.api.dto.BankedHoursAccumulatedReportDTO;
 import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.CursorPageDTO;
+import com.oclock.api.dto.OrganizationMonthlyReportDTO;
+import com.oclock.api.dto.PontoAceitoDTO;
+import com.oclock.api.dto.PontoLoteRequestDTO;
+import com.oclock.api.dto.PontoLoteResultadoDTO;
 import com.oclock.api.dto.PontoRequestDTO;
 import com.oclock.api.dto.RegistroPontoAdminDTO;
+import com.oclock.api.dto.SaldoAtualDTO;
+import com.oclock.api.dto.VersaoRelatorioDTO;
+import com.oclock.api.model.FormatoExportacao;
 import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.service.OrganizationReportService;
+import com.oclock.api.service.PontoEventosService;
+import com.oclock.api.service.PontoJournalService;
 import com.oclock.api.service.RegistrosPontoService;
+import com.oclock.api.service.SaldoAtualService;
+import com.oclock.api.service.VersaoRelatorioService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.function.Supplier;
 
 @CrossOrigin(origins = "27.0.0.1:http://15500")
 @RestController
 @RequestMapping("/api/ponto")
 public class RegistroPontoController {
 
+    // O cliente pode guardar o relatório, mas revalida (If-None-Match/If-Modified-Since) a cada uso
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
     private final RegistrosPontoService registrosPontoService;
+    private final OrganizationReportService organizationReportService;
+    private final SaldoAtualService saldoAtualService;
+    private final PontoEventosService pontoEventosService;
+    private final VersaoRelatorioService versaoRelatorioService;
+    // Presente só com oclock.journal.enabled=true
+    private final PontoJournalService pontoJournalService;
 
     @Autowired
-    public RegistroPontoController(RegistrosPontoService registrosPontoService) {
+    public RegistroPontoController(RegistrosPontoService registrosPontoService, OrganizationReportService organizationReportService,
+                                   SaldoAtualService saldoAtualService, PontoEventosService pontoEventosService,
+                                   VersaoRelatorioService versaoRelatorioService,
+                                   ObjectProvider<PontoJournalService> pontoJournalService) {
         this.registrosPontoService = registrosPontoService;
+        this.organizationReportService = organizationReportService;
+        this.saldoAtualService = saldoAtualService;
+        this.pontoEventosService = pontoEventosService;
+        this.versaoRelatorioService = versaoRelatorioService;
+        this.pontoJournalService = pontoJournalService.getIfAvailable();
     }
 
+    /**
+     * Registra a batida e responde 201 com o registro gravado. No modo journal responde 202 com a sequência
+     * da batida no journal local: o registro (e o tipo ENTRADA/SAIDA) chega ao banco em segundo plano.
+     */
     @PostMapping("/bater/{idUsuario}")
-    public ResponseEntity<RegistrosPonto> baterPonto(@PathVariable Integer idUsuario,
-                                                     @Valid @RequestBody PontoRequestDTO pontoRequestDTO) {
+    public ResponseEntity<?> baterPonto(@PathVariable Integer idUsuario,
+                                        @Valid @RequestBody PontoRequestDTO pontoRequestDTO) {
+        if (pontoJournalService != null) {
+            PontoAceitoDTO aceito = pontoJournalService.aceitar(idUsuario, pontoRequestDTO.getDataHoraRegistro());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(aceito);
+        }
         RegistrosPonto novoPonto = registrosPontoService.baterPonto(idUsuario, pontoRequestDTO.getDataHoraRegistro());
         return ResponseEntity.status(HttpStatus.CREATED).body(novoPonto);
     }
 
+    @PostMapping("/bater/lote")
+    public ResponseEntity<List<PontoLoteResultadoDTO>> baterPontoEmLote(@Valid @RequestBody PontoLoteRequestDTO loteRequestDTO) {
+        List<PontoLoteResultadoDTO> resultados = registrosPontoService.baterPontoEmLote(loteRequestDTO.getMarcacoes());
+        return ResponseEntity.ok(resultados);
+    }
+
     @GetMapping("/{userId}/dia")
     public ResponseEntity<List<RegistrosPonto>> getRegistrosPontoByDay(
             @PathVariable Integer userId,
@@ -54,32 +108,88 @@ public class RegistroPontoController {
     }
 
     @GetMapping("/periodo")
-    public ResponseEntity<List<RegistrosPonto>> getRegistrosPontoByPeriodo(
+    public ResponseEntity<CursorPageDTO<RegistrosPonto>> getRegistrosPontoByPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
-        List<RegistrosPonto> registros = registrosPontoService.getRegistrosPontoByPeriodo(inicio, fim);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        CursorPageDTO<RegistrosPonto> registros = registrosPontoService.getRegistrosPontoByPeriodo(inicio, fim, cursor, limite);
         return ResponseEntity.ok(registros);
     }
 
+    /**
+     * Fluxo SSE das marcações a partir de agora (batida, criado, alterado, removido), de um usuário ou de todos.
+     * O cliente retoma de onde parou enviando o id do último evento recebido em Last-Event-ID (ou em ultimoEvento,
+     * para quem não controla os cabeçalhos); "ressincronizar" indica que eventos se perderam.
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinarEventos(
+            @RequestParam(required = false) Integer idUsuario,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String ultimoEvento) {
+        return pontoEventosService.assinar(idUsuario, lastEventId != null ? lastEventId : ultimoEvento);
+    }
+
+    @GetMapping("/periodo/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarRegistrosPontoByPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato) {
+        StreamingResponseBody corpo = saida -> registrosPontoService.exportarRegistrosPontoByPeriodo(inicio, fim, formato, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"registros-ponto." + formato.getExtensao() + "\"")
+                .body(corpo);
+    }
+
+    /**
+     * Relatório mensal com ETag e, para meses fechados, Last-Modified; uma requisição condicional cuja versão
+     * não mudou recebe 304 sem que o relatório seja calculado.
+     */
     @GetMapping("/{userId}/banco-horas-mensal")
     public ResponseEntity<BankedHoursReportDTO> getMonthlyBankedHoursReport(
             @PathVariable Integer userId,
             @RequestParam int ano,
-            @RequestParam int mes) {
-        BankedHoursReportDTO report = registrosPontoService.generateMonthlyBankedHoursReport(userId, ano, mes);
+            @RequestParam int mes,
+            WebRequest request) {
+        VersaoRelatorioDTO versao = versaoRelatorioService.getVersaoRelatorioMensal(userId, ano, mes);
+        return condicional(request, versao, () -> registrosPontoService.generateMonthlyBankedHoursReport(userId, ano, mes));
+    }
+
+    @GetMapping("/banco-horas-mensal")
+    public ResponseEntity<OrganizationMonthlyReportDTO> getOrganizationMonthlyReport(
+            @RequestParam int ano,
+            @RequestParam int mes,
+            @RequestParam(defaultValue = "true") boolean apenasAtivos,
+            @RequestParam(required = false) Sort.Direction ordemSaldo) {
+        OrganizationMonthlyReportDTO report = organizationReportService.generateMonthlyReport(ano, mes, apenasAtivos, ordemSaldo);
         return ResponseEntity.ok(report);
     }
 
+    /**
+     * Saldo acumulado até ontem mais o trabalhado hoje (com o expediente em aberto), calculado em memória.
+     */
+    @GetMapping("/{userId}/saldo-atual")
+    public ResponseEntity<SaldoAtualDTO> getSaldoAtual(@PathVariable Integer userId) {
+        return ResponseEntity.ok(saldoAtualService.getSaldoAtual(userId));
+    }
+
+    /**
+     * Relatório acumulado com ETag (sem Last-Modified, por incluir o mês corrente); 304 quando a versão não mudou.
+     */
     @GetMapping("/{userId}/banco-horas-acumulado")
     public ResponseEntity<BankedHoursAccumulatedReportDTO> getAccumulatedBankedHoursReport(
-            @PathVariable Integer userId) {
-        BankedHoursAccumulatedReportDTO report = registrosPontoService.generateAccumulatedBankedHoursReport(userId);
-        return ResponseEntity.ok(report);
+            @PathVariable Integer userId,
+            WebRequest request) {
+        VersaoRelatorioDTO versao = versaoRelatorioService.getVersaoRelatorioAcumulado(userId);
+        return condicional(request, versao, () -> registrosPontoService.generateAccumulatedBankedHoursReport(userId));
     }
 
     @GetMapping
-    public ResponseEntity<List<RegistrosPonto>> getAllRegistrosPonto() {
-        List<RegistrosPonto> registros = registrosPontoService.getAllRegistrosPonto();
+    public ResponseEntity<CursorPageDTO<RegistrosPonto>> getAllRegistrosPonto(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        CursorPageDTO<RegistrosPonto> registros = registrosPontoService.getAllRegistrosPonto(cursor, limite);
         return ResponseEntity.ok(registros);
     }
 
@@ -107,4 +217,17 @@ public class RegistroPontoController {
     public void deleteRegistroPonto(@PathVariable Integer id) {
         registrosPontoService.deleteRegistroPonto(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Confere If-None-Match/If-Modified-Since com a versão (o WebRequest também grava ETag e Last-Modified na
+     * resposta) e só calcula o relatório se o cliente não tiver a versão atual.
+     */
+    private <T> ResponseEntity<T> condicional(WebRequest request, VersaoRelatorioDTO versao, Supplier<T> relatorio) {
+        long ultimaAlteracao = versao.getUltimaAlteracao() == null ? -1
+                : versao.getUltimaAlteracao().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (request.checkNotModified(versao.getEtag(), ultimaAlteracao)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDAR).body(relatorio.get());
+    }
+}
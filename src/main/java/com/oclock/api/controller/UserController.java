@@ -1,8 +1,11 @@
 package com.oclock.api.controller;
 
+import com.oclock.api.dto.CursorPageDTO;
+import com.oclock.api.dto.LoginResponseDTO;
 import com.oclock.api.dto.UserCreateUpdateDTO;
 import com.oclock.api.model.LoginRequest;
 import com.oclock.api.model.User;
+import com.oclock.api.security.JwtService;
 import com.oclock.api.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -12,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
 import java.util.Optional;
 
 @CrossOrigin(origins = "http://127.0.0.1:5500")
@@ -21,10 +23,12 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService userService;
+    private final JwtService jwtService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, JwtService jwtService) {
         this.userService = userService;
+        this.jwtService = jwtService;
     }
 
     @PostMapping
@@ -38,9 +42,14 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<CursorPageDTO<User>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limite) {
+        try {
+            CursorPageDTO<User> users = userService.getAllUsers(cursor, limite);
+            return new ResponseEntity<>(users, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -73,12 +82,14 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<User> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<LoginResponseDTO> login(@RequestBody LoginRequest loginRequest) {
         Optional<User> authenticatedUser = userService.authenticateUser(
                 loginRequest.getEmail(), loginRequest.getPassword()
         );
         return authenticatedUser
-                .map(user -> new ResponseEntity<>(user, HttpStatus.OK))
+                .map(user -> new LoginResponseDTO(jwtService.gerarToken(user), "Bearer",
+                        jwtService.getExpiracao().toSeconds(), user.getId(), user.getNomeCompleto(), user.getPermissao()))
+                .map(resposta -> new ResponseEntity<>(resposta, HttpStatus.OK))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Email ou senha inválidos."));
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.oclock.api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+    private int limit;
+    // Token para buscar a próxima página; nulo quando não há mais itens.
+    private String nextCursor;
+
+    /**
+     * Monta a página a partir de uma consulta que buscou limit + 1 itens: o item excedente
+     * só indica que existe uma próxima página.
+     */
+    public static <T> CursorPageDTO<T> of(List<T> itensMaisUm, int limit, Function<T, String> cursorDoItem) {
+        if (itensMaisUm.size() <= limit) {
+            return new CursorPageDTO<>(itensMaisUm, limit, null);
+        }
+        List<T> items = itensMaisUm.subList(0, limit);
+        return new CursorPageDTO<>(items, limit, cursorDoItem.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * Limite efetivo da página: o pedido pelo cliente, ou o padrão, nunca acima do máximo configurado.
+     */
+    public static int resolveLimit(Integer requestedLimit, int defaultLimit, int maxLimit) {
+        if (requestedLimit == null) {
+            return defaultLimit;
+        }
+        if (requestedLimit < 1) {
+            throw new IllegalArgumentException("O limite da página deve ser maior que zero.");
+        }
+        return Math.min(requestedLimit, maxLimit);
+    }
+}
@@ -0,0 +1,36 @@
+package com.oclock.api.dto;
+
+import com.oclock.api.model.AbrangenciaFeriado;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeriadoDTO {
+
+    private Integer id;
+
+    // Num feriado recorrente, o primeiro ano em que vale
+    @NotNull(message = "A data do feriado é obrigatória")
+    private LocalDate data;
+
+    @NotBlank(message = "A descrição do feriado é obrigatória")
+    private String descricao;
+
+    @NotNull(message = "A abrangência é obrigatória (NACIONAL, ESTADUAL ou EMPRESA)")
+    private AbrangenciaFeriado abrangencia;
+
+    // Só nos feriados estaduais
+    @Pattern(regexp = "[A-Z]{2}", message = "A UF deve ter duas letras maiúsculas")
+    private String uf;
+
+    // Repete todo ano no mesmo dia e mês, a partir do ano de data
+    private boolean recorrente;
+}
@@ -0,0 +1,21 @@
+package com.oclock.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resposta do login: o token de acesso, a ser enviado como "Authorization: Bearer &lt;token&gt;",
+ * e a identificação do usuário autenticado (sem o hash da senha nem os demais dados cadastrais).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponseDTO {
+    private String token;
+    private String tipo;
+    private long expiraEmSegundos;
+    private Integer idUsuario;
+    private String nomeCompleto;
+    private String permissao;
+}
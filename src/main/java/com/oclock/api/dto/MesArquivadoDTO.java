@@ -0,0 +1,22 @@
+package com.oclock.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MesArquivadoDTO {
+
+    private Integer idUsuario;
+    private int ano;
+    private int mes;
+    private int quantidadeRegistros;
+    // Tamanho do segmento em disco
+    private long tamanhoBytes;
+    private long crc32c;
+    private LocalDateTime arquivadoEm;
+}
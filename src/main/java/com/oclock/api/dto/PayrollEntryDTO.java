@@ -0,0 +1,23 @@
+package com.oclock.api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollEntryDTO {
+    private Integer userId;
+    private String userName;
+    private BigDecimal valorHora;
+    private Duration totalHoursWorkedMonth;
+    private Duration totalExpectedHoursMonth;
+    private Duration balanceHoursMonth;
+    private String balanceStatus;
+    // Saldo positivo do mês (horas extras) multiplicado pelo valor da hora; zero quando o saldo não é positivo.
+    private BigDecimal overtimeValue;
+}
@@ -0,0 +1,19 @@
+package com.oclock.api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRunDTO {
+    private int year;
+    private int month;
+    private int totalUsers;
+    private long totalPunches;
+    private long elapsedMillis;
+    private List<PayrollEntryDTO> entries;
+}
@@ -0,0 +1,25 @@
+package com.oclock.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta de uma batida aceita pelo journal local: já está gravada em disco e será registrada no banco
+ * em segundo plano, quando o tipo (ENTRADA/SAIDA) é definido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoAceitoDTO {
+
+    public static final String PENDENTE = "PENDENTE";
+
+    // Sequência da batida no journal da instância
+    private long sequencia;
+    private Integer idUsuario;
+    private LocalDateTime dataHoraRegistro;
+    private String status;
+}
@@ -0,0 +1,20 @@
+package com.oclock.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoLoteRequestDTO {
+
+    @NotEmpty(message = "O lote deve conter ao menos uma marcação")
+    @Size(max = 5000, message = "O lote pode conter no máximo 5000 marcações")
+    private List<@Valid PontoLoteItemDTO> marcacoes;
+}
@@ -0,0 +1,27 @@
+package com.oclock.api.dto;
+
+import com.oclock.api.model.TipoRegistro;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoLoteResultadoDTO {
+
+    public static final String REGISTRADO = "REGISTRADO";
+    public static final String USUARIO_NAO_ENCONTRADO = "USUARIO_NAO_ENCONTRADO";
+    // Marcação anterior ao último registro gravado do usuário: entraria no meio da sequência ENTRADA/SAIDA já gravada
+    public static final String ANTERIOR_AO_ULTIMO_REGISTRO = "ANTERIOR_AO_ULTIMO_REGISTRO";
+
+    // Posição da marcação no lote enviado
+    private int indice;
+    private Integer idUsuario;
+    private LocalDateTime dataHoraRegistro;
+    // Nulo quando a marcação não foi registrada
+    private TipoRegistro tipoRegistro;
+    private String status;
+}
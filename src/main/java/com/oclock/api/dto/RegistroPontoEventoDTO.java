@@ -0,0 +1,25 @@
+package com.oclock.api.dto;
+
+import com.oclock.api.model.AlteracaoRegistro;
+import com.oclock.api.model.TipoRegistro;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dados de um evento de /api/ponto/eventos. Em REMOVIDO vêm os valores da marcação antes da remoção
+ * (ou, quando ela passou para outro usuário, os do usuário anterior).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroPontoEventoDTO {
+
+    private Integer idRegistro;
+    private Integer idUsuario;
+    private LocalDateTime dataHoraRegistro;
+    private TipoRegistro tipoRegistro;
+    private AlteracaoRegistro alteracao;
+}
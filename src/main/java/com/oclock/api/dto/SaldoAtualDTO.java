@@ -0,0 +1,25 @@
+package com.oclock.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoAtualDTO {
+
+    private Integer userId;
+    private String userName;
+    private LocalDateTime calculadoEm;
+    // Trabalhado menos esperado, do mês da primeira marcação até ontem
+    private Duration saldoAteOntem;
+    // Inclui o intervalo ainda aberto (última marcação ENTRADA) até calculadoEm
+    private Duration trabalhadoHoje;
+    private boolean expedienteAberto;
+    // saldoAteOntem + trabalhadoHoje
+    private Duration saldoAtual;
+}
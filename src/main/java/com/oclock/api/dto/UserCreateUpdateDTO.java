@@ -5,10 +5,14 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.hibernate.validator.constraints.br.CPF;
 
 @Data
@@ -42,4 +46,12 @@ public class UserCreateUpdateDTO {
 
     @DecimalMin(value = "0.0", inclusive = true, message = "O valor da hora não pode ser negativo")
     private BigDecimal valorHora;
-}
\ No newline at end of file
+
+    @Pattern(regexp = "[A-Z]{2}", message = "A UF deve ter duas letras maiúsculas")
+    private String uf;
+
+    // Minutos esperados de segunda a domingo; sem escala vale a jornada diária de segunda a sexta
+    @Size(min = 7, max = 7, message = "A escala semanal deve ter os minutos dos sete dias, de segunda a domingo")
+    private List<@NotNull @Min(value = 0, message = "Os minutos do dia não podem ser negativos")
+            @Max(value = 1440, message = "Um dia tem no máximo 1440 minutos") Integer> escalaSemanal;
+}
@@ -0,0 +1,18 @@
+package com.oclock.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoRelatorioDTO {
+
+    // ETag fraco (W/"..."), já entre aspas
+    private String etag;
+    // Nulo quando o relatório inclui o mês corrente (ver VersaoRelatorioService)
+    private LocalDateTime ultimaAlteracao;
+}
@@ -0,0 +1,10 @@
+package com.oclock.api.model;
+
+public enum AbrangenciaFeriado {
+    // Vale para todos; os feriados nacionais fixos e a Sexta-feira Santa já vêm de FeriadosNacionais
+    NACIONAL,
+    // Vale para os usuários com a mesma UF
+    ESTADUAL,
+    // Vale para todos (ponte, recesso, ponto facultativo adotado pela empresa)
+    EMPRESA
+}
@@ -0,0 +1,11 @@
+package com.oclock.api.model;
+
+/**
+ * Como uma marcação mudou: BATIDA para as de baterPonto/lote, as demais para as operações de administrador.
+ */
+public enum AlteracaoRegistro {
+    BATIDA,
+    CRIADO,
+    ALTERADO,
+    REMOVIDO
+}
@@ -0,0 +1,18 @@
+package com.oclock.api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * O que o cálculo de horas precisa de uma marcação. Implementada pela entidade {@link RegistrosPonto} e pela
+ * projeção {@link MarcacaoResumo} das consultas de relatório.
+ */
+public interface Marcacao {
+
+    Integer getId();
+
+    Integer getIdUsuario();
+
+    LocalDateTime getDataHoraRegistro();
+
+    TipoRegistro getTipoRegistro();
+}
@@ -0,0 +1,20 @@
+package com.oclock.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção das consultas de relatório: só as colunas usadas no cálculo, sem observação nem datas de auditoria.
+ * Montada pelo construtor na própria consulta (select new), não é uma entidade gerenciada.
+ */
+@Data
+@AllArgsConstructor
+public class MarcacaoResumo implements Marcacao {
+
+    private final Integer id;
+    private final Integer idUsuario;
+    private final LocalDateTime dataHoraRegistro;
+    private final TipoRegistro tipoRegistro;
+}
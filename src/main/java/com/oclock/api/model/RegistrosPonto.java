@@ -8,11 +8,14 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "registros_ponto")
+@Table(name = "registros_ponto", indexes = {
+        @Index(name = "idx_registros_ponto_usuario_data", columnList = "id_usuario, data_hora_registro, updated_at"),
+        @Index(name = "idx_registros_ponto_data", columnList = "data_hora_registro")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class RegistrosPonto {
+public class RegistrosPonto implements Marcacao {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
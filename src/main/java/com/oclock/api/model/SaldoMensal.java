@@ -0,0 +1,53 @@
+package com.oclock.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Livro-razão do banco de horas: horas trabalhadas de um usuário em um mês já fechado.
+ * As horas esperadas não são gravadas aqui porque dependem da jornada atual do usuário.
+ */
+@Entity
+@Table(name = "saldos_mensais",
+        uniqueConstraints = @UniqueConstraint(name = "uk_saldos_mensais_usuario_ano_mes",
+                columnNames = {"id_usuario", "ano", "mes"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_saldo")
+    private Integer id;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Integer idUsuario;
+
+    @Column(name = "ano", nullable = false)
+    private Integer ano;
+
+    @Column(name = "mes", nullable = false)
+    private Integer mes;
+
+    // Soma de trabalhado_por_dia, em nanossegundos.
+    @Column(name = "total_trabalhado_nanos", nullable = false)
+    private Long totalTrabalhadoNanos;
+
+    // Nanossegundos trabalhados em cada dia do mês, separados por vírgula (posição = dia - 1).
+    @Column(name = "trabalhado_por_dia", nullable = false, length = 512)
+    private String trabalhadoPorDia;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -49,4 +49,12 @@ public class User {
     @Column(name = "jornada_diaria_horas", precision = 4, scale = 2, nullable = false)
     private BigDecimal jornadaDiariaHoras;
 
+    // UF para os feriados estaduais
+    @Column(name = "uf", length = 2)
+    private String uf;
+
+    // Minutos esperados de segunda a domingo, separados por vírgula; nulo = jornada diária de segunda a sexta
+    @Column(name = "escala_semanal", length = 64)
+    private String escalaSemanal;
+
     }
@@ -0,0 +1,264 @@
+package com.oclock.api.repository;
+
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Arquivo frio das marcações de meses antigos: um segmento binário por usuário e mês
+ * (&lt;diretório&gt;/&lt;idUsuario&gt;/&lt;ano&gt;-&lt;mês&gt;.seg), gravado pelo arquivamento e lido (mapeado em memória)
+ * pelos relatórios e pela restauração.
+ * <p>
+ * Formato: cabeçalho fixo (magic, versão, id do usuário, ano, mês, quantidade de marcações), dicionário das
+ * observações distintas e as marcações em ordem de data/hora, com inteiros de tamanho variável:
+ * <ul>
+ *   <li>intervalo desde a marcação anterior (a primeira, desde o início do mês) em microssegundos, deslocado um bit
+ *   para a esquerda, com o tipo no bit menos significativo (0 = ENTRADA, 1 = SAIDA);</li>
+ *   <li>diferença do id para o da marcação anterior (zigzag);</li>
+ *   <li>índice da observação no dicionário (0 = sem observação);</li>
+ *   <li>created_at menos a data/hora da marcação e updated_at menos created_at, em microssegundos (zigzag).</li>
+ * </ul>
+ * Um CRC32C de todo o conteúdo fecha o arquivo; um segmento que não confere não é lido. Com as marcações de um mês
+ * (intervalos de horas, ids próximos, uma observação padrão) cada uma ocupa em torno de 10 bytes.
+ */
+@Repository
+public class ArquivoMensalStore {
+
+    private static final int MAGIC = 0x4F434131; // "OCA1"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 20;
+    private static final String SUFIXO = ".seg";
+    private static final String TEMPORARIO = ".tmp";
+
+    private final Path diretorio;
+
+    @Autowired
+    public ArquivoMensalStore(@Value("${oclock.arquivo.diretorio:arquivo}") Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Grava (ou substitui) o segmento do mês com as marcações informadas, em ordem de data/hora. O arquivo só aparece
+     * com o nome final depois de inteiro no disco.
+     */
+    public Segmento gravar(Integer idUsuario, YearMonth mes, List<RegistrosPonto> registrosOrdenados) {
+        ByteBuffer conteudo = codificar(idUsuario, mes, registrosOrdenados);
+        Path arquivo = caminho(idUsuario, mes);
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + TEMPORARIO);
+        try {
+            Files.createDirectories(arquivo.getParent());
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                while (conteudo.hasRemaining()) {
+                    canal.write(conteudo);
+                }
+                canal.force(true);
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar o segmento " + arquivo, e);
+        }
+        return new Segmento(conteudo.limit(), Integer.toUnsignedLong(conteudo.getInt(conteudo.limit() - 4)));
+    }
+
+    /**
+     * Lê as marcações do segmento, na ordem gravada. As entidades devolvidas não estão em nenhum contexto de persistência.
+     */
+    public List<RegistrosPonto> ler(Integer idUsuario, YearMonth mes) {
+        Path arquivo = caminho(idUsuario, mes);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return decodificar(arquivo, buffer, idUsuario, mes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o segmento " + arquivo, e);
+        }
+    }
+
+    public void remover(Integer idUsuario, YearMonth mes) {
+        try {
+            Files.deleteIfExists(caminho(idUsuario, mes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível remover o segmento de " + mes + " do usuário " + idUsuario, e);
+        }
+    }
+
+    private Path caminho(Integer idUsuario, YearMonth mes) {
+        return diretorio.resolve(idUsuario.toString()).resolve(mes + SUFIXO);
+    }
+
+    static ByteBuffer codificar(Integer idUsuario, YearMonth mes, List<RegistrosPonto> registros) {
+        Map<String, Integer> indiceObservacoes = new HashMap<>();
+        List<byte[]> observacoes = new ArrayList<>();
+        for (RegistrosPonto registro : registros) {
+            if (registro.getObservacao() != null && !indiceObservacoes.containsKey(registro.getObservacao())) {
+                indiceObservacoes.put(registro.getObservacao(), observacoes.size() + 1);
+                observacoes.add(registro.getObservacao().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        Escrita escrita = new Escrita(TAMANHO_CABECALHO + registros.size() * 12 + 64);
+        escrita.buffer.putInt(MAGIC).putInt(VERSAO).putInt(idUsuario).putInt(mes.getYear() * 100 + mes.getMonthValue())
+                .putInt(registros.size());
+        escrita.varint(observacoes.size());
+        for (byte[] observacao : observacoes) {
+            escrita.varint(observacao.length);
+            escrita.bytes(observacao);
+        }
+
+        LocalDateTime anterior = mes.atDay(1).atStartOfDay();
+        long idAnterior = 0;
+        for (RegistrosPonto registro : registros) {
+            long intervalo = ChronoUnit.MICROS.between(anterior, registro.getDataHoraRegistro());
+            if (intervalo < 0 || !YearMonth.from(registro.getDataHoraRegistro()).equals(mes)) {
+                throw new IllegalArgumentException("Marcação " + registro.getId() + " fora de ordem ou fora de " + mes);
+            }
+            escrita.varint(intervalo << 1 | (registro.getTipoRegistro() == TipoRegistro.SAIDA ? 1 : 0));
+            escrita.zigzag(registro.getId() - idAnterior);
+            escrita.varint(registro.getObservacao() == null ? 0 : indiceObservacoes.get(registro.getObservacao()));
+            escrita.zigzag(ChronoUnit.MICROS.between(registro.getDataHoraRegistro(), registro.getCreatedAt()));
+            escrita.zigzag(ChronoUnit.MICROS.between(registro.getCreatedAt(), registro.getUpdatedAt()));
+            anterior = registro.getDataHoraRegistro();
+            idAnterior = registro.getId();
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(escrita.buffer.array(), 0, escrita.buffer.position());
+        escrita.garantir(4);
+        escrita.buffer.putInt((int) crc.getValue());
+        return escrita.buffer.flip();
+    }
+
+    static List<RegistrosPonto> decodificar(Path arquivo, ByteBuffer buffer, Integer idUsuario, YearMonth mes) {
+        int tamanho = buffer.limit();
+        if (tamanho < TAMANHO_CABECALHO + 4 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSAO) {
+            throw new IllegalStateException("Segmento de arquivo inválido: " + arquivo);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, tamanho - 4));
+        if ((int) crc.getValue() != buffer.getInt(tamanho - 4)) {
+            throw new IllegalStateException("Segmento de arquivo corrompido (CRC não confere): " + arquivo);
+        }
+        if (buffer.getInt(8) != idUsuario || buffer.getInt(12) != mes.getYear() * 100 + mes.getMonthValue()) {
+            throw new IllegalStateException("Segmento " + arquivo + " não é do usuário " + idUsuario + " em " + mes);
+        }
+
+        Leitura leitura = new Leitura(buffer.slice(TAMANHO_CABECALHO, tamanho - 4 - TAMANHO_CABECALHO));
+        int quantidade = buffer.getInt(16);
+        String[] observacoes = new String[(int) leitura.varint() + 1];
+        for (int i = 1; i < observacoes.length; i++) {
+            observacoes[i] = new String(leitura.bytes((int) leitura.varint()), StandardCharsets.UTF_8);
+        }
+
+        List<RegistrosPonto> registros = new ArrayList<>(quantidade);
+        LocalDateTime anterior = mes.atDay(1).atStartOfDay();
+        long idAnterior = 0;
+        for (int i = 0; i < quantidade; i++) {
+            long intervaloETipo = leitura.varint();
+            LocalDateTime dataHora = anterior.plus(intervaloETipo >>> 1, ChronoUnit.MICROS);
+            long id = idAnterior + leitura.zigzag();
+            String observacao = observacoes[(int) leitura.varint()];
+            LocalDateTime criadoEm = dataHora.plus(leitura.zigzag(), ChronoUnit.MICROS);
+            LocalDateTime atualizadoEm = criadoEm.plus(leitura.zigzag(), ChronoUnit.MICROS);
+            registros.add(new RegistrosPonto((int) id, idUsuario, dataHora,
+                    (intervaloETipo & 1) == 1 ? TipoRegistro.SAIDA : TipoRegistro.ENTRADA, observacao, criadoEm, atualizadoEm));
+            anterior = dataHora;
+            idAnterior = id;
+        }
+        return registros;
+    }
+
+    /**
+     * Tamanho em bytes e CRC32C do segmento gravado.
+     */
+    public record Segmento(long tamanhoBytes, long crc32c) {
+    }
+
+    private static final class Escrita {
+
+        private ByteBuffer buffer;
+
+        Escrita(int capacidadeInicial) {
+            buffer = ByteBuffer.allocate(capacidadeInicial);
+        }
+
+        void garantir(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer maior = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                maior.put(buffer);
+                buffer = maior;
+            }
+        }
+
+        void varint(long valor) {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                buffer.put((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            buffer.put((byte) valor);
+        }
+
+        void zigzag(long valor) {
+            varint((valor << 1) ^ (valor >> 63));
+        }
+
+        void bytes(byte[] valor) {
+            garantir(valor.length);
+            buffer.put(valor);
+        }
+    }
+
+    private static final class Leitura {
+
+        private final ByteBuffer buffer;
+
+        Leitura(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        long varint() {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                byte b = buffer.get();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalStateException("Inteiro de tamanho variável inválido no segmento");
+        }
+
+        long zigzag() {
+            long valor = varint();
+            return (valor >>> 1) ^ -(valor & 1);
+        }
+
+        byte[] bytes(int tamanho) {
+            byte[] valor = new byte[tamanho];
+            buffer.get(valor);
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.oclock.api.repository;
+
+import com.oclock.api.dto.FeriadoDTO;
+import com.oclock.api.model.AbrangenciaFeriado;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Feriados cadastrados (tabela feriados) e a versão do calendário (calendario_versao), incrementada na mesma
+ * transação de cada alteração.
+ */
+@Repository
+public class FeriadoRepository {
+
+    private static final String COLUNAS = "id_feriado, data, descricao, abrangencia, uf, recorrente";
+    private static final RowMapper<FeriadoDTO> MAPPER = (rs, linha) -> new FeriadoDTO(
+            rs.getInt("id_feriado"), rs.getDate("data").toLocalDate(), rs.getString("descricao"),
+            AbrangenciaFeriado.valueOf(rs.getString("abrangencia")), rs.getString("uf"), rs.getBoolean("recorrente"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FeriadoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<FeriadoDTO> buscarTodos() {
+        return jdbcTemplate.query("SELECT " + COLUNAS + " FROM feriados ORDER BY data, id_feriado", MAPPER);
+    }
+
+    /**
+     * Feriados que podem cair no ano: os da data no ano e os recorrentes que começaram até ele.
+     */
+    public List<FeriadoDTO> buscarDoAno(int ano) {
+        return jdbcTemplate.query("SELECT " + COLUNAS + " FROM feriados "
+                        + "WHERE (recorrente = FALSE AND data BETWEEN ? AND ?) OR (recorrente = TRUE AND data <= ?)",
+                MAPPER, Date.valueOf(LocalDate.of(ano, 1, 1)), Date.valueOf(LocalDate.of(ano, 12, 31)),
+                Date.valueOf(LocalDate.of(ano, 12, 31)));
+    }
+
+    public Optional<FeriadoDTO> buscar(Integer id) {
+        return jdbcTemplate.query("SELECT " + COLUNAS + " FROM feriados WHERE id_feriado = ?", MAPPER, id).stream().findFirst();
+    }
+
+    public Integer inserir(FeriadoDTO feriado) {
+        KeyHolder chave = new GeneratedKeyHolder();
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(
+                    "INSERT INTO feriados (data, descricao, abrangencia, uf, recorrente) VALUES (?, ?, ?, ?, ?)",
+                    new String[]{"id_feriado"});
+            ps.setDate(1, Date.valueOf(feriado.getData()));
+            ps.setString(2, feriado.getDescricao());
+            ps.setString(3, feriado.getAbrangencia().name());
+            ps.setString(4, feriado.getUf());
+            ps.setBoolean(5, feriado.isRecorrente());
+            return ps;
+        }, chave);
+        return chave.getKey().intValue();
+    }
+
+    public boolean atualizar(FeriadoDTO feriado) {
+        return jdbcTemplate.update("UPDATE feriados SET data = ?, descricao = ?, abrangencia = ?, uf = ?, recorrente = ? "
+                        + "WHERE id_feriado = ?",
+                Date.valueOf(feriado.getData()), feriado.getDescricao(), feriado.getAbrangencia().name(), feriado.getUf(),
+                feriado.isRecorrente(), feriado.getId()) > 0;
+    }
+
+    public boolean remover(Integer id) {
+        return jdbcTemplate.update("DELETE FROM feriados WHERE id_feriado = ?", id) > 0;
+    }
+
+    /**
+     * Incrementa a versão do calendário; deve rodar na transação da alteração do feriado.
+     */
+    public void registrarAlteracao() {
+        jdbcTemplate.update("UPDATE calendario_versao SET versao = versao + 1, atualizado_em = ? WHERE id = 1",
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.oclock.api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Última sequência de cada {@link PontoJournal} já gravada em registros_ponto (tabela journal_ponto_checkpoint).
+ * Deve ser atualizada na mesma transação que insere as marcações drenadas. Batidas que nunca conseguem ser
+ * gravadas vão para journal_ponto_quarentena, avançando o ponto de controle na mesma transação.
+ */
+@Repository
+public class JournalCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JournalCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Long> buscarUltimaSequencia(String idJournal) {
+        List<Long> sequencias = jdbcTemplate.queryForList(
+                "SELECT ultima_sequencia FROM journal_ponto_checkpoint WHERE id_journal = ?", Long.class, idJournal);
+        return sequencias.stream().findFirst();
+    }
+
+    public void salvar(String idJournal, long ultimaSequencia) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        int atualizadas = jdbcTemplate.update(
+                "UPDATE journal_ponto_checkpoint SET ultima_sequencia = ?, updated_at = ? WHERE id_journal = ?",
+                ultimaSequencia, agora, idJournal);
+        if (atualizadas == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO journal_ponto_checkpoint (id_journal, ultima_sequencia, updated_at) VALUES (?, ?, ?)",
+                    idJournal, ultimaSequencia, agora);
+        }
+    }
+
+    /**
+     * Tira a batida da fila de drenagem: grava-a em journal_ponto_quarentena e avança o ponto de controle até ela.
+     */
+    @Transactional
+    public void quarentenar(String idJournal, PontoJournal.Registro registro, String erro) {
+        String mensagem = erro == null ? "" : erro.length() > 500 ? erro.substring(0, 500) : erro;
+        jdbcTemplate.update(
+                "INSERT INTO journal_ponto_quarentena (id_journal, sequencia, id_usuario, data_hora_registro, erro, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                idJournal, registro.sequencia(), registro.idUsuario(), Timestamp.valueOf(registro.dataHoraRegistro()),
+                mensagem, Timestamp.valueOf(LocalDateTime.now()));
+        salvar(idJournal, registro.sequencia());
+    }
+}
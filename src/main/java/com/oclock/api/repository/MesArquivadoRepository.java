@@ -0,0 +1,93 @@
+package com.oclock.api.repository;
+
+import com.oclock.api.dto.MesArquivadoDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Índice dos meses arquivados (tabela meses_arquivados): quais pares usuário/mês estão em um segmento do
+ * {@link ArquivoMensalStore} e não mais em registros_ponto.
+ */
+@Repository
+public class MesArquivadoRepository {
+
+    private static final String COLUNAS = "id_usuario, ano, mes, quantidade_registros, tamanho_bytes, crc32c, arquivado_em";
+    private static final RowMapper<MesArquivadoDTO> MAPPER = (rs, linha) -> new MesArquivadoDTO(
+            rs.getInt("id_usuario"), rs.getInt("ano"), rs.getInt("mes"), rs.getInt("quantidade_registros"),
+            rs.getLong("tamanho_bytes"), rs.getLong("crc32c"), rs.getTimestamp("arquivado_em").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MesArquivadoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<MesArquivadoDTO> buscarPorUsuario(Integer idUsuario) {
+        return jdbcTemplate.query("SELECT " + COLUNAS + " FROM meses_arquivados WHERE id_usuario = ? ORDER BY ano, mes",
+                MAPPER, idUsuario);
+    }
+
+    public Optional<MesArquivadoDTO> buscar(Integer idUsuario, YearMonth mes) {
+        return jdbcTemplate.query("SELECT " + COLUNAS + " FROM meses_arquivados WHERE id_usuario = ? AND ano = ? AND mes = ?",
+                MAPPER, idUsuario, mes.getYear(), mes.getMonthValue()).stream().findFirst();
+    }
+
+    public boolean existe(Integer idUsuario, YearMonth mes) {
+        Integer quantidade = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meses_arquivados WHERE id_usuario = ? AND ano = ? AND mes = ?",
+                Integer.class, idUsuario, mes.getYear(), mes.getMonthValue());
+        return quantidade != null && quantidade > 0;
+    }
+
+    public Optional<YearMonth> buscarPrimeiroMes(Integer idUsuario) {
+        return jdbcTemplate.query("SELECT ano, mes FROM meses_arquivados WHERE id_usuario = ? ORDER BY ano, mes LIMIT 1",
+                (rs, linha) -> YearMonth.of(rs.getInt("ano"), rs.getInt("mes")), idUsuario).stream().findFirst();
+    }
+
+    /**
+     * Usuários com cada mês arquivado entre inicio e fim (inclusive).
+     */
+    public Map<YearMonth, Set<Integer>> buscarUsuariosPorMes(YearMonth inicio, YearMonth fim) {
+        Map<YearMonth, Set<Integer>> usuariosPorMes = new HashMap<>();
+        // Filtra por ano no banco (índice ano, mes) e pelos meses das pontas aqui
+        jdbcTemplate.query("SELECT id_usuario, ano, mes FROM meses_arquivados WHERE ano BETWEEN ? AND ?",
+                rs -> {
+                    YearMonth mes = YearMonth.of(rs.getInt("ano"), rs.getInt("mes"));
+                    if (!mes.isBefore(inicio) && !mes.isAfter(fim)) {
+                        usuariosPorMes.computeIfAbsent(mes, m -> new HashSet<>()).add(rs.getInt("id_usuario"));
+                    }
+                },
+                inicio.getYear(), fim.getYear());
+        return usuariosPorMes;
+    }
+
+    public void salvar(Integer idUsuario, YearMonth mes, int quantidadeRegistros, ArquivoMensalStore.Segmento segmento) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        int atualizadas = jdbcTemplate.update(
+                "UPDATE meses_arquivados SET quantidade_registros = ?, tamanho_bytes = ?, crc32c = ?, arquivado_em = ? "
+                        + "WHERE id_usuario = ? AND ano = ? AND mes = ?",
+                quantidadeRegistros, segmento.tamanhoBytes(), segmento.crc32c(), agora, idUsuario, mes.getYear(), mes.getMonthValue());
+        if (atualizadas == 0) {
+            jdbcTemplate.update("INSERT INTO meses_arquivados (" + COLUNAS + ") VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    idUsuario, mes.getYear(), mes.getMonthValue(), quantidadeRegistros, segmento.tamanhoBytes(), segmento.crc32c(), agora);
+        }
+    }
+
+    public void remover(Integer idUsuario, YearMonth mes) {
+        jdbcTemplate.update("DELETE FROM meses_arquivados WHERE id_usuario = ? AND ano = ? AND mes = ?",
+                idUsuario, mes.getYear(), mes.getMonthValue());
+    }
+}
@@ -0,0 +1,359 @@
+package com.oclock.api.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal local (write-ahead) das batidas aceitas antes de chegarem ao banco, em arquivos mapeados em memória.
+ * <p>
+ * Cada segmento (ponto-&lt;primeira sequência&gt;.journal) tem um cabeçalho com o id do journal e registros de
+ * tamanho fixo: sequência, instante do aceite, data/hora da batida, id do usuário e CRC32C dos campos.
+ * {@link #acrescentar} só retorna depois que o registro foi forçado ao disco; escritores concorrentes são
+ * agrupados em um mesmo fsync (quem chega enquanto outro força espera e, em geral, já sai coberto por ele).
+ * <p>
+ * Na abertura, os segmentos existentes são relidos e a escrita continua depois do último registro íntegro;
+ * um registro escrito pela metade antes de uma queda nunca foi confirmado ao cliente e é descartado.
+ */
+public class PontoJournal implements Closeable {
+
+    static final int TAMANHO_CABECALHO = 32;
+    static final int TAMANHO_REGISTRO = 32;
+
+    private static final int MAGIC = 0x4F434A31; // "OCJ1"
+    private static final int VERSAO = 1;
+    private static final String PREFIXO = "ponto-";
+    private static final String SUFIXO = ".journal";
+    private static final String TEMPORARIO = ".tmp";
+
+    public record Registro(long sequencia, long aceitoEmMillis, Integer idUsuario, LocalDateTime dataHoraRegistro) {
+    }
+
+    private final Path diretorio;
+    private final int registrosPorSegmento;
+    private final NavigableMap<Long, Segmento> segmentos = new ConcurrentSkipListMap<>();
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final ReentrantLock sincronizacao = new ReentrantLock();
+    private final AtomicLong sequenciaDuravel = new AtomicLong();
+    private final UUID id;
+
+    private Segmento atual;
+    private volatile long ultimaSequencia;
+
+    public PontoJournal(Path diretorio, int registrosPorSegmento) {
+        if (registrosPorSegmento < 1 || registrosPorSegmento > (Integer.MAX_VALUE - TAMANHO_CABECALHO) / TAMANHO_REGISTRO) {
+            throw new IllegalArgumentException("registrosPorSegmento fora do intervalo: " + registrosPorSegmento);
+        }
+        this.diretorio = diretorio;
+        this.registrosPorSegmento = registrosPorSegmento;
+        try {
+            Files.createDirectories(diretorio);
+            this.id = abrirSegmentos();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o journal em " + diretorio, e);
+        }
+    }
+
+    private UUID abrirSegmentos() throws IOException {
+        List<Path> arquivos;
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            arquivos = listagem
+                    .filter(arquivo -> arquivo.getFileName().toString().matches(PREFIXO + "\\d{20}" + SUFIXO))
+                    .sorted()
+                    .toList();
+        }
+        if (arquivos.isEmpty()) {
+            UUID novoId = UUID.randomUUID();
+            atual = criarSegmento(novoId, 1);
+            ultimaSequencia = 0;
+            sequenciaDuravel.set(0);
+            return novoId;
+        }
+
+        UUID idLido = null;
+        for (Path arquivo : arquivos) {
+            Segmento segmento = mapear(arquivo);
+            if (idLido != null && !idLido.equals(segmento.idJournal())) {
+                throw new IllegalStateException("Segmento de outro journal em " + arquivo);
+            }
+            idLido = segmento.idJournal();
+            segmentos.put(segmento.primeiraSequencia, segmento);
+            atual = segmento;
+        }
+
+        // Só o último segmento pode estar incompleto: os anteriores foram forçados inteiros na rotação
+        int integros = 0;
+        while (integros < registrosPorSegmento && atual.integro(integros)) {
+            integros++;
+        }
+        atual.zerarAPartirDe(integros);
+        ultimaSequencia = atual.primeiraSequencia + integros - 1;
+        sequenciaDuravel.set(ultimaSequencia);
+        return idLido;
+    }
+
+    /**
+     * Grava a batida e espera até que ela esteja no disco. Retorna o registro com a sequência atribuída.
+     */
+    public Registro acrescentar(Integer idUsuario, LocalDateTime dataHoraRegistro) {
+        Registro registro;
+        escrita.lock();
+        try {
+            if (ultimaSequencia + 1 - atual.primeiraSequencia >= registrosPorSegmento) {
+                rotacionar();
+            }
+            registro = new Registro(ultimaSequencia + 1, System.currentTimeMillis(), idUsuario, dataHoraRegistro);
+            atual.escrever(registro);
+            ultimaSequencia = registro.sequencia();
+        } finally {
+            escrita.unlock();
+        }
+        aguardarDisco(registro.sequencia());
+        return registro;
+    }
+
+    private void aguardarDisco(long sequencia) {
+        if (sequenciaDuravel.get() >= sequencia) {
+            return;
+        }
+        sincronizacao.lock();
+        try {
+            if (sequenciaDuravel.get() >= sequencia) {
+                return;
+            }
+            Segmento segmento;
+            long ate;
+            escrita.lock();
+            try {
+                segmento = atual;
+                ate = ultimaSequencia;
+            } finally {
+                escrita.unlock();
+            }
+            // Se houve rotação entre a escrita e aqui, o segmento anterior já foi forçado inteiro
+            long de = Math.max(sequenciaDuravel.get() + 1, segmento.primeiraSequencia);
+            if (de <= ate) {
+                segmento.forcar(de, ate);
+            }
+            sequenciaDuravel.accumulateAndGet(ate, Math::max);
+        } finally {
+            sincronizacao.unlock();
+        }
+    }
+
+    private void rotacionar() {
+        atual.forcarTudo();
+        sequenciaDuravel.accumulateAndGet(ultimaSequencia, Math::max);
+        try {
+            atual = criarSegmento(id, ultimaSequencia + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar um novo segmento do journal", e);
+        }
+    }
+
+    private Segmento criarSegmento(UUID idJournal, long primeiraSequencia) throws IOException {
+        // Criado com outro nome e renomeado depois do cabeçalho no disco: um segmento visível sempre tem cabeçalho
+        Path arquivo = diretorio.resolve(String.format("%s%020d%s", PREFIXO, primeiraSequencia, SUFIXO));
+        Path temporario = diretorio.resolve(arquivo.getFileName() + TEMPORARIO);
+        Files.deleteIfExists(temporario);
+        FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoArquivo());
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSAO);
+        buffer.putLong(8, idJournal.getMostSignificantBits());
+        buffer.putLong(16, idJournal.getLeastSignificantBits());
+        buffer.putLong(24, primeiraSequencia);
+        buffer.force(0, TAMANHO_CABECALHO);
+        canal.force(true);
+        Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE);
+        Segmento segmento = new Segmento(arquivo, canal, buffer, primeiraSequencia);
+        segmentos.put(primeiraSequencia, segmento);
+        return segmento;
+    }
+
+    private Segmento mapear(Path arquivo) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoArquivo());
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSAO) {
+            canal.close();
+            throw new IllegalStateException("Arquivo de journal inválido: " + arquivo);
+        }
+        return new Segmento(arquivo, canal, buffer, buffer.getLong(24));
+    }
+
+    private long tamanhoArquivo() {
+        return TAMANHO_CABECALHO + (long) registrosPorSegmento * TAMANHO_REGISTRO;
+    }
+
+    /**
+     * Lê até maximo registros já gravados em disco, a partir da sequência informada (ou do primeiro ainda disponível).
+     */
+    public List<Registro> ler(long aPartirDe, int maximo) {
+        Map.Entry<Long, Segmento> primeiro = segmentos.firstEntry();
+        long ate = Math.min(sequenciaDuravel.get(), aPartirDe + maximo - 1L);
+        List<Registro> registros = new ArrayList<>();
+        for (long sequencia = Math.max(aPartirDe, primeiro.getKey()); sequencia <= ate; sequencia++) {
+            registros.add(segmentos.floorEntry(sequencia).getValue().ler(sequencia));
+        }
+        return registros;
+    }
+
+    /**
+     * Instante do aceite do registro, ou -1 se ele não existe (ainda não gravado ou já descartado).
+     */
+    public long aceitoEmMillis(long sequencia) {
+        Map.Entry<Long, Segmento> segmento = segmentos.floorEntry(sequencia);
+        if (segmento == null || sequencia > sequenciaDuravel.get()) {
+            return -1;
+        }
+        return segmento.getValue().ler(sequencia).aceitoEmMillis();
+    }
+
+    /**
+     * Apaga os segmentos cujos registros já estão todos no banco (sequência até a informada), exceto o atual.
+     */
+    public void descartarAte(long sequencia) {
+        for (Segmento segmento : segmentos.values()) {
+            long ultimaDoSegmento = segmento.primeiraSequencia + registrosPorSegmento - 1;
+            if (ultimaDoSegmento > sequencia || segmento == atual) {
+                break;
+            }
+            segmentos.remove(segmento.primeiraSequencia);
+            segmento.fecharEApagar();
+        }
+    }
+
+    public String getId() {
+        return id.toString();
+    }
+
+    public long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    public long getSequenciaDuravel() {
+        return sequenciaDuravel.get();
+    }
+
+    @Override
+    public void close() {
+        escrita.lock();
+        try {
+            atual.forcarTudo();
+            for (Segmento segmento : segmentos.values()) {
+                segmento.fechar();
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private static final class Segmento {
+
+        private final Path arquivo;
+        private final FileChannel canal;
+        private final MappedByteBuffer buffer;
+        private final long primeiraSequencia;
+
+        Segmento(Path arquivo, FileChannel canal, MappedByteBuffer buffer, long primeiraSequencia) {
+            this.arquivo = arquivo;
+            this.canal = canal;
+            this.buffer = buffer;
+            this.primeiraSequencia = primeiraSequencia;
+        }
+
+        UUID idJournal() {
+            return new UUID(buffer.getLong(8), buffer.getLong(16));
+        }
+
+        private int posicao(long sequencia) {
+            return TAMANHO_CABECALHO + (int) (sequencia - primeiraSequencia) * TAMANHO_REGISTRO;
+        }
+
+        void escrever(Registro registro) {
+            int posicao = posicao(registro.sequencia());
+            LocalDateTime dataHora = registro.dataHoraRegistro();
+            buffer.putLong(posicao, registro.sequencia());
+            buffer.putLong(posicao + 8, registro.aceitoEmMillis());
+            buffer.putLong(posicao + 16, dataHora.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dataHora.getNano());
+            buffer.putInt(posicao + 24, registro.idUsuario());
+            buffer.putInt(posicao + 28, crc(posicao));
+        }
+
+        Registro ler(long sequencia) {
+            int posicao = posicao(sequencia);
+            long nanos = buffer.getLong(posicao + 16);
+            LocalDateTime dataHora = LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+            return new Registro(buffer.getLong(posicao), buffer.getLong(posicao + 8), buffer.getInt(posicao + 24), dataHora);
+        }
+
+        boolean integro(int indice) {
+            int posicao = TAMANHO_CABECALHO + indice * TAMANHO_REGISTRO;
+            return buffer.getLong(posicao) == primeiraSequencia + indice && buffer.getInt(posicao + 28) == crc(posicao);
+        }
+
+        /**
+         * Apaga restos de escritas não confirmadas depois do último registro íntegro, para que não sejam
+         * confundidos com registros válidos quando a escrita passar por cima.
+         */
+        void zerarAPartirDe(int indice) {
+            byte[] zeros = new byte[TAMANHO_REGISTRO * 1024];
+            int inicio = TAMANHO_CABECALHO + indice * TAMANHO_REGISTRO;
+            for (int posicao = inicio; posicao < buffer.capacity(); posicao += zeros.length) {
+                buffer.put(posicao, zeros, 0, Math.min(zeros.length, buffer.capacity() - posicao));
+            }
+            buffer.force(inicio, buffer.capacity() - inicio);
+        }
+
+        private int crc(int posicao) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(posicao, TAMANHO_REGISTRO - 4));
+            return (int) crc.getValue();
+        }
+
+        void forcar(long de, long ate) {
+            int inicio = posicao(de);
+            buffer.force(inicio, posicao(ate) + TAMANHO_REGISTRO - inicio);
+        }
+
+        void forcarTudo() {
+            buffer.force();
+        }
+
+        void fechar() {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void fecharEApagar() {
+            fechar();
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível apagar o segmento " + arquivo, e);
+            }
+        }
+    }
+}
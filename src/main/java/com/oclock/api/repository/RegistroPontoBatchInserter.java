@@ -0,0 +1,89 @@
+package com.oclock.api.repository;
+
+import com.oclock.api.model.RegistrosPonto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserção de marcações em lote via JDBC. O id IDENTITY de registros_ponto impede o Hibernate de agrupar
+ * INSERTs, então a ingestão em lote grava direto com batchUpdate (com rewriteBatchedStatements no MySQL).
+ */
+@Repository
+public class RegistroPontoBatchInserter {
+
+    private static final int TAMANHO_BATCH = 500;
+    private static final String INSERT =
+            "INSERT INTO registros_ponto (id_usuario, data_hora_registro, tipo_registro, observacao, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COM_ID =
+            "INSERT INTO registros_ponto (id_registro, id_usuario, data_hora_registro, tipo_registro, observacao, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RegistroPontoBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere as marcações e preenche o id de cada uma com a chave gerada (o driver devolve as chaves do batch
+     * na ordem dos INSERTs, também com rewriteBatchedStatements).
+     */
+    public void inserir(List<RegistrosPonto> registros) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        for (int inicio = 0; inicio < registros.size(); inicio += TAMANHO_BATCH) {
+            List<RegistrosPonto> lote = registros.subList(inicio, Math.min(inicio + TAMANHO_BATCH, registros.size()));
+            GeneratedKeyHolder chaves = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(conexao -> conexao.prepareStatement(INSERT, new String[]{"id_registro"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            RegistrosPonto registro = lote.get(i);
+                            ps.setInt(1, registro.getIdUsuario());
+                            ps.setTimestamp(2, Timestamp.valueOf(registro.getDataHoraRegistro()));
+                            ps.setString(3, registro.getTipoRegistro().name());
+                            ps.setString(4, registro.getObservacao());
+                            ps.setTimestamp(5, agora);
+                            ps.setTimestamp(6, agora);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return lote.size();
+                        }
+                    }, chaves);
+            List<Map<String, Object>> ids = chaves.getKeyList();
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).setId(((Number) ids.get(i).values().iterator().next()).intValue());
+                lote.get(i).setCreatedAt(agora.toLocalDateTime());
+                lote.get(i).setUpdatedAt(agora.toLocalDateTime());
+            }
+        }
+    }
+
+    /**
+     * Devolve a registros_ponto marcações que saíram para o arquivo, com os mesmos ids e datas de criação/alteração.
+     */
+    public void restaurar(List<RegistrosPonto> registros) {
+        jdbcTemplate.batchUpdate(INSERT_COM_ID, registros, TAMANHO_BATCH, (ps, registro) -> {
+            ps.setInt(1, registro.getId());
+            ps.setInt(2, registro.getIdUsuario());
+            ps.setTimestamp(3, Timestamp.valueOf(registro.getDataHoraRegistro()));
+            ps.setString(4, registro.getTipoRegistro().name());
+            ps.setString(5, registro.getObservacao());
+            ps.setTimestamp(6, Timestamp.valueOf(registro.getCreatedAt()));
+            ps.setTimestamp(7, Timestamp.valueOf(registro.getUpdatedAt()));
+        });
+    }
+}
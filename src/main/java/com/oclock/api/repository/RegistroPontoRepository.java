@@ -1,25 +1,122 @@
 package com.oclock.api.repository;
 
+import com.oclock.api.model.MarcacaoResumo;
 import com.oclock.api.model.RegistrosPonto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RegistroPontoRepository extends JpaRepository<RegistrosPonto, Integer> {
 
+    // Linhas buscadas por ida ao banco nas consultas em Stream (com useCursorFetch=true no MySQL).
+    String FETCH_SIZE_STREAMING = "500";
+
+    // Projeção das consultas de relatório: só id, usuário, data/hora e tipo, sem entidade gerenciada
+    String SELECT_MARCACAO = "select new com.oclock.api.model.MarcacaoResumo(r.id, r.idUsuario, r.dataHoraRegistro, r.tipoRegistro) " +
+            "from RegistrosPonto r ";
+
     List<RegistrosPonto> findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(
             Integer idUsuario, LocalDateTime dataInicio, LocalDateTime dataFim);
 
     List<RegistrosPonto> findByDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(
             LocalDateTime dataInicio, LocalDateTime dataFim);
 
-    //Último registro de ponto
-    Optional<RegistrosPonto> findTopByIdUsuarioOrderByDataHoraRegistroDesc(Integer idUsuario);
+    //Último registro de ponto (em empate de data/hora, o último gravado)
+    Optional<RegistrosPonto> findTopByIdUsuarioOrderByDataHoraRegistroDescIdDesc(Integer idUsuario);
+
+    //Último registro de ponto de cada usuário, em uma única consulta (ingestão em lote)
+    @Query("select r from RegistrosPonto r where r.idUsuario in :ids and r.dataHoraRegistro = " +
+            "(select max(r2.dataHoraRegistro) from RegistrosPonto r2 where r2.idUsuario = r.idUsuario)")
+    List<RegistrosPonto> findUltimosRegistrosDosUsuarios(@Param("ids") Collection<Integer> ids);
 
     //Primeiro registro de ponto
     Optional<RegistrosPonto> findTopByIdUsuarioOrderByDataHoraRegistroAsc(Integer idUsuario);
-}
\ No newline at end of file
+
+    //Registro mais antigo de todos os usuários (início da varredura do arquivamento)
+    Optional<RegistrosPonto> findTopByOrderByDataHoraRegistroAsc();
+
+    //Usuários com marcações no período (arquivamento, um mês por vez)
+    @Query("select distinct r.idUsuario from RegistrosPonto r where r.dataHoraRegistro between :inicio and :fim")
+    List<Integer> findIdsUsuariosComRegistrosNoPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    //Remove as marcações do usuário no período depois de gravadas no arquivo
+    @Modifying
+    @Query("delete from RegistrosPonto r where r.idUsuario = :idUsuario and r.dataHoraRegistro between :inicio and :fim")
+    int deleteByIdUsuarioAndPeriodo(@Param("idUsuario") Integer idUsuario, @Param("inicio") LocalDateTime inicio,
+                                    @Param("fim") LocalDateTime fim);
+
+    //Todas as marcações do período, em ordem; usado pela exportação em streaming
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_STREAMING),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<RegistrosPonto> streamByDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(
+            LocalDateTime dataInicio, LocalDateTime dataFim);
+
+    //Consultas de relatório e agregação: projeção MarcacaoResumo, somente leitura e sem flush antes da consulta
+    //(quem lê dentro de uma transação de escrita já gravou as alterações com save/flush antes de recalcular).
+    @Query(SELECT_MARCACAO + "where r.idUsuario = :idUsuario and r.dataHoraRegistro between :inicio and :fim " +
+            "order by r.dataHoraRegistro asc, r.id asc")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT")
+    })
+    List<MarcacaoResumo> findMarcacoesDoUsuarioNoPeriodo(@Param("idUsuario") Integer idUsuario, @Param("inicio") LocalDateTime inicio,
+                                                         @Param("fim") LocalDateTime fim);
+
+    @Query(SELECT_MARCACAO + "where r.idUsuario = :idUsuario and r.dataHoraRegistro between :inicio and :fim " +
+            "order by r.dataHoraRegistro asc, r.id asc")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_STREAMING),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT")
+    })
+    Stream<MarcacaoResumo> streamMarcacoesDoUsuarioNoPeriodo(@Param("idUsuario") Integer idUsuario, @Param("inicio") LocalDateTime inicio,
+                                                             @Param("fim") LocalDateTime fim);
+
+    @Query(SELECT_MARCACAO + "where r.dataHoraRegistro between :inicio and :fim order by r.dataHoraRegistro asc, r.id asc")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_STREAMING),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT")
+    })
+    Stream<MarcacaoResumo> streamMarcacoesDoPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    //Data/hora da primeira marcação do usuário, sem carregar a linha
+    @Query("select min(r.dataHoraRegistro) from RegistrosPonto r where r.idUsuario = :idUsuario")
+    Optional<LocalDateTime> findPrimeiraDataHoraRegistro(@Param("idUsuario") Integer idUsuario);
+
+    //Paginação por cursor (keyset) em (data_hora_registro, id_registro): busca a partir da última posição, sem OFFSET.
+    //O filtro ">= :dataHora" vem primeiro para que o índice de data seja usado como intervalo.
+    @Query("select r from RegistrosPonto r order by r.dataHoraRegistro asc, r.id asc limit :limite")
+    List<RegistrosPonto> findPrimeiraPagina(@Param("limite") int limite);
+
+    @Query("select r from RegistrosPonto r " +
+            "where r.dataHoraRegistro >= :dataHora and (r.dataHoraRegistro > :dataHora or r.id > :id) " +
+            "order by r.dataHoraRegistro asc, r.id asc limit :limite")
+    List<RegistrosPonto> findPaginaApos(@Param("dataHora") LocalDateTime dataHora, @Param("id") Integer id, @Param("limite") int limite);
+
+    @Query("select r from RegistrosPonto r where r.dataHoraRegistro between :inicio and :fim " +
+            "order by r.dataHoraRegistro asc, r.id asc limit :limite")
+    List<RegistrosPonto> findPrimeiraPaginaDoPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                                     @Param("limite") int limite);
+
+    @Query("select r from RegistrosPonto r where r.dataHoraRegistro between :inicio and :fim " +
+            "and r.dataHoraRegistro >= :dataHora and (r.dataHoraRegistro > :dataHora or r.id > :id) " +
+            "order by r.dataHoraRegistro asc, r.id asc limit :limite")
+    List<RegistrosPonto> findPaginaDoPeriodoApos(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                                 @Param("dataHora") LocalDateTime dataHora, @Param("id") Integer id,
+                                                 @Param("limite") int limite);
+}
@@ -0,0 +1,45 @@
+package com.oclock.api.repository;
+
+import com.oclock.api.model.SaldoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SaldoMensalRepository extends JpaRepository<SaldoMensal, Integer> {
+
+    List<SaldoMensal> findByIdUsuarioOrderByAnoAscMesAsc(Integer idUsuario);
+
+    void deleteByIdUsuario(Integer idUsuario);
+
+    /**
+     * Grava o mês recalculado depois de uma alteração nas marcações, substituindo a linha existente.
+     * Só deve ser chamado com a trava do usuário, que serializa as alterações do mesmo mês.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO saldos_mensais (id_usuario, ano, mes, total_trabalhado_nanos, trabalhado_por_dia, updated_at) "
+            + "VALUES (:idUsuario, :ano, :mes, :total, :trabalhadoPorDia, :agora) "
+            + "ON DUPLICATE KEY UPDATE total_trabalhado_nanos = VALUES(total_trabalhado_nanos), "
+            + "trabalhado_por_dia = VALUES(trabalhado_por_dia), updated_at = VALUES(updated_at)", nativeQuery = true)
+    void gravar(@Param("idUsuario") Integer idUsuario, @Param("ano") int ano, @Param("mes") int mes, @Param("total") long total,
+                @Param("trabalhadoPorDia") String trabalhadoPorDia, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Grava o mês só se ele ainda não estiver no livro-razão. Usado pelo preenchimento feito na leitura dos relatórios,
+     * que não tem a trava do usuário: se uma alteração gravou o mês enquanto as marcações eram lidas, a linha dela
+     * prevalece sobre o cálculo da leitura, que pode estar desatualizado. Duas primeiras leituras simultâneas também
+     * terminam com uma linha só, em vez de a segunda inserção falhar em uk_saldos_mensais_usuario_ano_mes.
+     *
+     * @return 1 se o mês foi gravado, 0 se já existia
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO saldos_mensais (id_usuario, ano, mes, total_trabalhado_nanos, trabalhado_por_dia, updated_at) "
+            + "VALUES (:idUsuario, :ano, :mes, :total, :trabalhadoPorDia, :agora)", nativeQuery = true)
+    int gravarSeAusente(@Param("idUsuario") Integer idUsuario, @Param("ano") int ano, @Param("mes") int mes, @Param("total") long total,
+                        @Param("trabalhadoPorDia") String trabalhadoPorDia, @Param("agora") LocalDateTime agora);
+}
@@ -1,13 +1,34 @@
 package com.oclock.api.repository;
 
 import com.oclock.api.model.User;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
     Optional<User> findByCpf(String cpf);
+
+    List<User> findByActiveTrue();
+
+    //Bloqueia a linha do usuário até o fim da transação: serializa batidas do mesmo usuário entre instâncias da API
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id in :ids order by u.id")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Integer> ids);
+
+    //Paginação por cursor (keyset) no id do usuário
+    List<User> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
 }
\ No newline at end of file
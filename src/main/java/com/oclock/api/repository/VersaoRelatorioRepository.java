@@ -0,0 +1,103 @@
+package com.oclock.api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * Versão dos dados por trás dos relatórios de banco de horas de um usuário, lida em uma única consulta de
+ * subconsultas escalares, todas por chave ou índice: usuarios (PK), registros_ponto (idx_registros_ponto_usuario_data,
+ * que cobre id_usuario, data_hora_registro e updated_at), saldos_mensais (uk usuário/ano/mês) e meses_arquivados (PK).
+ * A quantidade de marcações entra junto com o maior updated_at para que uma exclusão também mude a versão, e a
+ * versão do calendário (calendario_versao) porque um feriado cadastrado muda as horas esperadas de todos.
+ */
+@Repository
+public class VersaoRelatorioRepository {
+
+    private static final String USUARIO =
+            "(SELECT COALESCE(data_atualizacao, data_criacao) FROM usuarios WHERE id_usuario = ?) AS usuario_atualizado_em, ";
+    private static final String REGISTROS_DO_MES =
+            "(SELECT COUNT(*) FROM registros_ponto WHERE id_usuario = ? AND data_hora_registro BETWEEN ? AND ?) AS registros, "
+                    + "(SELECT MAX(updated_at) FROM registros_ponto WHERE id_usuario = ? AND data_hora_registro BETWEEN ? AND ?) "
+                    + "AS registros_atualizados_em, ";
+    private static final String CALENDARIO =
+            "(SELECT versao FROM calendario_versao WHERE id = 1) AS calendario, "
+                    + "(SELECT atualizado_em FROM calendario_versao WHERE id = 1) AS calendario_atualizado_em, ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public VersaoRelatorioRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Versão do relatório mensal: usuário, marcações do mês em registros_ponto, calendário, linha do livro-razão e, se o mês
+     * estiver arquivado, o CRC e a data do segmento.
+     */
+    public Versao versaoDoMes(Integer idUsuario, YearMonth mes) {
+        LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+        LocalDateTime fim = mes.atEndOfMonth().atTime(LocalTime.MAX);
+        return jdbcTemplate.queryForObject("SELECT " + USUARIO + REGISTROS_DO_MES + CALENDARIO
+                        + "(SELECT updated_at FROM saldos_mensais WHERE id_usuario = ? AND ano = ? AND mes = ?) AS saldo_atualizado_em, "
+                        + "(SELECT crc32c FROM meses_arquivados WHERE id_usuario = ? AND ano = ? AND mes = ?) AS arquivo_crc32c, "
+                        + "(SELECT arquivado_em FROM meses_arquivados WHERE id_usuario = ? AND ano = ? AND mes = ?) AS arquivado_em",
+                (rs, linha) -> versao(
+                        new Object[]{rs.getLong("registros"), rs.getObject("arquivo_crc32c"), rs.getLong("calendario")},
+                        rs.getTimestamp("usuario_atualizado_em"), rs.getTimestamp("registros_atualizados_em"),
+                        rs.getTimestamp("calendario_atualizado_em"),
+                        rs.getTimestamp("saldo_atualizado_em"), rs.getTimestamp("arquivado_em")),
+                idUsuario,
+                idUsuario, inicio, fim, idUsuario, inicio, fim,
+                idUsuario, mes.getYear(), mes.getMonthValue(),
+                idUsuario, mes.getYear(), mes.getMonthValue(),
+                idUsuario, mes.getYear(), mes.getMonthValue());
+    }
+
+    /**
+     * Versão do relatório acumulado: usuário, calendário, todas as linhas do livro-razão do usuário (os meses fechados)
+     * e as marcações do mês corrente.
+     */
+    public Versao versaoAcumulada(Integer idUsuario, YearMonth mesAtual) {
+        LocalDateTime inicio = mesAtual.atDay(1).atStartOfDay();
+        LocalDateTime fim = mesAtual.atEndOfMonth().atTime(LocalTime.MAX);
+        return jdbcTemplate.queryForObject("SELECT " + USUARIO + REGISTROS_DO_MES + CALENDARIO
+                        + "(SELECT COUNT(*) FROM saldos_mensais WHERE id_usuario = ?) AS saldos, "
+                        + "(SELECT MAX(updated_at) FROM saldos_mensais WHERE id_usuario = ?) AS saldos_atualizados_em",
+                (rs, linha) -> versao(
+                        new Object[]{rs.getLong("registros"), rs.getLong("saldos"), rs.getLong("calendario")},
+                        rs.getTimestamp("usuario_atualizado_em"), rs.getTimestamp("registros_atualizados_em"),
+                        rs.getTimestamp("calendario_atualizado_em"),
+                        rs.getTimestamp("saldos_atualizados_em")),
+                idUsuario,
+                idUsuario, inicio, fim, idUsuario, inicio, fim,
+                idUsuario, idUsuario);
+    }
+
+    private static Versao versao(Object[] contagens, Timestamp... atualizacoes) {
+        StringJoiner componentes = new StringJoiner("|");
+        for (Object contagem : contagens) {
+            componentes.add(String.valueOf(contagem));
+        }
+        for (Timestamp atualizacao : atualizacoes) {
+            componentes.add(String.valueOf(atualizacao));
+        }
+        LocalDateTime ultimaAlteracao = Stream.of(atualizacoes).filter(Objects::nonNull).map(Timestamp::toLocalDateTime)
+                .max(LocalDateTime::compareTo).orElse(null);
+        return new Versao(componentes.toString(), ultimaAlteracao);
+    }
+
+    /**
+     * Valores que compõem a versão, concatenados, e o mais recente dos instantes de alteração entre eles.
+     */
+    public record Versao(String componentes, LocalDateTime ultimaAlteracao) {
+    }
+}
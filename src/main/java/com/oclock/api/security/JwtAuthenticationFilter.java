@@ -0,0 +1,52 @@
+package com.oclock.api.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lê o cabeçalho "Authorization: Bearer &lt;token&gt;" e, se o token for válido, autentica a requisição
+ * com o ID e a permissão contidos nele. Token ausente ou inválido deixa a requisição anônima;
+ * as regras do SecurityConfig decidem se ela pode seguir.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIXO_BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(PREFIXO_BEARER)) {
+            try {
+                UsuarioAutenticado usuario = jwtService.validar(authorization.substring(PREFIXO_BEARER.length()));
+                UsernamePasswordAuthenticationToken autenticacao = new UsernamePasswordAuthenticationToken(
+                        usuario, null, List.of(new SimpleGrantedAuthority("ROLE_" + usuario.permissao().toUpperCase(Locale.ROOT))));
+                SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+                contexto.setAuthentication(autenticacao);
+                SecurityContextHolder.setContext(contexto);
+            } catch (JwtException | IllegalArgumentException e) {
+                SecurityContextHolder.clearContext();
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,100 @@
+package com.oclock.api.security;
+
+import com.oclock.api.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Emite e valida os tokens de acesso (JWT assinado com HMAC-SHA256).
+ * A chave e o parser são montados uma única vez; a validação não acessa o banco.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private static final String EMISSOR = "oclock";
+    private static final String CLAIM_PERMISSAO = "permissao";
+
+    private final SecretKey chave;
+    private final JwtParser parser;
+    private final Duration expiracao;
+
+    /**
+     * @param segredo                chave HMAC em Base64 com pelo menos 256 bits.
+     * @param expiracao              validade de cada token a partir da emissão.
+     * @param permitirChaveAleatoria só para desenvolvimento e testes: sem segredo, gera uma chave aleatória na subida.
+     *                               Fora disso a subida falha, porque com chave por processo cada restart, e cada nó
+     *                               atrás do balanceador, recusa os tokens emitidos pelos outros.
+     */
+    @Autowired
+    public JwtService(@Value("${oclock.jwt.segredo:}") String segredo,
+                      @Value("${oclock.jwt.expiracao:8h}") Duration expiracao,
+                      @Value("${oclock.jwt.permitir-chave-aleatoria:false}") boolean permitirChaveAleatoria) {
+        if (segredo == null || segredo.isBlank()) {
+            if (!permitirChaveAleatoria) {
+                throw new IllegalStateException("oclock.jwt.segredo (OCLOCK_JWT_SEGREDO) não configurado. Informe uma chave HMAC "
+                        + "em Base64 com pelo menos 256 bits, ou oclock.jwt.permitir-chave-aleatoria=true em desenvolvimento.");
+            }
+            log.warn("oclock.jwt.segredo não configurado; usando chave aleatória válida só até o próximo restart.");
+            this.chave = Jwts.SIG.HS256.key().build();
+        } else {
+            this.chave = Keys.hmacShaKeyFor(Decoders.BASE64.decode(segredo));
+        }
+        this.parser = Jwts.parser()
+                .verifyWith(chave)
+                .requireIssuer(EMISSOR)
+                .build();
+        this.expiracao = expiracao;
+    }
+
+    public String gerarToken(User user) {
+        Instant agora = Instant.now();
+        return Jwts.builder()
+                .issuer(EMISSOR)
+                .id(UUID.randomUUID().toString())
+                .subject(user.getId().toString())
+                .claim(CLAIM_PERMISSAO, user.getPermissao())
+                .issuedAt(Date.from(agora))
+                .expiration(Date.from(agora.plus(expiracao)))
+                .signWith(chave)
+                .compact();
+    }
+
+    /**
+     * Verifica assinatura, emissor e validade do token.
+     *
+     * @throws JwtException se o token for inválido ou estiver expirado.
+     */
+    public UsuarioAutenticado validar(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String permissao = claims.get(CLAIM_PERMISSAO, String.class);
+        if (claims.getSubject() == null || permissao == null) {
+            throw new JwtException("Token sem ID de usuário ou permissão.");
+        }
+        try {
+            return new UsuarioAutenticado(Integer.valueOf(claims.getSubject()), permissao, claims.getId());
+        } catch (NumberFormatException e) {
+            throw new JwtException("Token sem ID de usuário válido.", e);
+        }
+    }
+
+    public Duration getExpiracao() {
+        return expiracao;
+    }
+}
@@ -0,0 +1,9 @@
+package com.oclock.api.security;
+
+/**
+ * Usuário identificado pelo token de acesso; é o principal da autenticação em cada requisição.
+ * O idToken (claim jti) é gerado pelo servidor a cada login e identifica o dispositivo ou sessão que fez o login;
+ * é nulo em tokens emitidos sem ele.
+ */
+public record UsuarioAutenticado(Integer idUsuario, String permissao, String idToken) {
+}
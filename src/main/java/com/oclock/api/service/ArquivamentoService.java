@@ -0,0 +1,23 @@
+package com.oclock.api.service;
+
+import com.oclock.api.dto.MesArquivadoDTO;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface ArquivamentoService {
+
+    /**
+     * Arquiva todos os meses fechados fora do período de retenção que ainda têm marcações em registros_ponto.
+     */
+    List<MesArquivadoDTO> arquivarMesesAntigos();
+
+    MesArquivadoDTO arquivarMes(Integer idUsuario, YearMonth mes);
+
+    /**
+     * Devolve as marcações do mês arquivado a registros_ponto (mesmos ids) e remove o segmento.
+     */
+    void restaurarMes(Integer idUsuario, YearMonth mes);
+
+    List<MesArquivadoDTO> getMesesArquivados(Integer idUsuario);
+}
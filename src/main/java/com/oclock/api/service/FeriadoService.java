@@ -0,0 +1,16 @@
+package com.oclock.api.service;
+
+import com.oclock.api.dto.FeriadoDTO;
+
+import java.util.List;
+
+public interface FeriadoService {
+
+    List<FeriadoDTO> listar(Integer ano);
+
+    FeriadoDTO criar(FeriadoDTO feriado);
+
+    FeriadoDTO atualizar(Integer id, FeriadoDTO feriado);
+
+    void remover(Integer id);
+}
@@ -0,0 +1,12 @@
+package com.oclock.api.service;
+
+import com.oclock.api.dto.OrganizationMonthlyReportDTO;
+import org.springframework.data.domain.Sort;
+
+public interface OrganizationReportService {
+
+    /**
+     * @param ordemSaldo ordena pelo saldo do mês; se nulo, ordena pelo ID do usuário.
+     */
+    OrganizationMonthlyReportDTO generateMonthlyReport(int ano, int mes, boolean apenasAtivos, Sort.Direction ordemSaldo);
+}
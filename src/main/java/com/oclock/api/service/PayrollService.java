@@ -0,0 +1,8 @@
+package com.oclock.api.service;
+
+import com.oclock.api.dto.PayrollRunDTO;
+
+public interface PayrollService {
+
+    PayrollRunDTO runPayroll(int ano, int mes);
+}
@@ -0,0 +1,12 @@
+package com.oclock.api.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface PontoEventosService {
+
+    /**
+     * Abre um fluxo SSE com as marcações gravadas a partir de agora, de um usuário ou de todos (idUsuario nulo).
+     * Com ultimoEventoId, reenvia antes os eventos posteriores a ele que ainda estão no histórico.
+     */
+    SseEmitter assinar(Integer idUsuario, String ultimoEventoId);
+}
@@ -0,0 +1,10 @@
+package com.oclock.api.service;
+
+import com.oclock.api.dto.PontoAceitoDTO;
+
+import java.time.LocalDateTime;
+
+public interface PontoJournalService {
+
+    PontoAceitoDTO aceitar(Integer idUsuario, LocalDateTime dataHoraRegistro);
+}
@@ -2,8 +2,15 @@ package com.oclock.api.service;
 
 import com.oclock.api.dto.BankedHoursAccumulatedReportDTO;
 import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.CursorPageDTO;
+import com.oclock.api.dto.PontoLoteItemDTO;
+import com.oclock.api.dto.PontoLoteResultadoDTO;
 import com.oclock.api.dto.RegistroPontoAdminDTO;
+import com.oclock.api.model.FormatoExportacao;
 import com.oclock.api.model.RegistrosPonto;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,13 +22,15 @@ public interface RegistrosPontoService {
     BankedHoursAccumulatedReportDTO generateAccumulatedBankedHoursReport(Integer userId);
 
     RegistrosPonto baterPonto(Integer idUsuario, LocalDateTime dataHoraRegistro);
+    List<PontoLoteResultadoDTO> baterPontoEmLote(List<PontoLoteItemDTO> marcacoes);
 
-    List<RegistrosPonto> getAllRegistrosPonto();
+    CursorPageDTO<RegistrosPonto> getAllRegistrosPonto(String cursor, Integer limite);
     RegistrosPonto getRegistroPontoById(Integer id);
     RegistrosPonto createRegistroPonto(RegistroPontoAdminDTO registroPontoDTO);
     RegistrosPonto updateRegistroPonto(Integer id, RegistroPontoAdminDTO registroPontoDTO);
     void deleteRegistroPonto(Integer id);
 
     List<RegistrosPonto> getRegistrosPontoByUsuarioAndPeriodo(Integer idUsuario, LocalDateTime inicio, LocalDateTime fim);
-    List<RegistrosPonto> getRegistrosPontoByPeriodo(LocalDateTime inicio, LocalDateTime fim);
+    CursorPageDTO<RegistrosPonto> getRegistrosPontoByPeriodo(LocalDateTime inicio, LocalDateTime fim, String cursor, Integer limite);
+    void exportarRegistrosPontoByPeriodo(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato, OutputStream saida) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.oclock.api.service;
+
+import com.oclock.api.dto.SaldoAtualDTO;
+
+public interface SaldoAtualService {
+
+    SaldoAtualDTO getSaldoAtual(Integer userId);
+    void remover(Integer idUsuario);
+}
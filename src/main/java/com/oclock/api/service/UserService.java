@@ -1,16 +1,16 @@
 package com.oclock.api.service;
 
+import com.oclock.api.dto.CursorPageDTO;
 import com.oclock.api.dto.UserCreateUpdateDTO;
 import com.oclock.api.model.User;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface UserService {
 
     User createUser(UserCreateUpdateDTO userDTO);
 
-    List<User> getAllUsers();
+    CursorPageDTO<User> getAllUsers(String cursor, Integer limite);
 
     Optional<User> getUserById(Integer userId);
 
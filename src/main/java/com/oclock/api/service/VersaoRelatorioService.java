@@ -0,0 +1,21 @@
+package com.oclock.api.service;
+
+import com.oclock.api.dto.VersaoRelatorioDTO;
+
+/**
+ * Validadores (ETag e Last-Modified) dos relatórios de banco de horas, para que uma requisição condicional seja
+ * respondida com 304 sem calcular o relatório.
+ */
+public interface VersaoRelatorioService {
+
+    /**
+     * Versão do relatório de generateMonthlyBankedHoursReport. A última alteração só é informada para meses
+     * fechados: no mês corrente uma exclusão não deixa rastro com data, e só o ETag (que conta as marcações) a percebe.
+     */
+    VersaoRelatorioDTO getVersaoRelatorioMensal(Integer userId, int ano, int mes);
+
+    /**
+     * Versão do relatório de generateAccumulatedBankedHoursReport. Como ele inclui o mês corrente, não tem última alteração.
+     */
+    VersaoRelatorioDTO getVersaoRelatorioAcumulado(Integer userId);
+}
@@ -0,0 +1,188 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.dto.MesArquivadoDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.repository.ArquivoMensalStore;
+import com.oclock.api.repository.MesArquivadoRepository;
+import com.oclock.api.repository.RegistroPontoBatchInserter;
+import com.oclock.api.repository.RegistroPontoRepository;
+import com.oclock.api.service.ArquivamentoService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Arquivamento de meses antigos: as marcações de cada usuário em um mês fechado há mais de meses-retencao meses
+ * saem de registros_ponto para um segmento do {@link ArquivoMensalStore}, e o mês passa a constar em meses_arquivados.
+ * Os relatórios leem esses meses do arquivo por {@link MesesArquivados}; o livro-razão (saldos_mensais) do mês é
+ * garantido antes da remoção, então o acumulado e o saldo atual continuam sem ler o arquivo.
+ * <p>
+ * Cada mês é arquivado sob a trava do usuário (UserPunchLocks) e em uma transação: gravar o segmento, registrar
+ * o mês e remover as linhas. Se a transação falhar depois de gravar o segmento, o mês continua no banco e o
+ * arquivo é regravado na próxima execução. Com oclock.arquivo.enabled a varredura roda a cada oclock.arquivo.intervalo.
+ */
+@Service
+public class ArquivamentoServiceImpl implements ArquivamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoServiceImpl.class);
+
+    private final RegistroPontoRepository registroPontoRepository;
+    private final RegistroPontoBatchInserter batchInserter;
+    private final MesArquivadoRepository mesArquivadoRepository;
+    private final ArquivoMensalStore store;
+    private final MesesArquivados mesesArquivados;
+    private final SaldoMensalLedger saldoMensalLedger;
+    private final UserPunchLocks userPunchLocks;
+    private final TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService agendador;
+
+    @Value("${oclock.arquivo.meses-retencao:12}")
+    private int mesesRetencao;
+
+    @Value("${oclock.arquivo.enabled:false}")
+    private boolean agendado;
+
+    @Value("${oclock.arquivo.intervalo:24h}")
+    private Duration intervalo;
+
+    @Autowired
+    public ArquivamentoServiceImpl(RegistroPontoRepository registroPontoRepository, RegistroPontoBatchInserter batchInserter,
+                                   MesArquivadoRepository mesArquivadoRepository, ArquivoMensalStore store,
+                                   MesesArquivados mesesArquivados, SaldoMensalLedger saldoMensalLedger,
+                                   UserPunchLocks userPunchLocks, PlatformTransactionManager transactionManager) {
+        this.registroPontoRepository = registroPontoRepository;
+        this.batchInserter = batchInserter;
+        this.mesArquivadoRepository = mesArquivadoRepository;
+        this.store = store;
+        this.mesesArquivados = mesesArquivados;
+        this.saldoMensalLedger = saldoMensalLedger;
+        this.userPunchLocks = userPunchLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!agendado) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("arquivamento-meses").daemon().factory());
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                arquivarMesesAntigos();
+            } catch (RuntimeException e) {
+                log.error("Falha no arquivamento de meses antigos; nova tentativa em {}", intervalo, e);
+            }
+        }, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    @Override
+    @Timed("oclock.arquivo.executar")
+    public List<MesArquivadoDTO> arquivarMesesAntigos() {
+        YearMonth limite = YearMonth.now().minusMonths(mesesRetencao);
+        Optional<RegistrosPonto> maisAntigo = registroPontoRepository.findTopByOrderByDataHoraRegistroAsc();
+        List<MesArquivadoDTO> arquivados = new ArrayList<>();
+        if (maisAntigo.isEmpty()) {
+            return arquivados;
+        }
+        // Um mês por vez, do mais antigo até o limite da retenção (exclusive)
+        for (YearMonth mes = YearMonth.from(maisAntigo.get().getDataHoraRegistro()); mes.isBefore(limite); mes = mes.plusMonths(1)) {
+            for (Integer idUsuario : registroPontoRepository.findIdsUsuariosComRegistrosNoPeriodo(inicio(mes), fim(mes))) {
+                arquivados.add(arquivar(idUsuario, mes));
+            }
+        }
+        if (!arquivados.isEmpty()) {
+            log.info("Arquivamento concluído: {} mês(es) de usuário, {} marcações, {} bytes", arquivados.size(),
+                    arquivados.stream().mapToLong(MesArquivadoDTO::getQuantidadeRegistros).sum(),
+                    arquivados.stream().mapToLong(MesArquivadoDTO::getTamanhoBytes).sum());
+        }
+        return arquivados;
+    }
+
+    @Override
+    public MesArquivadoDTO arquivarMes(Integer idUsuario, YearMonth mes) {
+        if (!mes.isBefore(YearMonth.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Só meses fechados podem ser arquivados: " + mes);
+        }
+        return arquivar(idUsuario, mes);
+    }
+
+    private MesArquivadoDTO arquivar(Integer idUsuario, YearMonth mes) {
+        return userPunchLocks.executar(idUsuario, () -> transactionTemplate.execute(status -> {
+            // Marcações no banco e, se o mês já foi arquivado antes, as que já estão no segmento
+            List<RegistrosPonto> registros = mesesArquivados.registrosDoMes(idUsuario, mes);
+            if (registros.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário " + idUsuario + " não tem marcações em " + mes + ".");
+            }
+            // O livro-razão do mês precisa existir antes de as linhas saírem do banco
+            saldoMensalLedger.registrarAlteracao(idUsuario, inicio(mes));
+
+            ArquivoMensalStore.Segmento segmento = store.gravar(idUsuario, mes, registros);
+            mesArquivadoRepository.salvar(idUsuario, mes, registros.size(), segmento);
+            registroPontoRepository.deleteByIdUsuarioAndPeriodo(idUsuario, inicio(mes), fim(mes));
+            log.debug("Mês {} do usuário {} arquivado: {} marcações em {} bytes", mes, idUsuario, registros.size(), segmento.tamanhoBytes());
+            return mesArquivadoRepository.buscar(idUsuario, mes).orElseThrow();
+        }));
+    }
+
+    @Override
+    public void restaurarMes(Integer idUsuario, YearMonth mes) {
+        userPunchLocks.executar(idUsuario, () -> transactionTemplate.execute(status -> {
+            if (!mesArquivadoRepository.existe(idUsuario, mes)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "O mês " + mes + " do usuário " + idUsuario + " não está arquivado.");
+            }
+            // Linhas que chegaram ao banco depois do arquivamento ficam como estão
+            Set<Integer> noBanco = registroPontoRepository.findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(
+                    idUsuario, inicio(mes), fim(mes)).stream().map(RegistrosPonto::getId).collect(Collectors.toSet());
+            List<RegistrosPonto> arquivados = store.ler(idUsuario, mes);
+            arquivados.removeIf(registro -> noBanco.contains(registro.getId()));
+            batchInserter.restaurar(arquivados);
+            mesArquivadoRepository.remover(idUsuario, mes);
+            return arquivados.size();
+        }));
+        // Só depois do commit: até aqui o segmento ainda é a fonte do mês
+        store.remover(idUsuario, mes);
+        log.info("Mês {} do usuário {} restaurado para registros_ponto", mes, idUsuario);
+    }
+
+    @Override
+    public List<MesArquivadoDTO> getMesesArquivados(Integer idUsuario) {
+        return mesArquivadoRepository.buscarPorUsuario(idUsuario);
+    }
+
+    private static LocalDateTime inicio(YearMonth mes) {
+        return mes.atDay(1).atStartOfDay();
+    }
+
+    private static LocalDateTime fim(YearMonth mes) {
+        return mes.atEndOfMonth().atTime(LocalTime.MAX);
+    }
+}
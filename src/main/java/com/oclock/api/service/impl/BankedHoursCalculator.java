@@ -0,0 +1,45 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Regras do banco de horas que não dependem das marcações (jornada, horas esperadas e status do saldo),
+ * compartilhadas pelo relatório mensal, pelo acumulado, pela folha e pelo livro-razão de saldos mensais.
+ * O cálculo das horas trabalhadas fica no PrimitiveBankedHoursEngine.
+ */
+@Component
+public class BankedHoursCalculator {
+
+    private final CalendarioTrabalho calendario;
+
+    @Autowired
+    public BankedHoursCalculator(CalendarioTrabalho calendario) {
+        this.calendario = calendario;
+    }
+
+    public double getJornadaDiaria(User user) {
+        return user.getJornadaDiariaHoras() != null ? user.getJornadaDiariaHoras().doubleValue() : 8.0;
+    }
+
+    /**
+     * Horas esperadas no intervalo (inclusive), com precisão de minutos: a escala semanal do usuário (ou a jornada
+     * diária de segunda a sexta) menos os feriados que valem para ele, segundo o {@link CalendarioTrabalho}.
+     */
+    public Duration calcularHorasEsperadas(User user, LocalDate inicio, LocalDate fim) {
+        return Duration.ofMinutes(calendario.minutosEsperados(user, inicio, fim));
+    }
+
+    public String getBalanceStatus(Duration balance) {
+        if (balance.isZero()) {
+            return "ZERADO";
+        } else if (balance.isNegative()) {
+            return "NEGATIVO";
+        }
+        return "POSITIVO";
+    }
+}
@@ -0,0 +1,46 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.User;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Executa um cálculo por usuário em paralelo (fork/join), usado pela folha e pelos relatórios da organização.
+ * O pool é próprio, com um worker por núcleo, separado do pool comum da JVM.
+ */
+@Component
+public class CalculoPorUsuarioExecutor {
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Aplica o cálculo a cada usuário e devolve os resultados na ordem informada.
+     */
+    public <T> List<T> calcular(List<User> users, Function<User, T> calculo, Comparator<? super T> ordem) {
+        try {
+            return pool.submit(() -> users.parallelStream()
+                    .map(calculo)
+                    .sorted(ordem)
+                    .toList()
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cálculo interrompido.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no cálculo por usuário.", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,205 @@
+package com.oclock.api.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oclock.api.dto.FeriadoDTO;
+import com.oclock.api.model.AbrangenciaFeriado;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.FeriadoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Minutos de trabalho esperados de um usuário em qualquer intervalo de datas, considerando a escala semanal dele
+ * (ou a jornada diária de segunda a sexta), os feriados nacionais, os da empresa e os estaduais da UF dele.
+ * <p>
+ * Cada ano é compilado uma vez por UF e escala: os feriados viram um BitSet indexado pelo dia do ano e os minutos
+ * esperados, uma soma de prefixos (acumulado[i] = minutos dos dias 0..i-1). Um intervalo dentro de um ano custa
+ * então duas leituras do vetor, e um intervalo de vários anos, duas por ano.
+ * <p>
+ * Os anos compilados expiram em oclock.cache.calendario.expiracao, como o cache de usuários: é o tempo que uma alteração
+ * de feriado feita em outra instância leva para valer nesta. Na instância que alterou, {@link #invalidar()} vale na hora.
+ * Quem calcula muitos usuários em paralelo chama antes {@link #preCarregar} na própria thread, para que os feriados
+ * sejam lidos uma vez, na transação e no roteamento (primário ou réplica) de quem chamou, e não nas threads do cálculo.
+ * Acertos e faltas ficam em /actuator/metrics/cache.* com as tags cache=calendario-feriados e cache=calendario-anos.
+ */
+@Component
+public class CalendarioTrabalho implements MeterBinder {
+
+    private static final int MINUTOS_JORNADA_PADRAO = 8 * 60;
+    private static final BigDecimal MINUTOS_POR_HORA = BigDecimal.valueOf(60);
+
+    private final FeriadoRepository feriadoRepository;
+    private final Cache<Integer, FeriadosDoAno> feriadosPorAno;
+    private final Cache<ChaveAno, int[]> minutosAcumulados;
+
+    @Autowired
+    public CalendarioTrabalho(FeriadoRepository feriadoRepository,
+                              @Value("${oclock.cache.calendario.tamanho-maximo:2000}") long tamanhoMaximo,
+                              @Value("${oclock.cache.calendario.expiracao:5m}") Duration expiracao) {
+        this.feriadoRepository = feriadoRepository;
+        this.feriadosPorAno = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        this.minutosAcumulados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Minutos esperados do usuário de inicio a fim (inclusive); zero se fim for anterior a inicio.
+     */
+    public long minutosEsperados(User user, LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            return 0;
+        }
+        String escala = escalaEfetiva(user);
+        long total = 0;
+        for (int ano = inicio.getYear(); ano <= fim.getYear(); ano++) {
+            int[] acumulado = minutosAcumulados.get(new ChaveAno(ano, user.getUf(), escala), this::compilar);
+            int de = ano == inicio.getYear() ? inicio.getDayOfYear() - 1 : 0;
+            int ate = ano == fim.getYear() ? fim.getDayOfYear() : acumulado.length - 1;
+            total += acumulado[ate] - acumulado[de];
+        }
+        return total;
+    }
+
+    /**
+     * Carrega os feriados dos anos de inicio a fim (inclusive) na thread atual, se ainda não estiverem no cache.
+     */
+    public void preCarregar(LocalDate inicio, LocalDate fim) {
+        for (int ano = inicio.getYear(); ano <= fim.getYear(); ano++) {
+            feriadosPorAno.get(ano, this::carregarFeriados);
+        }
+    }
+
+    public boolean feriado(LocalDate dia, String uf) {
+        return feriadosPorAno.get(dia.getYear(), this::carregarFeriados).para(uf).get(dia.getDayOfYear() - 1);
+    }
+
+    /**
+     * Descarta os anos compilados. Dentro de uma transação, descarta de novo após o commit, para não ficar com um ano
+     * recompilado por uma leitura concorrente antes da alteração do feriado ser confirmada.
+     */
+    public void invalidar() {
+        feriadosPorAno.invalidateAll();
+        minutosAcumulados.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    feriadosPorAno.invalidateAll();
+                    minutosAcumulados.invalidateAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * Escala no formato gravado em usuarios.escala_semanal; nulo para "sem escala".
+     */
+    public static String formatarEscala(List<Integer> minutosPorDia) {
+        if (minutosPorDia == null) {
+            return null;
+        }
+        return minutosPorDia.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * A escala do usuário ou, sem ela, a jornada diária (em minutos, arredondada) de segunda a sexta.
+     */
+    static String escalaEfetiva(User user) {
+        if (user.getEscalaSemanal() != null) {
+            return user.getEscalaSemanal();
+        }
+        int minutos = user.getJornadaDiariaHoras() == null ? MINUTOS_JORNADA_PADRAO
+                : user.getJornadaDiariaHoras().multiply(MINUTOS_POR_HORA).setScale(0, RoundingMode.HALF_UP).intValueExact();
+        return minutos + "," + minutos + "," + minutos + "," + minutos + "," + minutos + ",0,0";
+    }
+
+    private int[] compilar(ChaveAno chave) {
+        int[] minutosPorDiaDaSemana = new int[7];
+        String[] partes = chave.escala().split(",");
+        for (int i = 0; i < minutosPorDiaDaSemana.length; i++) {
+            minutosPorDiaDaSemana[i] = Integer.parseInt(partes[i].trim());
+        }
+        BitSet feriados = feriadosPorAno.get(chave.ano(), this::carregarFeriados).para(chave.uf());
+
+        LocalDate primeiroDia = LocalDate.of(chave.ano(), 1, 1);
+        int diaDaSemana = primeiroDia.getDayOfWeek().getValue() - 1; // 0 = segunda
+        int[] acumulado = new int[primeiroDia.lengthOfYear() + 1];
+        for (int dia = 0; dia < acumulado.length - 1; dia++) {
+            int minutos = feriados.get(dia) ? 0 : minutosPorDiaDaSemana[(diaDaSemana + dia) % 7];
+            acumulado[dia + 1] = acumulado[dia] + minutos;
+        }
+        return acumulado;
+    }
+
+    private FeriadosDoAno carregarFeriados(int ano) {
+        BitSet todos = new BitSet(366);
+        Map<String, BitSet> porUf = new HashMap<>();
+        for (LocalDate dia : FeriadosNacionais.doAno(ano)) {
+            todos.set(dia.getDayOfYear() - 1);
+        }
+        for (FeriadoDTO feriado : feriadoRepository.buscarDoAno(ano)) {
+            LocalDate dia = noAno(feriado, ano);
+            if (dia == null) {
+                continue;
+            }
+            if (feriado.getAbrangencia() == AbrangenciaFeriado.ESTADUAL) {
+                porUf.computeIfAbsent(feriado.getUf(), uf -> new BitSet(366)).set(dia.getDayOfYear() - 1);
+            } else {
+                todos.set(dia.getDayOfYear() - 1);
+            }
+        }
+        // Cada UF já leva os feriados de todos, para a consulta não precisar combinar os dois
+        porUf.values().forEach(estaduais -> estaduais.or(todos));
+        return new FeriadosDoAno(todos, porUf);
+    }
+
+    private static LocalDate noAno(FeriadoDTO feriado, int ano) {
+        if (!feriado.isRecorrente()) {
+            return feriado.getData().getYear() == ano ? feriado.getData() : null;
+        }
+        MonthDay diaMes = MonthDay.from(feriado.getData());
+        // 29 de fevereiro só cai nos anos bissextos
+        return ano >= feriado.getData().getYear() && diaMes.isValidYear(ano) ? diaMes.atYear(ano) : null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, feriadosPorAno, "calendario-feriados");
+        CaffeineCacheMetrics.monitor(registry, minutosAcumulados, "calendario-anos");
+    }
+
+    private record ChaveAno(int ano, String uf, String escala) {
+    }
+
+    private record FeriadosDoAno(BitSet todos, Map<String, BitSet> porUf) {
+
+        BitSet para(String uf) {
+            return uf == null ? todos : porUf.getOrDefault(uf, todos);
+        }
+    }
+}
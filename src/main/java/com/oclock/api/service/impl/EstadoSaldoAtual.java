@@ -0,0 +1,82 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.TipoRegistro;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Estado em memória do saldo de um usuário: horas trabalhadas até ontem e as batidas de hoje, em nanossegundos
+ * como no {@link PrimitiveBankedHoursEngine} (as marcações de cada dia são pareadas na ordem, e uma ENTRADA sem
+ * SAIDA no mesmo dia não conta). Na virada do dia as horas fechadas de hoje passam para o acumulado.
+ */
+final class EstadoSaldoAtual {
+
+    record Leitura(LocalDate inicio, long trabalhadoAteOntemNanos, long trabalhadoHojeNanos, boolean expedienteAberto) {
+    }
+
+    // Primeiro dia do mês da primeira marcação, como no relatório acumulado; nulo enquanto não há marcações
+    private LocalDate inicio;
+    private long diaEpoch;
+    private long trabalhadoAteOntemNanos;
+    private long[] instantesHoje;
+    private int quantidadeHoje;
+    private TipoRegistro ultimoTipoHoje;
+
+    EstadoSaldoAtual(LocalDate inicio, long diaEpoch, long trabalhadoAteOntemNanos, long[] instantesHoje, TipoRegistro ultimoTipoHoje) {
+        this.inicio = inicio;
+        this.diaEpoch = diaEpoch;
+        this.trabalhadoAteOntemNanos = trabalhadoAteOntemNanos;
+        this.instantesHoje = Arrays.copyOf(instantesHoje, Math.max(8, instantesHoje.length));
+        this.quantidadeHoje = instantesHoje.length;
+        this.ultimoTipoHoje = ultimoTipoHoje;
+    }
+
+    private void avancarPara(long diaAtual) {
+        if (diaAtual > diaEpoch) {
+            trabalhadoAteOntemNanos += trabalhadoEmParesFechados();
+            quantidadeHoje = 0;
+            ultimoTipoHoje = null;
+            diaEpoch = diaAtual;
+        }
+    }
+
+    /**
+     * Acrescenta uma batida nova. Retorna false quando ela não pode ser aplicada incrementalmente
+     * (outro dia ou anterior à última de hoje) e o estado precisa ser reconstruído.
+     */
+    synchronized boolean acrescentar(long instanteNanos, TipoRegistro tipo, long diaAtual) {
+        avancarPara(diaAtual);
+        if (PrimitiveBankedHoursEngine.diaEpoch(instanteNanos) != diaEpoch
+                || quantidadeHoje > 0 && instanteNanos < instantesHoje[quantidadeHoje - 1]) {
+            return false;
+        }
+        if (inicio == null) {
+            inicio = LocalDate.ofEpochDay(diaEpoch).withDayOfMonth(1);
+        }
+        if (quantidadeHoje == instantesHoje.length) {
+            instantesHoje = Arrays.copyOf(instantesHoje, quantidadeHoje * 2);
+        }
+        instantesHoje[quantidadeHoje++] = instanteNanos;
+        ultimoTipoHoje = tipo;
+        return true;
+    }
+
+    synchronized Leitura ler(long agoraNanos) {
+        avancarPara(PrimitiveBankedHoursEngine.diaEpoch(agoraNanos));
+        long trabalhadoHoje = trabalhadoEmParesFechados();
+        boolean expedienteAberto = quantidadeHoje % 2 == 1 && ultimoTipoHoje == TipoRegistro.ENTRADA;
+        if (expedienteAberto) {
+            trabalhadoHoje += Math.max(0, agoraNanos - instantesHoje[quantidadeHoje - 1]);
+        }
+        return new Leitura(inicio, trabalhadoAteOntemNanos, trabalhadoHoje, expedienteAberto);
+    }
+
+    private long trabalhadoEmParesFechados() {
+        long total = 0;
+        for (int i = 1; i < quantidadeHoje; i += 2) {
+            total += instantesHoje[i] - instantesHoje[i - 1];
+        }
+        return total;
+    }
+}
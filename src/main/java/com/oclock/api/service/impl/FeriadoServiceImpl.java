@@ -0,0 +1,80 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.dto.FeriadoDTO;
+import com.oclock.api.model.AbrangenciaFeriado;
+import com.oclock.api.repository.FeriadoRepository;
+import com.oclock.api.service.FeriadoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Cadastro dos feriados estaduais e da empresa (os nacionais são calculados pelo CalendarioTrabalho). Toda alteração
+ * incrementa calendario_versao, que entra na versão dos relatórios, e descarta os anos já compilados do calendário.
+ */
+@Service
+public class FeriadoServiceImpl implements FeriadoService {
+
+    private final FeriadoRepository feriadoRepository;
+    private final CalendarioTrabalho calendario;
+
+    @Autowired
+    public FeriadoServiceImpl(FeriadoRepository feriadoRepository, CalendarioTrabalho calendario) {
+        this.feriadoRepository = feriadoRepository;
+        this.calendario = calendario;
+    }
+
+    @Override
+    public List<FeriadoDTO> listar(Integer ano) {
+        return ano == null ? feriadoRepository.buscarTodos() : feriadoRepository.buscarDoAno(ano);
+    }
+
+    @Override
+    @Transactional
+    public FeriadoDTO criar(FeriadoDTO feriado) {
+        validar(feriado);
+        feriado.setId(feriadoRepository.inserir(feriado));
+        registrarAlteracao();
+        return feriado;
+    }
+
+    @Override
+    @Transactional
+    public FeriadoDTO atualizar(Integer id, FeriadoDTO feriado) {
+        validar(feriado);
+        feriado.setId(id);
+        if (!feriadoRepository.atualizar(feriado)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Feriado não encontrado com ID: " + id);
+        }
+        registrarAlteracao();
+        return feriado;
+    }
+
+    @Override
+    @Transactional
+    public void remover(Integer id) {
+        if (!feriadoRepository.remover(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Feriado não encontrado com ID: " + id);
+        }
+        registrarAlteracao();
+    }
+
+    private void registrarAlteracao() {
+        feriadoRepository.registrarAlteracao();
+        calendario.invalidar();
+    }
+
+    private static void validar(FeriadoDTO feriado) {
+        boolean estadual = feriado.getAbrangencia() == AbrangenciaFeriado.ESTADUAL;
+        if (estadual && feriado.getUf() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Feriado estadual precisa da UF.");
+        }
+        if (!estadual && feriado.getUf() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Só feriados estaduais têm UF.");
+        }
+    }
+}
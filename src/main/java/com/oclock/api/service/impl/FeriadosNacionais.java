@@ -0,0 +1,51 @@
+package com.oclock.api.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feriados nacionais que não precisam de cadastro: as datas fixas da Lei 662/1949 e seguintes, a Sexta-feira Santa
+ * (dois dias antes da Páscoa) e o Dia da Consciência Negra, nacional desde 2024 (Lei 14.759/2023).
+ * Carnaval e Corpus Christi são pontos facultativos; a empresa que os adota os cadastra como feriados da empresa.
+ */
+final class FeriadosNacionais {
+
+    private static final int[][] FIXOS = {{1, 1}, {4, 21}, {5, 1}, {9, 7}, {10, 12}, {11, 2}, {11, 15}, {12, 25}};
+
+    private FeriadosNacionais() {
+    }
+
+    static List<LocalDate> doAno(int ano) {
+        List<LocalDate> feriados = new ArrayList<>(FIXOS.length + 2);
+        for (int[] fixo : FIXOS) {
+            feriados.add(LocalDate.of(ano, fixo[0], fixo[1]));
+        }
+        feriados.add(pascoa(ano).minusDays(2));
+        if (ano >= 2024) {
+            feriados.add(LocalDate.of(ano, 11, 20));
+        }
+        return feriados;
+    }
+
+    /**
+     * Domingo de Páscoa no calendário gregoriano (algoritmo de Meeus/Jones/Butcher).
+     */
+    static LocalDate pascoa(int ano) {
+        int a = ano % 19;
+        int b = ano / 100;
+        int c = ano % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int mes = (h + l - 7 * m + 114) / 31;
+        int dia = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(ano, mes, dia);
+    }
+}
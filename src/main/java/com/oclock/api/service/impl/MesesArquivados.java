@@ -0,0 +1,138 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.MarcacaoResumo;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.repository.ArquivoMensalStore;
+import com.oclock.api.repository.MesArquivadoRepository;
+import com.oclock.api.repository.RegistroPontoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Leitura das marcações de um mês sem que o chamador precise saber se ele está em registros_ponto ou no arquivo.
+ * Um mês arquivado é lido do segmento e somado às marcações que ainda estiverem no banco para ele (por exemplo,
+ * de um lote atrasado que chegou depois do arquivamento); o mesmo id nos dois lados conta uma vez só.
+ */
+@Component
+public class MesesArquivados {
+
+    private static final Comparator<Marcacao> ORDEM = Comparator.comparing(Marcacao::getDataHoraRegistro)
+            .thenComparing(Marcacao::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final RegistroPontoRepository registroPontoRepository;
+    private final MesArquivadoRepository mesArquivadoRepository;
+    private final ArquivoMensalStore store;
+
+    @Autowired
+    public MesesArquivados(RegistroPontoRepository registroPontoRepository, MesArquivadoRepository mesArquivadoRepository,
+                           ArquivoMensalStore store) {
+        this.registroPontoRepository = registroPontoRepository;
+        this.mesArquivadoRepository = mesArquivadoRepository;
+        this.store = store;
+    }
+
+    public boolean arquivado(Integer idUsuario, YearMonth mes) {
+        return mesArquivadoRepository.existe(idUsuario, mes);
+    }
+
+    public Set<YearMonth> mesesArquivados(Integer idUsuario) {
+        Set<YearMonth> meses = new HashSet<>();
+        mesArquivadoRepository.buscarPorUsuario(idUsuario).forEach(mes -> meses.add(YearMonth.of(mes.getAno(), mes.getMes())));
+        return meses;
+    }
+
+    /**
+     * Marcações do usuário no mês, em ordem de data/hora, venham do banco, do arquivo ou dos dois. Do banco vem só a
+     * projeção usada nos relatórios.
+     */
+    public List<Marcacao> marcacoesDoMes(Integer idUsuario, YearMonth mes) {
+        List<MarcacaoResumo> doBanco = registroPontoRepository.findMarcacoesDoUsuarioNoPeriodo(
+                idUsuario, mes.atDay(1).atStartOfDay(), mes.atEndOfMonth().atTime(LocalTime.MAX));
+        if (!arquivado(idUsuario, mes)) {
+            return Collections.unmodifiableList(doBanco);
+        }
+        return juntar(store.ler(idUsuario, mes), doBanco);
+    }
+
+    /**
+     * Como marcacoesDoMes, com as entidades completas (observação e datas de auditoria); usado pelo arquivamento.
+     */
+    public List<RegistrosPonto> registrosDoMes(Integer idUsuario, YearMonth mes) {
+        List<RegistrosPonto> doBanco = registroPontoRepository.findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(
+                idUsuario, mes.atDay(1).atStartOfDay(), mes.atEndOfMonth().atTime(LocalTime.MAX));
+        if (!arquivado(idUsuario, mes)) {
+            return doBanco;
+        }
+        return juntar(store.ler(idUsuario, mes), doBanco);
+    }
+
+    /**
+     * Mês da marcação mais antiga do usuário, considerando também os meses arquivados.
+     */
+    public Optional<YearMonth> primeiroMes(Integer idUsuario) {
+        Optional<YearMonth> primeiroNoBanco = registroPontoRepository.findPrimeiraDataHoraRegistro(idUsuario).map(YearMonth::from);
+        Optional<YearMonth> primeiroArquivado = mesArquivadoRepository.buscarPrimeiroMes(idUsuario);
+        return Stream.of(primeiroNoBanco, primeiroArquivado).flatMap(Optional::stream).min(Comparator.naturalOrder());
+    }
+
+    /**
+     * Acrescenta às marcações já lidas do banco (por usuário) as dos meses arquivados que cruzam o período,
+     * mantendo cada lista em ordem de data/hora.
+     */
+    public void acrescentarArquivados(Map<Integer, List<Marcacao>> registrosPorUsuario, LocalDateTime inicio, LocalDateTime fim) {
+        Map<YearMonth, Set<Integer>> usuariosPorMes = mesArquivadoRepository.buscarUsuariosPorMes(YearMonth.from(inicio), YearMonth.from(fim));
+        if (usuariosPorMes.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Marcacao>> arquivadosPorUsuario = new HashMap<>();
+        usuariosPorMes.forEach((mes, usuarios) -> {
+            for (Integer idUsuario : usuarios) {
+                for (RegistrosPonto registro : store.ler(idUsuario, mes)) {
+                    if (!registro.getDataHoraRegistro().isBefore(inicio) && !registro.getDataHoraRegistro().isAfter(fim)) {
+                        arquivadosPorUsuario.computeIfAbsent(idUsuario, id -> new ArrayList<>()).add(registro);
+                    }
+                }
+            }
+        });
+        arquivadosPorUsuario.forEach((idUsuario, arquivados) -> {
+            // Os meses de um mesmo usuário chegam em qualquer ordem
+            arquivados.sort(ORDEM);
+            registrosPorUsuario.put(idUsuario, juntar(arquivados, registrosPorUsuario.getOrDefault(idUsuario, List.of())));
+        });
+    }
+
+    static <T extends Marcacao> List<T> juntar(List<? extends T> arquivados, List<? extends T> doBanco) {
+        Set<Integer> ids = new HashSet<>();
+        List<T> todos = new ArrayList<>(arquivados.size() + doBanco.size());
+        for (T registro : doBanco) {
+            ids.add(registro.getId());
+            todos.add(registro);
+        }
+        if (ids.isEmpty()) {
+            todos.addAll(arquivados);
+            return todos;
+        }
+        for (T registro : arquivados) {
+            if (!ids.contains(registro.getId())) {
+                todos.add(registro);
+            }
+        }
+        todos.sort(ORDEM);
+        return todos;
+    }
+}
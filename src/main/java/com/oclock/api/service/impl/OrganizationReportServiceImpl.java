@@ -0,0 +1,89 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.config.LeituraEmReplica;
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.OrganizationMonthlyReportDTO;
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.OrganizationReportService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class OrganizationReportServiceImpl implements OrganizationReportService {
+
+    private final UserRepository userRepository;
+    private final RegistrosPorUsuarioLoader registrosPorUsuarioLoader;
+    private final PrimitiveBankedHoursEngine primitiveEngine;
+    private final CalculoPorUsuarioExecutor calculoPorUsuario;
+    private final CalendarioTrabalho calendario;
+
+    @Autowired
+    public OrganizationReportServiceImpl(UserRepository userRepository, RegistrosPorUsuarioLoader registrosPorUsuarioLoader,
+                                         PrimitiveBankedHoursEngine primitiveEngine, CalculoPorUsuarioExecutor calculoPorUsuario,
+                                         CalendarioTrabalho calendario) {
+        this.userRepository = userRepository;
+        this.registrosPorUsuarioLoader = registrosPorUsuarioLoader;
+        this.primitiveEngine = primitiveEngine;
+        this.calculoPorUsuario = calculoPorUsuario;
+        this.calendario = calendario;
+    }
+
+    /**
+     * Relatório mensal de banco de horas de todos os usuários (ou só dos ativos).
+     * Os usuários vêm de uma consulta e as marcações do mês de uma única leitura por intervalo de data,
+     * separadas por usuário; cada usuário é calculado em paralelo.
+     */
+    @Override
+    @Timed("oclock.relatorio.organizacao")
+    @LeituraEmReplica
+    public OrganizationMonthlyReportDTO generateMonthlyReport(int ano, int mes, boolean apenasAtivos, Sort.Direction ordemSaldo) {
+        long inicioExecucao = System.nanoTime();
+
+        YearMonth competencia;
+        try {
+            competencia = YearMonth.of(ano, mes);
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ano ou mês inválido: " + ano + "/" + mes);
+        }
+
+        List<User> users = apenasAtivos ? userRepository.findByActiveTrue() : userRepository.findAll();
+        Map<Integer, List<Marcacao>> registrosPorUsuario = registrosPorUsuarioLoader.carregar(
+                competencia.atDay(1).atStartOfDay(), competencia.atEndOfMonth().atTime(LocalTime.MAX));
+        // Feriados lidos aqui, na réplica, uma vez, e não por cada thread do cálculo
+        calendario.preCarregar(competencia.atDay(1), competencia.atEndOfMonth());
+
+        List<BankedHoursReportDTO> reports = calculoPorUsuario.calcular(users,
+                user -> primitiveEngine.montarRelatorioMensal(user, competencia, primitiveEngine.calcularNanosPorDia(
+                        registrosPorUsuario.getOrDefault(user.getId(), List.of()), competencia)),
+                ordenacao(ordemSaldo));
+
+        long totalPunches = users.stream()
+                .mapToLong(user -> registrosPorUsuario.getOrDefault(user.getId(), List.of()).size())
+                .sum();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - inicioExecucao).toMillis();
+        return new OrganizationMonthlyReportDTO(ano, mes, reports.size(), totalPunches, elapsedMillis, reports);
+    }
+
+    private static Comparator<BankedHoursReportDTO> ordenacao(Sort.Direction ordemSaldo) {
+        Comparator<BankedHoursReportDTO> porUsuario = Comparator.comparing(BankedHoursReportDTO::getUserId);
+        if (ordemSaldo == null) {
+            return porUsuario;
+        }
+        Comparator<BankedHoursReportDTO> porSaldo = Comparator.comparing(BankedHoursReportDTO::getBalanceHoursMonth);
+        return (ordemSaldo.isDescending() ? porSaldo.reversed() : porSaldo).thenComparing(porUsuario);
+    }
+}
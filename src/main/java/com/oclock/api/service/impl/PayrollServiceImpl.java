@@ -0,0 +1,100 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.dto.PayrollEntryDTO;
+import com.oclock.api.dto.PayrollRunDTO;
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.PayrollService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class PayrollServiceImpl implements PayrollService {
+
+    private static final BigDecimal NANOS_POR_HORA = BigDecimal.valueOf(Duration.ofHours(1).toNanos());
+
+    private final UserRepository userRepository;
+    private final RegistrosPorUsuarioLoader registrosPorUsuarioLoader;
+    private final BankedHoursCalculator calculator;
+    private final PrimitiveBankedHoursEngine primitiveEngine;
+    private final CalculoPorUsuarioExecutor calculoPorUsuario;
+    private final CalendarioTrabalho calendario;
+
+    @Autowired
+    public PayrollServiceImpl(UserRepository userRepository, RegistrosPorUsuarioLoader registrosPorUsuarioLoader,
+                              BankedHoursCalculator calculator, PrimitiveBankedHoursEngine primitiveEngine,
+                              CalculoPorUsuarioExecutor calculoPorUsuario, CalendarioTrabalho calendario) {
+        this.userRepository = userRepository;
+        this.registrosPorUsuarioLoader = registrosPorUsuarioLoader;
+        this.calculator = calculator;
+        this.primitiveEngine = primitiveEngine;
+        this.calculoPorUsuario = calculoPorUsuario;
+        this.calendario = calendario;
+    }
+
+    /**
+     * Calcula horas trabalhadas, esperadas, saldo e valor das horas extras de todos os usuários ativos no mês.
+     * As marcações do mês são lidas uma única vez e os usuários são calculados em paralelo.
+     */
+    @Override
+    public PayrollRunDTO runPayroll(int ano, int mes) {
+        long inicioExecucao = System.nanoTime();
+
+        YearMonth competencia;
+        try {
+            competencia = YearMonth.of(ano, mes);
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ano ou mês inválido: " + ano + "/" + mes);
+        }
+        LocalDate inicioMes = competencia.atDay(1);
+        LocalDate fimMes = competencia.atEndOfMonth();
+
+        List<User> users = userRepository.findByActiveTrue();
+        Map<Integer, List<Marcacao>> registrosPorUsuario = registrosPorUsuarioLoader.carregar(
+                inicioMes.atStartOfDay(), fimMes.atTime(LocalTime.MAX));
+        // Feriados lidos aqui, uma vez, e não por cada thread do cálculo
+        calendario.preCarregar(inicioMes, fimMes);
+
+        List<PayrollEntryDTO> entries = calculoPorUsuario.calcular(users,
+                user -> calcularUsuario(user, registrosPorUsuario.getOrDefault(user.getId(), List.of()), competencia),
+                Comparator.comparing(PayrollEntryDTO::getUserId));
+
+        // Só as marcações dos usuários da folha: as de inativos no período não entram na contagem
+        long totalPunches = users.stream()
+                .mapToLong(user -> registrosPorUsuario.getOrDefault(user.getId(), List.of()).size())
+                .sum();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - inicioExecucao).toMillis();
+        return new PayrollRunDTO(ano, mes, entries.size(), totalPunches, elapsedMillis, entries);
+    }
+
+    private PayrollEntryDTO calcularUsuario(User user, List<Marcacao> registrosDoMes, YearMonth competencia) {
+        Duration trabalhadas = Duration.ofNanos(PrimitiveBankedHoursEngine.somar(primitiveEngine.calcularNanosPorDia(registrosDoMes, competencia)));
+        Duration esperadas = calculator.calcularHorasEsperadas(user, competencia.atDay(1), competencia.atEndOfMonth());
+        Duration saldo = trabalhadas.minus(esperadas);
+
+        BigDecimal valorHorasExtras = BigDecimal.ZERO.setScale(2);
+        if (user.getValorHora() != null && !saldo.isNegative() && !saldo.isZero()) {
+            valorHorasExtras = BigDecimal.valueOf(saldo.toNanos())
+                    .multiply(user.getValorHora())
+                    .divide(NANOS_POR_HORA, 2, RoundingMode.HALF_UP);
+        }
+
+        return new PayrollEntryDTO(user.getId(), user.getNomeCompleto(), user.getValorHora(),
+                trabalhadas, esperadas, saldo, calculator.getBalanceStatus(saldo), valorHorasExtras);
+    }
+}
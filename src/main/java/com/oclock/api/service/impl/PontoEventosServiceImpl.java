@@ -0,0 +1,309 @@
+package com.oclock.api.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oclock.api.dto.RegistroPontoEventoDTO;
+import com.oclock.api.service.PontoEventosService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fluxo SSE das marcações gravadas, para os painéis de administração deixarem de consultar /api/ponto/periodo
+ * em intervalos. Cada alteração é serializada uma única vez, no commit, e entra no histórico circular (de onde
+ * sai a retomada por Last-Event-ID) e na fila de cada assinante interessado.
+ * <p>
+ * As filas são limitadas: quando um cliente lento não acompanha, a mais antiga é descartada e o cliente recebe
+ * um evento "ressincronizar" antes do próximo, indicando que deve recarregar o dia por /api/ponto/periodo.
+ * O mesmo evento é enviado quando o Last-Event-ID já saiu do histórico ou é de outra execução do servidor.
+ * Cada assinante tem uma thread virtual que escreve no socket, então um cliente lento nunca segura o commit
+ * (nem a trava do usuário) de quem bateu o ponto.
+ */
+@Service
+public class PontoEventosServiceImpl implements PontoEventosService, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PontoEventosServiceImpl.class);
+
+    static final String EVENTO_RESSINCRONIZAR = "ressincronizar";
+
+    private record Evento(long sequencia, Integer idUsuario, String nome, String json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int capacidadePorAssinante;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    // Identifica a execução do servidor nos ids dos eventos: sequências de outra execução não são retomáveis
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+
+    // Histórico, sequência e lista de assinantes mudam juntos sob esta trava
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Evento[] historico;
+    private long ultimaSequencia;
+    private final List<Assinante> assinantes = new ArrayList<>();
+
+    private final AtomicLong descartadosTotal = new AtomicLong();
+    private Counter descartados;
+
+    @Autowired
+    public PontoEventosServiceImpl(ObjectMapper objectMapper,
+                                   @Value("${oclock.eventos.historico:10000}") int tamanhoHistorico,
+                                   @Value("${oclock.eventos.buffer-por-cliente:256}") int capacidadePorAssinante,
+                                   @Value("${oclock.eventos.heartbeat:15s}") Duration heartbeat,
+                                   @Value("${oclock.eventos.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.historico = new Evento[tamanhoHistorico];
+        this.capacidadePorAssinante = capacidadePorAssinante;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public SseEmitter assinar(Integer idUsuario, String ultimoEventoId) {
+        SseEmitter emitter = criarEmitter(timeout.toMillis());
+        Assinante assinante = new Assinante(idUsuario, emitter);
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+
+        trava.lock();
+        try {
+            if (ultimoEventoId != null && !ultimoEventoId.isBlank()) {
+                reenviarHistorico(assinante, ultimoEventoId);
+            }
+            assinantes.add(assinante);
+        } finally {
+            trava.unlock();
+        }
+        Thread.ofVirtual().name("sse-ponto-" + (idUsuario == null ? "todos" : idUsuario)).start(assinante::enviarEnquantoAberto);
+        return emitter;
+    }
+
+    SseEmitter criarEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // Chamado com a trava
+    private void reenviarHistorico(Assinante assinante, String ultimoEventoId) {
+        long ultimaRecebida = sequenciaDesteServidor(ultimoEventoId);
+        long maisAntigaDisponivel = Math.max(1, ultimaSequencia - historico.length + 1);
+        if (ultimaRecebida < 0 || ultimaRecebida > ultimaSequencia || ultimaRecebida + 1 < maisAntigaDisponivel) {
+            assinante.sinalizarLacuna();
+            return;
+        }
+        for (long sequencia = ultimaRecebida + 1; sequencia <= ultimaSequencia; sequencia++) {
+            Evento evento = historico[(int) (sequencia % historico.length)];
+            if (assinante.interessadoEm(evento.idUsuario())) {
+                assinante.oferecer(evento);
+            }
+        }
+    }
+
+    private long sequenciaDesteServidor(String eventoId) {
+        int separador = eventoId.indexOf('-');
+        if (separador < 0 || !eventoId.substring(0, separador).equals(instancia)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventoId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void remover(Assinante assinante) {
+        assinante.fechar();
+        trava.lock();
+        try {
+            assinantes.remove(assinante);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Publica a marcação depois do commit (ou na hora, fora de transação). Só serializa e enfileira;
+     * a escrita nos sockets fica com a thread de cada assinante.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRegistro(RegistroPontoAlteradoEvent alteracao) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new RegistroPontoEventoDTO(alteracao.idRegistro(), alteracao.idUsuario(),
+                    alteracao.dataHoraRegistro(), alteracao.tipoRegistro(), alteracao.alteracao()));
+        } catch (JsonProcessingException e) {
+            log.warn("Falha ao serializar o evento da marcação {}: {}", alteracao.idRegistro(), e.getMessage());
+            return;
+        }
+        String nome = alteracao.alteracao().name().toLowerCase(Locale.ROOT);
+
+        trava.lock();
+        try {
+            long sequencia = ++ultimaSequencia;
+            Evento evento = new Evento(sequencia, alteracao.idUsuario(), nome, json);
+            historico[(int) (sequencia % historico.length)] = evento;
+            for (Assinante assinante : assinantes) {
+                if (assinante.interessadoEm(evento.idUsuario())) {
+                    assinante.oferecer(evento);
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public int getAssinantes() {
+        trava.lock();
+        try {
+            return assinantes.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public long getDescartados() {
+        return descartadosTotal.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("oclock.eventos.assinantes", this, PontoEventosServiceImpl::getAssinantes)
+                .description("Clientes conectados ao fluxo SSE de marcações")
+                .register(registry);
+        descartados = Counter.builder("oclock.eventos.descartados")
+                .description("Eventos descartados da fila de clientes que não acompanharam o fluxo")
+                .register(registry);
+    }
+
+    /**
+     * Um cliente conectado: fila limitada (descarta a mais antiga quando cheia) e a thread que a esvazia no emitter.
+     */
+    private final class Assinante {
+
+        private final Integer idUsuario;
+        private final SseEmitter emitter;
+        private final ReentrantLock travaFila = new ReentrantLock();
+        private final Condition naoVazia = travaFila.newCondition();
+        private final ArrayDeque<Evento> fila = new ArrayDeque<>();
+        private long descartadosDesdeUltimoEnvio;
+        private boolean lacuna;
+        private boolean fechado;
+
+        Assinante(Integer idUsuario, SseEmitter emitter) {
+            this.idUsuario = idUsuario;
+            this.emitter = emitter;
+        }
+
+        boolean interessadoEm(Integer idUsuarioEvento) {
+            return idUsuario == null || Objects.equals(idUsuario, idUsuarioEvento);
+        }
+
+        void oferecer(Evento evento) {
+            travaFila.lock();
+            try {
+                if (fechado) {
+                    return;
+                }
+                if (fila.size() == capacidadePorAssinante) {
+                    fila.pollFirst();
+                    descartadosDesdeUltimoEnvio++;
+                    descartadosTotal.incrementAndGet();
+                    if (descartados != null) {
+                        descartados.increment();
+                    }
+                }
+                fila.addLast(evento);
+                naoVazia.signal();
+            } finally {
+                travaFila.unlock();
+            }
+        }
+
+        void sinalizarLacuna() {
+            travaFila.lock();
+            try {
+                lacuna = true;
+                naoVazia.signal();
+            } finally {
+                travaFila.unlock();
+            }
+        }
+
+        void fechar() {
+            travaFila.lock();
+            try {
+                fechado = true;
+                fila.clear();
+                naoVazia.signal();
+            } finally {
+                travaFila.unlock();
+            }
+        }
+
+        void enviarEnquantoAberto() {
+            try {
+                emitter.send(SseEmitter.event().reconnectTime(1000).comment("conectado"));
+                while (true) {
+                    Evento evento;
+                    long descartadosAgora;
+                    boolean lacunaAgora;
+                    travaFila.lock();
+                    try {
+                        long esperaNanos = heartbeat.toNanos();
+                        while (!fechado && fila.isEmpty() && descartadosDesdeUltimoEnvio == 0 && !lacuna && esperaNanos > 0) {
+                            esperaNanos = naoVazia.awaitNanos(esperaNanos);
+                        }
+                        if (fechado) {
+                            return;
+                        }
+                        evento = fila.pollFirst();
+                        descartadosAgora = descartadosDesdeUltimoEnvio;
+                        lacunaAgora = lacuna;
+                        descartadosDesdeUltimoEnvio = 0;
+                        lacuna = false;
+                    } finally {
+                        travaFila.unlock();
+                    }
+
+                    if (lacunaAgora || descartadosAgora > 0) {
+                        emitter.send(SseEmitter.event().name(EVENTO_RESSINCRONIZAR)
+                                .data(objectMapper.writeValueAsString(Map.of("descartados", descartadosAgora, "historicoIncompleto", lacunaAgora))));
+                    }
+                    if (evento != null) {
+                        emitter.send(SseEmitter.event().id(instancia + "-" + evento.sequencia()).name(evento.nome()).data(evento.json()));
+                    } else if (!lacunaAgora && descartadosAgora == 0) {
+                        // Sem eventos no intervalo: o comentário mantém proxies abertos e revela clientes que já saíram
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emitter já encerrado (timeout)
+                log.debug("Assinante SSE encerrado: {}", e.getMessage());
+                remover(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                remover(this);
+            }
+        }
+    }
+}
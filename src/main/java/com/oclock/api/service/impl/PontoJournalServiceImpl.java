@@ -0,0 +1,269 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.dto.PontoAceitoDTO;
+import com.oclock.api.dto.PontoLoteItemDTO;
+import com.oclock.api.dto.PontoLoteResultadoDTO;
+import com.oclock.api.repository.JournalCheckpointRepository;
+import com.oclock.api.repository.PontoJournal;
+import com.oclock.api.service.PontoJournalService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modo journal de "bater ponto" (oclock.journal.enabled): a batida é gravada no {@link PontoJournal} local e
+ * confirmada assim que está em disco, sem esperar o banco. Uma thread de drenagem leva o journal para
+ * registros_ponto em lotes, pelo mesmo caminho de baterPontoEmLote (ENTRADA/SAIDA em ordem por usuário), e grava
+ * o ponto de controle na mesma transação. Na subida, o que passou do ponto de controle é gravado de novo.
+ * Com o banco fora do ar a drenagem falha, as batidas continuam sendo aceitas e o lote é tentado de novo depois.
+ * Um lote que falha por outro motivo (a mesma batida sempre quebra a gravação) é tentado tentativasPorLote vezes e
+ * então regravado uma batida por vez; a que ainda falhar vai para a quarentena (journal_ponto_quarentena), o ponto de
+ * controle avança e as batidas seguintes voltam a ser drenadas.
+ */
+@Service
+@ConditionalOnProperty(name = "oclock.journal.enabled", havingValue = "true")
+public class PontoJournalServiceImpl implements PontoJournalService, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PontoJournalServiceImpl.class);
+    private static final long DESCONHECIDA = -1;
+
+    private final RegistrosPontoServiceImpl registrosPontoService;
+    private final UserCache userCache;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final PontoJournal journal;
+    private final int tamanhoLote;
+    private final int tentativasPorLote;
+    private final Duration intervaloDrenagem;
+    private final ScheduledExecutorService drenador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("journal-ponto-drenagem").daemon().factory());
+
+    // Última sequência já gravada no banco; só a thread de drenagem altera
+    private volatile long ultimaDrenada = DESCONHECIDA;
+    // Falhas seguidas do lote que começa em loteComFalha e limite até onde gravar uma batida por vez; só a drenagem altera
+    private long loteComFalha = DESCONHECIDA;
+    private int falhasDoLote;
+    private long isolarAte = DESCONHECIDA;
+    private Counter gravadas;
+    private Counter descartadas;
+    private Counter falhas;
+    private Counter quarentena;
+
+    @Autowired
+    public PontoJournalServiceImpl(RegistrosPontoServiceImpl registrosPontoService, UserCache userCache,
+                                   JournalCheckpointRepository checkpointRepository,
+                                   @Value("${oclock.journal.diretorio:journal}") Path diretorio,
+                                   @Value("${oclock.journal.registros-por-segmento:1048576}") int registrosPorSegmento,
+                                   @Value("${oclock.journal.tamanho-lote:500}") int tamanhoLote,
+                                   @Value("${oclock.journal.tentativas-por-lote:3}") int tentativasPorLote,
+                                   @Value("${oclock.journal.intervalo-drenagem:100ms}") Duration intervaloDrenagem) {
+        this.registrosPontoService = registrosPontoService;
+        this.userCache = userCache;
+        this.checkpointRepository = checkpointRepository;
+        this.journal = new PontoJournal(diretorio, registrosPorSegmento);
+        this.tamanhoLote = tamanhoLote;
+        this.tentativasPorLote = tentativasPorLote;
+        this.intervaloDrenagem = intervaloDrenagem;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        drenador.scheduleWithFixedDelay(this::drenarComTratamento, 0, intervaloDrenagem.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    @Timed("oclock.ponto.journal.aceitar")
+    public PontoAceitoDTO aceitar(Integer idUsuario, LocalDateTime dataHoraRegistro) {
+        try {
+            if (userCache.buscar(idUsuario).isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + idUsuario + " não encontrado.");
+            }
+        } catch (DataAccessException e) {
+            // Sem banco não dá para validar o usuário; a batida é aceita e a drenagem descarta se ele não existir
+            log.warn("Batida do usuário {} aceita sem validação: banco indisponível ({})", idUsuario, e.getMessage());
+        }
+        PontoJournal.Registro registro = journal.acrescentar(idUsuario, dataHoraRegistro);
+        return new PontoAceitoDTO(registro.sequencia(), idUsuario, dataHoraRegistro, PontoAceitoDTO.PENDENTE);
+    }
+
+    private void drenarComTratamento() {
+        try {
+            drenar();
+        } catch (RuntimeException e) {
+            // Nada é perdido: o ponto de controle não avançou e o mesmo lote é tentado de novo no próximo ciclo
+            contar(falhas);
+            log.warn("Falha ao drenar o journal de batidas; nova tentativa em {}: {}", intervaloDrenagem, e.getMessage());
+        }
+    }
+
+    /**
+     * Grava no banco tudo o que está no journal depois do ponto de controle, em lotes de tamanhoLote
+     * (uma batida por vez enquanto isola a que fez um lote falhar).
+     */
+    void drenar() {
+        if (ultimaDrenada == DESCONHECIDA) {
+            ultimaDrenada = checkpointRepository.buscarUltimaSequencia(journal.getId()).orElse(0L);
+            journal.descartarAte(ultimaDrenada);
+        }
+        List<PontoJournal.Registro> lote;
+        while (!(lote = journal.ler(ultimaDrenada + 1, ultimaDrenada < isolarAte ? 1 : tamanhoLote)).isEmpty()) {
+            try {
+                gravar(lote);
+            } catch (RuntimeException e) {
+                // Banco fora do ar não diz nada sobre as batidas: só tenta de novo no próximo ciclo
+                if (indisponibilidade(e) || !esgotouTentativas(lote)) {
+                    throw e;
+                }
+                if (lote.size() > 1) {
+                    isolarAte = lote.get(lote.size() - 1).sequencia();
+                    log.warn("Lote do journal de batidas {}..{} falhou {} vezes; regravando uma batida por vez: {}",
+                            lote.get(0).sequencia(), isolarAte, tentativasPorLote, e.getMessage());
+                } else {
+                    quarentenar(lote.get(0), e);
+                }
+            }
+        }
+    }
+
+    private void gravar(List<PontoJournal.Registro> lote) {
+        long ate = lote.get(lote.size() - 1).sequencia();
+        List<PontoLoteItemDTO> marcacoes = lote.stream()
+                .map(registro -> new PontoLoteItemDTO(registro.idUsuario(), registro.dataHoraRegistro()))
+                .toList();
+
+        List<PontoLoteResultadoDTO> resultados = registrosPontoService.baterPontoEmLote(marcacoes,
+                () -> checkpointRepository.salvar(journal.getId(), ate));
+
+        for (PontoLoteResultadoDTO resultado : resultados) {
+            if (PontoLoteResultadoDTO.REGISTRADO.equals(resultado.getStatus())) {
+                contar(gravadas);
+            } else {
+                contar(descartadas);
+                log.warn("Batida do journal descartada: usuário {} em {} ({})",
+                        resultado.getIdUsuario(), resultado.getDataHoraRegistro(), resultado.getStatus());
+            }
+        }
+        ultimaDrenada = ate;
+        journal.descartarAte(ate);
+        loteComFalha = DESCONHECIDA;
+        falhasDoLote = 0;
+    }
+
+    private boolean esgotouTentativas(List<PontoJournal.Registro> lote) {
+        long inicio = lote.get(0).sequencia();
+        if (inicio != loteComFalha) {
+            loteComFalha = inicio;
+            falhasDoLote = 0;
+        }
+        if (++falhasDoLote < tentativasPorLote) {
+            return false;
+        }
+        // A contagem recomeça para as batidas isoladas
+        loteComFalha = DESCONHECIDA;
+        falhasDoLote = 0;
+        return true;
+    }
+
+    private void quarentenar(PontoJournal.Registro registro, RuntimeException erro) {
+        checkpointRepository.quarentenar(journal.getId(), registro, erro.toString());
+        contar(quarentena);
+        log.error("Batida do journal em quarentena após {} falhas: sequência {}, usuário {} em {}",
+                tentativasPorLote, registro.sequencia(), registro.idUsuario(), registro.dataHoraRegistro(), erro);
+        ultimaDrenada = registro.sequencia();
+        journal.descartarAte(registro.sequencia());
+    }
+
+    private static boolean indisponibilidade(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof TransientDataAccessException || causa instanceof RecoverableDataAccessException
+                    || causa instanceof DataAccessResourceFailureException || causa instanceof CannotCreateTransactionException
+                    || causa instanceof SQLTransientException || causa instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Os contadores só existem depois do bindTo; a drenagem da subida pode começar antes
+    private static void contar(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * Batidas aceitas que ainda não estão no banco.
+     */
+    public long getProfundidade() {
+        long drenada = ultimaDrenada;
+        return drenada == DESCONHECIDA ? 0 : Math.max(0, journal.getUltimaSequencia() - drenada);
+    }
+
+    /**
+     * Há quanto tempo a batida pendente mais antiga foi aceita; zero sem pendências.
+     */
+    public Duration getAtraso() {
+        if (getProfundidade() == 0) {
+            return Duration.ZERO;
+        }
+        long aceitoEm = journal.aceitoEmMillis(ultimaDrenada + 1);
+        return aceitoEm < 0 ? Duration.ZERO : Duration.ofMillis(Math.max(0, System.currentTimeMillis() - aceitoEm));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("oclock.journal.profundidade", this, PontoJournalServiceImpl::getProfundidade)
+                .description("Batidas aceitas pelo journal que ainda não foram gravadas no banco")
+                .register(registry);
+        Gauge.builder("oclock.journal.atraso", this, servico -> servico.getAtraso().toMillis() / 1000.0)
+                .description("Idade da batida pendente mais antiga do journal")
+                .baseUnit("seconds")
+                .register(registry);
+        gravadas = Counter.builder("oclock.journal.drenadas").tag("resultado", "registrada")
+                .description("Batidas do journal gravadas no banco").register(registry);
+        descartadas = Counter.builder("oclock.journal.drenadas").tag("resultado", "descartada")
+                .description("Batidas do journal descartadas (usuário inexistente)").register(registry);
+        falhas = Counter.builder("oclock.journal.falhas")
+                .description("Tentativas de drenagem que falharam (banco indisponível ou lote com batida inválida)").register(registry);
+        quarentena = Counter.builder("oclock.journal.quarentena")
+                .description("Batidas do journal que falharam sempre, mesmo isoladas, e foram para journal_ponto_quarentena")
+                .register(registry);
+    }
+
+    /**
+     * Para a drenagem, tenta uma última passada e fecha o journal. O que não couber fica para a próxima subida.
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        drenador.shutdown();
+        drenador.awaitTermination(30, TimeUnit.SECONDS);
+        drenarComTratamento();
+        journal.close();
+    }
+}
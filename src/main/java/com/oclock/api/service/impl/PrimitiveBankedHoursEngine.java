@@ -0,0 +1,126 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Núcleo do cálculo de horas trabalhadas sobre arrays de primitivos.
+ * Cada marcação é um long com o instante local em nanossegundos (a data/hora lida como se fosse UTC, apenas como
+ * número, sem conversão de fuso) e as horas de cada dia do mês ficam em um long[] indexado por dia - 1.
+ * Objetos de data e Duration só são criados na borda, ao montar o DTO.
+ */
+@Component
+public class PrimitiveBankedHoursEngine {
+
+    static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+    static final long NANOS_POR_DIA = 86_400L * NANOS_POR_SEGUNDO;
+
+    private static final long SEM_ENTRADA = Long.MIN_VALUE;
+
+    private final BankedHoursCalculator calculator;
+
+    @Autowired
+    public PrimitiveBankedHoursEngine(BankedHoursCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    public static long paraNanos(LocalDateTime dataHora) {
+        return dataHora.toEpochSecond(ZoneOffset.UTC) * NANOS_POR_SEGUNDO + dataHora.getNano();
+    }
+
+    public static long diaEpoch(long instanteNanos) {
+        return Math.floorDiv(instanteNanos, NANOS_POR_DIA);
+    }
+
+    /**
+     * Converte marcações ordenadas por data/hora para o array de instantes.
+     */
+    public static long[] paraInstantes(List<? extends Marcacao> registrosOrdenados) {
+        long[] instantes = new long[registrosOrdenados.size()];
+        for (int i = 0; i < instantes.length; i++) {
+            instantes[i] = paraNanos(registrosOrdenados.get(i).getDataHoraRegistro());
+        }
+        return instantes;
+    }
+
+    /**
+     * Horas trabalhadas em cada dia do mês, em nanossegundos, a partir das marcações ordenadas.
+     */
+    public long[] calcularNanosPorDia(List<? extends Marcacao> registrosOrdenados, YearMonth mes) {
+        long[] instantes = paraInstantes(registrosOrdenados);
+        long[] nanosPorDia = new long[mes.lengthOfMonth()];
+        somarNanosPorDia(instantes, instantes.length, mes.atDay(1).toEpochDay(), nanosPorDia);
+        return nanosPorDia;
+    }
+
+    /**
+     * Soma em nanosPorDia[dia - primeiroDiaEpoch] as horas dos instantes[0..quantidade), pareando as marcações de
+     * cada dia na ordem: primeira é ENTRADA, segunda é SAIDA e assim por diante. Uma ENTRADA sem SAIDA no mesmo dia
+     * não conta horas, e dias fora do array são ignorados.
+     */
+    public static void somarNanosPorDia(long[] instantes, int quantidade, long primeiroDiaEpoch, long[] nanosPorDia) {
+        long diaAtual = Long.MIN_VALUE;
+        long entrada = SEM_ENTRADA;
+        for (int i = 0; i < quantidade; i++) {
+            long instante = instantes[i];
+            long dia = diaEpoch(instante);
+            if (dia != diaAtual) {
+                diaAtual = dia;
+                entrada = SEM_ENTRADA;
+            }
+            if (entrada == SEM_ENTRADA) {
+                entrada = instante;
+            } else {
+                long indice = dia - primeiroDiaEpoch;
+                if (indice >= 0 && indice < nanosPorDia.length) {
+                    nanosPorDia[(int) indice] += instante - entrada;
+                }
+                entrada = SEM_ENTRADA;
+            }
+        }
+    }
+
+    /**
+     * Monta o relatório mensal a partir das horas trabalhadas em cada dia do mês (nanossegundos, índice dia - 1).
+     */
+    public BankedHoursReportDTO montarRelatorioMensal(User user, YearMonth mes, long[] nanosPorDia) {
+        LocalDate inicioMes = mes.atDay(1);
+        int diasNoMes = mes.lengthOfMonth();
+
+        Map<String, Duration> horasPorDia = new LinkedHashMap<>((int) (diasNoMes / 0.75f) + 1);
+        long totalTrabalhadoNanos = 0;
+        for (int dia = 0; dia < diasNoMes; dia++) {
+            long nanos = dia < nanosPorDia.length ? nanosPorDia[dia] : 0L;
+            totalTrabalhadoNanos += nanos;
+            horasPorDia.put(inicioMes.plusDays(dia).toString(), Duration.ofNanos(nanos));
+        }
+
+        Duration totalTrabalhado = Duration.ofNanos(totalTrabalhadoNanos);
+        Duration totalEsperado = calculator.calcularHorasEsperadas(user, inicioMes, mes.atEndOfMonth());
+        Duration saldo = totalTrabalhado.minus(totalEsperado);
+
+        return new BankedHoursReportDTO(user.getId(), user.getNomeCompleto(), mes.getYear(), mes.getMonthValue(),
+                calculator.getJornadaDiaria(user), horasPorDia, totalTrabalhado, totalEsperado, saldo,
+                calculator.getBalanceStatus(saldo));
+    }
+
+    public static long somar(long[] nanosPorDia) {
+        long total = 0;
+        for (long nanos : nanosPorDia) {
+            total += nanos;
+        }
+        return total;
+    }
+}
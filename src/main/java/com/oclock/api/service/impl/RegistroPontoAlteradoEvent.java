@@ -0,0 +1,21 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.AlteracaoRegistro;
+import com.oclock.api.model.TipoRegistro;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado a cada marcação criada, alterada ou removida, dentro da transação que a grava.
+ * BATIDA indica uma batida de baterPonto/baterPontoEmLote, acrescentada ao fim do histórico do usuário
+ * sob a trava dele; alterações de administrador (que podem mexer em qualquer dia) chegam como CRIADO,
+ * ALTERADO ou REMOVIDO. Uma marcação movida para outro usuário gera REMOVIDO para o anterior e ALTERADO
+ * para o novo.
+ */
+public record RegistroPontoAlteradoEvent(Integer idRegistro, Integer idUsuario, LocalDateTime dataHoraRegistro,
+                                         TipoRegistro tipoRegistro, AlteracaoRegistro alteracao) {
+
+    public boolean batidaNova() {
+        return alteracao == AlteracaoRegistro.BATIDA;
+    }
+}
@@ -0,0 +1,89 @@
+package com.oclock.api.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.oclock.api.model.FormatoExportacao;
+import com.oclock.api.model.RegistrosPonto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Escreve marcações de ponto em NDJSON, CSV ou sequência CBOR à medida que são lidas do banco.
+ * Cada entidade é desanexada depois de escrita, então a memória usada não cresce com o tamanho da exportação.
+ */
+@Component
+public class RegistrosPontoExporter {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final byte[] NOVA_LINHA = {'\n'};
+    private static final String CABECALHO_CSV =
+            "id_registro,id_usuario,data_hora_registro,tipo_registro,observacao,created_at,updated_at\n";
+
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter cborWriter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public RegistrosPontoExporter(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        this.jsonWriter = objectMapper.writerFor(RegistrosPonto.class);
+        this.cborWriter = builder.factory(new CBORFactory()).build().writerFor(RegistrosPonto.class);
+    }
+
+    /**
+     * Deve ser chamado dentro da transação que abriu o stream.
+     */
+    public void escrever(Stream<RegistrosPonto> registros, FormatoExportacao formato, OutputStream saida) throws IOException {
+        OutputStream buffer = new BufferedOutputStream(saida, TAMANHO_BUFFER);
+        if (formato == FormatoExportacao.CSV) {
+            buffer.write(CABECALHO_CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Iterator<RegistrosPonto> iterator = registros.iterator();
+        while (iterator.hasNext()) {
+            RegistrosPonto registro = iterator.next();
+            if (formato == FormatoExportacao.CSV) {
+                buffer.write(linhaCsv(registro).getBytes(StandardCharsets.UTF_8));
+            } else if (formato == FormatoExportacao.CBOR) {
+                buffer.write(cborWriter.writeValueAsBytes(registro));
+            } else {
+                buffer.write(jsonWriter.writeValueAsBytes(registro));
+                buffer.write(NOVA_LINHA);
+            }
+            entityManager.detach(registro);
+        }
+        buffer.flush();
+    }
+
+    private static String linhaCsv(RegistrosPonto registro) {
+        return registro.getId() + "," +
+                registro.getIdUsuario() + "," +
+                registro.getDataHoraRegistro() + "," +
+                registro.getTipoRegistro() + "," +
+                campoCsv(registro.getObservacao()) + "," +
+                registro.getCreatedAt() + "," +
+                registro.getUpdatedAt() + "\n";
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,40 +1,86 @@
 package com.oclock.api.service.impl;
 
+import com.oclock.api.config.LeituraEmReplica;
 import com.oclock.api.dto.BankedHoursAccumulatedReportDTO;
 import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.CursorPageDTO;
+import com.oclock.api.dto.PontoLoteItemDTO;
+import com.oclock.api.dto.PontoLoteResultadoDTO;
 import com.oclock.api.dto.PontoRequestDTO; // Importe o DTO para bater ponto
 import com.oclock.api.dto.RegistroPontoAdminDTO; // Importe o DTO para admin CRUD
+import com.oclock.api.model.AlteracaoRegistro;
+import com.oclock.api.model.FormatoExportacao;
+import com.oclock.api.model.Marcacao;
 import com.oclock.api.model.RegistrosPonto;
 import com.oclock.api.model.TipoRegistro; // Nosso Enum TipoRegistro
 import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoBatchInserter;
 import com.oclock.api.repository.RegistroPontoRepository;
 import com.oclock.api.repository.UserRepository;
 import com.oclock.api.service.RegistrosPontoService;
+import com.oclock.api.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional; // Import para @Transactional
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException; // Import existente
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Duration;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.temporal.TemporalAdjusters;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class RegistrosPontoServiceImpl implements RegistrosPontoService {
 
     private final RegistroPontoRepository registroPontoRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final PrimitiveBankedHoursEngine primitiveEngine;
+    private final SaldoMensalLedger saldoMensalLedger;
+    private final MesesArquivados mesesArquivados;
+    private final RegistrosPontoExporter exporter;
+    private final RegistroPontoBatchInserter batchInserter;
+    private final UserPunchLocks userPunchLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${oclock.paginacao.limite-padrao:100}")
+    private int limitePadrao;
+
+    @Value("${oclock.paginacao.limite-maximo:1000}")
+    private int limiteMaximo;
 
     @Autowired
-    public RegistrosPontoServiceImpl(RegistroPontoRepository registroPontoRepository, UserRepository userRepository) {
+    public RegistrosPontoServiceImpl(RegistroPontoRepository registroPontoRepository, UserRepository userRepository,
+                                     UserCache userCache, PrimitiveBankedHoursEngine primitiveEngine, SaldoMensalLedger saldoMensalLedger,
+                                     MesesArquivados mesesArquivados,
+                                     RegistrosPontoExporter exporter, RegistroPontoBatchInserter batchInserter,
+                                     UserPunchLocks userPunchLocks, PlatformTransactionManager transactionManager,
+                                     ApplicationEventPublisher eventPublisher) {
         this.registroPontoRepository = registroPontoRepository;
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.primitiveEngine = primitiveEngine;
+        this.saldoMensalLedger = saldoMensalLedger;
+        this.mesesArquivados = mesesArquivados;
+        this.exporter = exporter;
+        this.batchInserter = batchInserter;
+        this.userPunchLocks = userPunchLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -42,8 +88,9 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
      * (Método existente)
      */
     @Override
+    @Timed(value = "oclock.ponto.periodo", extraTags = {"consulta", "dia"})
     public List<RegistrosPonto> getRegistrosPontoByUserIdAndDate(Integer userId, LocalDate date) {
-        userRepository.findById(userId)
+        userCache.buscar(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado com ID: " + userId));
 
         LocalDateTime startOfDay = date.atStartOfDay();
@@ -56,103 +103,39 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
      * (Método existente e completo)
      */
     @Override
+    @Timed("oclock.relatorio.mensal")
+    @LeituraEmReplica
     public BankedHoursReportDTO generateMonthlyBankedHoursReport(Integer userId, int ano, int mes) {
-        User user = userRepository.findById(userId)
+        User user = userCache.buscar(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado com ID: " + userId));
 
-        double expectedDailyHours = user.getJornadaDiariaHoras() != null ? user.getJornadaDiariaHoras().doubleValue() : 8.0;
-
-        LocalDate inicioMes = LocalDate.of(ano, mes, 1);
-        LocalDate fimMes = inicioMes.with(TemporalAdjusters.lastDayOfMonth());
-
-        List<RegistrosPonto> registrosDoMes = registroPontoRepository.findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(
-                userId, inicioMes.atStartOfDay(), fimMes.atTime(LocalTime.MAX)
-        );
-
-        Map<LocalDate, List<RegistrosPonto>> registrosPorDia = registrosDoMes.stream()
-                .collect(Collectors.groupingBy(
-                        registro -> registro.getDataHoraRegistro().toLocalDate(),
-                        LinkedHashMap::new,
-                        Collectors.toList()
-                ));
-
-        Map<LocalDate, Duration> horasTrabalhadasPorDia = new LinkedHashMap<>();
-        Duration totalHorasTrabalhadasNoMes = Duration.ZERO;
-        Duration totalHorasEsperadasNoMes = Duration.ZERO;
-
-        for (LocalDate dia = inicioMes; !dia.isAfter(fimMes); dia = dia.plusDays(1)) {
-            // Conta as horas esperadas apenas em dias de semana (segunda a sexta).
-            if (dia.getDayOfWeek() != DayOfWeek.SATURDAY && dia.getDayOfWeek() != DayOfWeek.SUNDAY) {
-                totalHorasEsperadasNoMes = totalHorasEsperadasNoMes.plus(Duration.ofHours((long) expectedDailyHours));
-            }
+        return calcularRelatorioMensal(user, ano, mes);
+    }
 
-            List<RegistrosPonto> marcacoesDoDia = registrosPorDia.getOrDefault(dia, new ArrayList<>());
-            marcacoesDoDia.sort(Comparator.comparing(RegistrosPonto::getDataHoraRegistro));
-
-            Duration totalTrabalhadoNoDia = Duration.ZERO;
-            LocalDateTime entrada = null;
-
-            // Calcula horas trabalhadas para o dia (pares ENTRADA/SAÍDA).
-            // IMPORTANTE: Esta lógica assume que os pontos ENTRADA/SAIDA estão corretos.
-            // Para maior robustez, considere a validação ou correção de sequências inválidas de pontos.
-            for (RegistrosPonto registro : marcacoesDoDia) {
-                // AQUI: A sua lógica de cálculo de horas trabalhadas já está adaptada para ENTRADA/SAIDA.
-                // Mas, se você decidir futuramente adicionar INICIO_INTERVALO/FIM_INTERVALO,
-                // esta parte da lógica precisará ser expandida para considerar esses tipos de registro.
-                if (entrada == null) {
-                    // Assume que o primeiro registro válido é uma ENTRADA
-                    entrada = registro.getDataHoraRegistro();
-                } else {
-                    // Assume que o próximo registro é uma SAIDA
-                    LocalDateTime saida = registro.getDataHoraRegistro();
-                    totalTrabalhadoNoDia = totalTrabalhadoNoDia.plus(Duration.between(entrada, saida));
-                    entrada = null; // Reseta para próxima ENTRADA
-                }
-            }
-            horasTrabalhadasPorDia.put(dia, totalTrabalhadoNoDia);
-            totalHorasTrabalhadasNoMes = totalHorasTrabalhadasNoMes.plus(totalTrabalhadoNoDia);
-        }
+    private BankedHoursReportDTO calcularRelatorioMensal(User user, int ano, int mes) {
+        YearMonth competencia = YearMonth.of(ano, mes);
 
-        // Calcula o saldo mensal do banco de horas.
-        Duration balanceHorasMes = totalHorasTrabalhadasNoMes.minus(totalHorasEsperadasNoMes);
-        String balanceStatus;
-        if (balanceHorasMes.isZero()) {
-            balanceStatus = "ZERADO";
-        } else if (balanceHorasMes.isNegative()) {
-            balanceStatus = "NEGATIVO";
-        } else {
-            balanceStatus = "POSITIVO";
-        }
+        // Meses arquivados vêm do segmento no arquivo, os demais de registros_ponto
+        List<Marcacao> registrosDoMes = mesesArquivados.marcacoesDoMes(user.getId(), competencia);
 
-        // Popula e retorna o DTO do relatório.
-        BankedHoursReportDTO report = new BankedHoursReportDTO();
-        report.setUserId(user.getId());
-        report.setUserName(user.getNomeCompleto());
-        report.setYear(ano);
-        report.setMonth(mes);
-        report.setExpectedDailyHours(expectedDailyHours);
-        report.setDailyHoursWorked(horasTrabalhadasPorDia); // Converte LocalDate para String no DTO
-        report.setTotalHoursWorkedMonth(totalHorasTrabalhadasNoMes);
-        report.setTotalExpectedHoursMonth(totalHorasEsperadasNoMes);
-        report.setBalanceHoursMonth(balanceHorasMes);
-        report.setBalanceStatus(balanceStatus);
-
-        return report;
+        return primitiveEngine.montarRelatorioMensal(user, competencia, primitiveEngine.calcularNanosPorDia(registrosDoMes, competencia));
     }
 
     /**
      * Gera um relatório acumulado de banco de horas para um usuário.
-     * (Método existente e completo)
+     * Os meses fechados vêm do livro-razão (saldos_mensais); só o mês corrente é calculado a partir das marcações.
      */
     @Override
+    @Timed("oclock.relatorio.acumulado")
+    @LeituraEmReplica
     public BankedHoursAccumulatedReportDTO generateAccumulatedBankedHoursReport(Integer userId) {
-        User user = userRepository.findById(userId)
+        User user = userCache.buscar(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado com ID: " + userId));
 
-        // Encontrar o mês e ano do primeiro registro de ponto do usuário (o mais antigo)
-        Optional<RegistrosPonto> oldestRecordOpt = registroPontoRepository.findTopByIdUsuarioOrderByDataHoraRegistroAsc(userId);
+        // Encontrar o mês e ano do primeiro registro de ponto do usuário (o mais antigo, arquivado ou não)
+        Optional<YearMonth> primeiroMesOpt = mesesArquivados.primeiroMes(userId);
 
-        if (oldestRecordOpt.isEmpty()) {
+        if (primeiroMesOpt.isEmpty()) {
             // Se não há registros de ponto, retorna um relatório acumulado vazio
             BankedHoursAccumulatedReportDTO emptyReport = new BankedHoursAccumulatedReportDTO();
             emptyReport.setUserId(userId);
@@ -162,32 +145,25 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
             return emptyReport;
         }
 
-        // Declara a variável 'startCalculatingDate' antes de atribuir um valor a ela
-        LocalDate startCalculatingDate = oldestRecordOpt.get().getDataHoraRegistro().toLocalDate();
-        LocalDate today = LocalDate.now();
+        YearMonth primeiroMes = primeiroMesOpt.get();
+        YearMonth mesAtual = YearMonth.now();
 
         Duration totalAccumulatedBalance = Duration.ZERO;
         List<BankedHoursReportDTO> monthlySummaries = new ArrayList<>();
 
-        // Iterar mês a mês, do primeiro registro até o mês atual
-        LocalDate currentMonthIterator = LocalDate.of(startCalculatingDate.getYear(), startCalculatingDate.getMonth(), 1);
-
-        // Enquanto o iterador for menor ou igual ao mês atual (para incluir o mês corrente)
-        while (!currentMonthIterator.isAfter(today)) {
-            int ano = currentMonthIterator.getYear();
-            int mes = currentMonthIterator.getMonthValue();
-
-            // Reutiliza o método de geração de relatório mensal
-            BankedHoursReportDTO monthlyReport = generateMonthlyBankedHoursReport(userId, ano, mes);
-
-            // Acumula o saldo do mês
+        // Meses fechados, do primeiro registro até o mês anterior ao atual
+        Map<YearMonth, long[]> mesesFechados = saldoMensalLedger.carregarMesesFechados(userId, primeiroMes, mesAtual);
+        for (Map.Entry<YearMonth, long[]> mesFechado : mesesFechados.entrySet()) {
+            BankedHoursReportDTO monthlyReport = primitiveEngine.montarRelatorioMensal(user, mesFechado.getKey(), mesFechado.getValue());
             totalAccumulatedBalance = totalAccumulatedBalance.plus(monthlyReport.getBalanceHoursMonth());
-
-            // Adiciona o relatório mensal à lista de sumários
             monthlySummaries.add(monthlyReport);
+        }
 
-            // Move para o próximo mês
-            currentMonthIterator = currentMonthIterator.plusMonths(1);
+        // Mês corrente, ainda aberto
+        if (!primeiroMes.isAfter(mesAtual)) {
+            BankedHoursReportDTO monthlyReport = calcularRelatorioMensal(user, mesAtual.getYear(), mesAtual.getMonthValue());
+            totalAccumulatedBalance = totalAccumulatedBalance.plus(monthlyReport.getBalanceHoursMonth());
+            monthlySummaries.add(monthlyReport);
         }
 
         // Popula e retorna o DTO do relatório acumulado
@@ -202,16 +178,23 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
 
     /**
      * Implementa a lógica de "bater ponto", determinando automaticamente ENTRADA ou SAIDA.
+     * Batidas simultâneas do mesmo usuário são serializadas: a trava por usuário envolve a transação
+     * inteira (até o commit) e a linha do usuário é bloqueada no banco para o caso de várias instâncias.
      */
     @Override
-    @Transactional // Garante que a operação é atômica (tudo ou nada)
+    @Timed("oclock.ponto.bater")
     public RegistrosPonto baterPonto(Integer idUsuario, LocalDateTime dataHoraRegistro) {
-        // 1. Verificar se o usuário existe
-        userRepository.findById(idUsuario)
+        return userPunchLocks.executar(idUsuario,
+                () -> transactionTemplate.execute(status -> registrarBatida(idUsuario, dataHoraRegistro)));
+    }
+
+    private RegistrosPonto registrarBatida(Integer idUsuario, LocalDateTime dataHoraRegistro) {
+        // 1. Verificar se o usuário existe (e bloquear sua linha até o commit)
+        userRepository.findByIdForUpdate(idUsuario)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + idUsuario + " não encontrado."));
 
         // 2. Encontrar o último registro de ponto do usuário
-        Optional<RegistrosPonto> ultimoRegistroOpt = registroPontoRepository.findTopByIdUsuarioOrderByDataHoraRegistroDesc(idUsuario);
+        Optional<RegistrosPonto> ultimoRegistroOpt = registroPontoRepository.findTopByIdUsuarioOrderByDataHoraRegistroDescIdDesc(idUsuario);
 
         TipoRegistro proximoTipo;
 
@@ -236,15 +219,126 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
         novoPonto.setObservacao("Ponto batido automaticamente pela API."); // Observação padrão
         // createdAt e updatedAt serão preenchidos automaticamente pelas anotações @PrePersist
 
-        return registroPontoRepository.save(novoPonto);
+        RegistrosPonto pontoSalvo = registroPontoRepository.save(novoPonto);
+        saldoMensalLedger.registrarAlteracao(idUsuario, dataHoraRegistro);
+        eventPublisher.publishEvent(new RegistroPontoAlteradoEvent(pontoSalvo.getId(), idUsuario, dataHoraRegistro, proximoTipo, AlteracaoRegistro.BATIDA));
+        return pontoSalvo;
     }
 
     /**
-     * Recupera todos os registros de ponto. (Para uso de administrador)
+     * Registra um lote de marcações (relógios de ponto que ficaram offline e reenviam o buffer).
+     * As marcações de cada usuário são ordenadas por data/hora e recebem ENTRADA/SAIDA em sequência,
+     * continuando a partir do último registro gravado. Marcações anteriores a esse registro não são gravadas
+     * (ANTERIOR_AO_ULTIMO_REGISTRO): o tipo delas dependeria de marcações que já vêm depois na sequência.
+     * A gravação é feita com INSERTs JDBC em batch. Usa as mesmas travas por usuário de baterPonto.
      */
     @Override
-    public List<RegistrosPonto> getAllRegistrosPonto() {
-        return registroPontoRepository.findAll();
+    @Timed("oclock.ponto.bater.lote")
+    public List<PontoLoteResultadoDTO> baterPontoEmLote(List<PontoLoteItemDTO> marcacoes) {
+        return baterPontoEmLote(marcacoes, () -> { });
+    }
+
+    /**
+     * Igual a baterPontoEmLote, executando também a ação informada na mesma transação, antes do commit.
+     * Usado pela drenagem do journal de batidas para gravar o ponto de controle junto com as marcações.
+     */
+    public List<PontoLoteResultadoDTO> baterPontoEmLote(List<PontoLoteItemDTO> marcacoes, Runnable naMesmaTransacao) {
+        Set<Integer> idsUsuarios = marcacoes.stream().map(PontoLoteItemDTO::getIdUsuario).collect(Collectors.toSet());
+        return userPunchLocks.executar(idsUsuarios, () -> transactionTemplate.execute(status -> {
+            List<PontoLoteResultadoDTO> resultados = registrarLote(marcacoes, idsUsuarios);
+            naMesmaTransacao.run();
+            return resultados;
+        }));
+    }
+
+    private List<PontoLoteResultadoDTO> registrarLote(List<PontoLoteItemDTO> marcacoes, Set<Integer> idsUsuarios) {
+        Set<Integer> usuariosExistentes = userRepository.findAllByIdForUpdate(idsUsuarios).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+
+        // Último registro de cada usuário; em empate de data/hora vale o de maior id
+        Map<Integer, RegistrosPonto> ultimosRegistros = new HashMap<>();
+        if (!usuariosExistentes.isEmpty()) {
+            for (RegistrosPonto registro : registroPontoRepository.findUltimosRegistrosDosUsuarios(usuariosExistentes)) {
+                ultimosRegistros.merge(registro.getIdUsuario(), registro, (atual, outro) -> outro.getId() > atual.getId() ? outro : atual);
+            }
+        }
+        Map<Integer, TipoRegistro> ultimoTipo = new HashMap<>();
+        ultimosRegistros.forEach((idUsuario, registro) -> ultimoTipo.put(idUsuario, registro.getTipoRegistro()));
+
+        // Ordena por usuário e data/hora; a posição no lote desempata marcações no mesmo instante
+        List<Integer> ordem = IntStream.range(0, marcacoes.size()).boxed()
+                .sorted(Comparator.comparing((Integer i) -> marcacoes.get(i).getIdUsuario())
+                        .thenComparing(i -> marcacoes.get(i).getDataHoraRegistro()))
+                .toList();
+
+        PontoLoteResultadoDTO[] resultados = new PontoLoteResultadoDTO[marcacoes.size()];
+        List<RegistrosPonto> novosPontos = new ArrayList<>();
+        for (int indice : ordem) {
+            PontoLoteItemDTO marcacao = marcacoes.get(indice);
+            Integer idUsuario = marcacao.getIdUsuario();
+            if (!usuariosExistentes.contains(idUsuario)) {
+                resultados[indice] = new PontoLoteResultadoDTO(indice, idUsuario, marcacao.getDataHoraRegistro(),
+                        null, PontoLoteResultadoDTO.USUARIO_NAO_ENCONTRADO);
+                continue;
+            }
+            RegistrosPonto ultimoGravado = ultimosRegistros.get(idUsuario);
+            if (ultimoGravado != null && marcacao.getDataHoraRegistro().isBefore(ultimoGravado.getDataHoraRegistro())) {
+                resultados[indice] = new PontoLoteResultadoDTO(indice, idUsuario, marcacao.getDataHoraRegistro(),
+                        null, PontoLoteResultadoDTO.ANTERIOR_AO_ULTIMO_REGISTRO);
+                continue;
+            }
+
+            TipoRegistro proximoTipo = proximoTipo(ultimoTipo.get(idUsuario));
+            ultimoTipo.put(idUsuario, proximoTipo);
+
+            RegistrosPonto novoPonto = new RegistrosPonto();
+            novoPonto.setIdUsuario(idUsuario);
+            novoPonto.setDataHoraRegistro(marcacao.getDataHoraRegistro());
+            novoPonto.setTipoRegistro(proximoTipo);
+            novoPonto.setObservacao("Ponto batido automaticamente pela API.");
+            novosPontos.add(novoPonto);
+
+            resultados[indice] = new PontoLoteResultadoDTO(indice, idUsuario, marcacao.getDataHoraRegistro(),
+                    proximoTipo, PontoLoteResultadoDTO.REGISTRADO);
+        }
+
+        batchInserter.inserir(novosPontos);
+        for (RegistrosPonto ponto : novosPontos) {
+            eventPublisher.publishEvent(new RegistroPontoAlteradoEvent(ponto.getId(), ponto.getIdUsuario(), ponto.getDataHoraRegistro(),
+                    ponto.getTipoRegistro(), AlteracaoRegistro.BATIDA));
+        }
+
+        // Um recálculo do livro-razão por mês fechado afetado, não por marcação
+        novosPontos.stream()
+                .map(ponto -> Map.entry(ponto.getIdUsuario(), YearMonth.from(ponto.getDataHoraRegistro())))
+                .distinct()
+                .forEach(mes -> saldoMensalLedger.registrarAlteracao(mes.getKey(), mes.getValue().atDay(1).atStartOfDay()));
+
+        return Arrays.asList(resultados);
+    }
+
+    private static TipoRegistro proximoTipo(TipoRegistro ultimoTipo) {
+        // Sem registros anteriores o primeiro ponto é ENTRADA; depois alterna entre ENTRADA e SAIDA
+        return ultimoTipo == TipoRegistro.ENTRADA ? TipoRegistro.SAIDA : TipoRegistro.ENTRADA;
+    }
+
+    /**
+     * Recupera os registros de ponto paginados por cursor, em ordem de data/hora. (Para uso de administrador)
+     */
+    @Override
+    @LeituraEmReplica
+    public CursorPageDTO<RegistrosPonto> getAllRegistrosPonto(String cursor, Integer limite) {
+        int limit = resolverLimite(limite);
+        // Busca um item a mais só para saber se existe próxima página
+        List<RegistrosPonto> registros;
+        if (cursor == null) {
+            registros = registroPontoRepository.findPrimeiraPagina(limit + 1);
+        } else {
+            CursorCodec.PosicaoRegistro posicao = decodificarCursor(cursor);
+            registros = registroPontoRepository.findPaginaApos(posicao.dataHoraRegistro(), posicao.id(), limit + 1);
+        }
+        return CursorPageDTO.of(registros, limit, r -> CursorCodec.encode(r.getDataHoraRegistro(), r.getId()));
     }
 
     /**
@@ -258,13 +352,21 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
 
     /**
      * Cria um novo registro de ponto manualmente (por um administrador).
+     * Usa a mesma trava por usuário e o mesmo bloqueio de linha de {@link #baterPonto}, para que a correção
+     * não se intercale com a alternância ENTRADA/SAIDA nem com o recálculo do livro-razão.
      */
     @Override
-    @Transactional
     public RegistrosPonto createRegistroPonto(RegistroPontoAdminDTO registroPontoDTO) {
-        // 1. Verificar se o usuário existe antes de criar o registro para ele
-        userRepository.findById(registroPontoDTO.getIdUsuario())
+        Integer idUsuario = registroPontoDTO.getIdUsuario();
+        return userPunchLocks.executar(idUsuario,
+                () -> transactionTemplate.execute(status -> criarRegistro(registroPontoDTO)));
+    }
+
+    private RegistrosPonto criarRegistro(RegistroPontoAdminDTO registroPontoDTO) {
+        // 1. Verificar se o usuário existe antes de criar o registro para ele (e bloquear sua linha até o commit)
+        userRepository.findByIdForUpdate(registroPontoDTO.getIdUsuario())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + registroPontoDTO.getIdUsuario() + " não encontrado."));
+        verificarMesNaoArquivado(registroPontoDTO.getIdUsuario(), registroPontoDTO.getDataHoraRegistro());
 
         RegistrosPonto novoRegistro = new RegistrosPonto();
         novoRegistro.setIdUsuario(registroPontoDTO.getIdUsuario());
@@ -272,33 +374,60 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
         novoRegistro.setTipoRegistro(registroPontoDTO.getTipoRegistro()); // Aqui o tipo vem do DTO (admin)
         novoRegistro.setObservacao(registroPontoDTO.getObservacao());
 
-        return registroPontoRepository.save(novoRegistro);
+        RegistrosPonto registroSalvo = registroPontoRepository.save(novoRegistro);
+        saldoMensalLedger.registrarAlteracao(registroSalvo.getIdUsuario(), registroSalvo.getDataHoraRegistro());
+        publicarAlteracao(registroSalvo, AlteracaoRegistro.CRIADO);
+        return registroSalvo;
     }
 
     /**
      * Atualiza um registro de ponto existente (por um administrador).
+     * Trava o usuário atual do registro e, se a correção o transfere, também o novo usuário.
      */
     @Override
-    @Transactional
     public RegistrosPonto updateRegistroPonto(Integer id, RegistroPontoAdminDTO registroPontoDTO) {
-        // Encontrar o registro de ponto existente
-        RegistrosPonto registroExistente = registroPontoRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Registro de ponto com ID " + id + " não encontrado para atualização."));
+        Integer idUsuarioAnterior = donoDoRegistro(id, "atualização");
+        Set<Integer> idsUsuarios = new HashSet<>(List.of(idUsuarioAnterior, registroPontoDTO.getIdUsuario()));
+        return userPunchLocks.executar(idsUsuarios,
+                () -> transactionTemplate.execute(status -> atualizarRegistro(id, idUsuarioAnterior, idsUsuarios, registroPontoDTO)));
+    }
+
+    private RegistrosPonto atualizarRegistro(Integer id, Integer idUsuarioTravado, Set<Integer> idsUsuarios, RegistroPontoAdminDTO registroPontoDTO) {
+        Set<Integer> usuariosExistentes = userRepository.findAllByIdForUpdate(idsUsuarios).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+
+        // Encontrar o registro de ponto existente, já com as travas dos usuários
+        RegistrosPonto registroExistente = buscarRegistroTravado(id, idUsuarioTravado, "atualização");
+        Integer idUsuarioAnterior = registroExistente.getIdUsuario();
+        LocalDateTime dataHoraAnterior = registroExistente.getDataHoraRegistro();
 
         // Verificar se o usuário associado (se alterado no DTO) existe
         if (!registroExistente.getIdUsuario().equals(registroPontoDTO.getIdUsuario())) {
-            userRepository.findById(registroPontoDTO.getIdUsuario())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Novo Usuário com ID " + registroPontoDTO.getIdUsuario() + " não encontrado para associação."));
+            if (!usuariosExistentes.contains(registroPontoDTO.getIdUsuario())) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Novo Usuário com ID " + registroPontoDTO.getIdUsuario() + " não encontrado para associação.");
+            }
             registroExistente.setIdUsuario(registroPontoDTO.getIdUsuario());
         }
 
+        verificarMesNaoArquivado(registroExistente.getIdUsuario(), registroPontoDTO.getDataHoraRegistro());
+
         // Atualizar os campos
         registroExistente.setDataHoraRegistro(registroPontoDTO.getDataHoraRegistro());
         registroExistente.setTipoRegistro(registroPontoDTO.getTipoRegistro()); // Tipo pode ser corrigido pelo admin
         registroExistente.setObservacao(registroPontoDTO.getObservacao());
         // updatedAt será preenchido automaticamente pela anotação @PreUpdate
 
-        return registroPontoRepository.save(registroExistente);
+        RegistrosPonto registroSalvo = registroPontoRepository.saveAndFlush(registroExistente);
+        // O mês de origem e o de destino podem ser diferentes; ambos precisam ser recalculados.
+        saldoMensalLedger.registrarAlteracao(idUsuarioAnterior, dataHoraAnterior);
+        saldoMensalLedger.registrarAlteracao(registroSalvo.getIdUsuario(), registroSalvo.getDataHoraRegistro());
+        if (!idUsuarioAnterior.equals(registroSalvo.getIdUsuario())) {
+            eventPublisher.publishEvent(new RegistroPontoAlteradoEvent(registroSalvo.getId(), idUsuarioAnterior, dataHoraAnterior,
+                    registroSalvo.getTipoRegistro(), AlteracaoRegistro.REMOVIDO));
+        }
+        publicarAlteracao(registroSalvo, AlteracaoRegistro.ALTERADO);
+        return registroSalvo;
     }
 
     /**
@@ -306,28 +435,108 @@ public class RegistrosPontoServiceImpl implements RegistrosPontoService {
      */
     @Override
     public void deleteRegistroPonto(Integer id) {
-        if (!registroPontoRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Registro de ponto com ID " + id + " não encontrado para exclusão.");
+        Integer idUsuario = donoDoRegistro(id, "exclusão");
+        userPunchLocks.executar(idUsuario, () -> transactionTemplate.execute(status -> {
+            userRepository.findByIdForUpdate(idUsuario);
+            RegistrosPonto registro = buscarRegistroTravado(id, idUsuario, "exclusão");
+            registroPontoRepository.delete(registro);
+            registroPontoRepository.flush();
+            saldoMensalLedger.registrarAlteracao(registro.getIdUsuario(), registro.getDataHoraRegistro());
+            publicarAlteracao(registro, AlteracaoRegistro.REMOVIDO);
+            return null;
+        }));
+    }
+
+    private Integer donoDoRegistro(Integer id, String operacao) {
+        return registroPontoRepository.findById(id)
+                .map(RegistrosPonto::getIdUsuario)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Registro de ponto com ID " + id + " não encontrado para " + operacao + "."));
+    }
+
+    /**
+     * Relê o registro dentro da transação. Se outra correção o transferiu de usuário entre a leitura inicial e a
+     * aquisição das travas, as travas obtidas não o protegem mais e a operação é recusada.
+     */
+    private RegistrosPonto buscarRegistroTravado(Integer id, Integer idUsuarioTravado, String operacao) {
+        RegistrosPonto registro = registroPontoRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Registro de ponto com ID " + id + " não encontrado para " + operacao + "."));
+        if (!registro.getIdUsuario().equals(idUsuarioTravado)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Registro de ponto com ID " + id + " foi alterado por outra operação; tente novamente.");
         }
-        registroPontoRepository.deleteById(id);
+        return registro;
+    }
+
+    private void verificarMesNaoArquivado(Integer idUsuario, LocalDateTime dataHoraRegistro) {
+        YearMonth mes = YearMonth.from(dataHoraRegistro);
+        if (mesesArquivados.arquivado(idUsuario, mes)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "O mês " + mes + " do usuário " + idUsuario + " está arquivado; restaure-o antes de alterar marcações.");
+        }
+    }
+
+    private void publicarAlteracao(RegistrosPonto registro, AlteracaoRegistro alteracao) {
+        eventPublisher.publishEvent(new RegistroPontoAlteradoEvent(registro.getId(), registro.getIdUsuario(),
+                registro.getDataHoraRegistro(), registro.getTipoRegistro(), alteracao));
     }
 
     /**
      * Recupera registros de ponto de um usuário em um período específico. (Para uso de administrador/relatório)
      */
     @Override
+    @Timed(value = "oclock.ponto.periodo", extraTags = {"consulta", "usuario"})
+    @LeituraEmReplica
     public List<RegistrosPonto> getRegistrosPontoByUsuarioAndPeriodo(Integer idUsuario, LocalDateTime inicio, LocalDateTime fim) {
-        userRepository.findById(idUsuario)
+        userCache.buscar(idUsuario)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário com ID " + idUsuario + " não encontrado."));
 
         return registroPontoRepository.findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(idUsuario, inicio, fim);
     }
 
     /**
-     * Recupera todos os registros de ponto em um período específico. (Para uso de administrador/relatório)
+     * Recupera os registros de ponto de um período, paginados por cursor. (Para uso de administrador/relatório)
+     */
+    @Override
+    @Timed(value = "oclock.ponto.periodo", extraTags = {"consulta", "paginada"})
+    @LeituraEmReplica
+    public CursorPageDTO<RegistrosPonto> getRegistrosPontoByPeriodo(LocalDateTime inicio, LocalDateTime fim, String cursor, Integer limite) {
+        int limit = resolverLimite(limite);
+        List<RegistrosPonto> registros;
+        if (cursor == null) {
+            registros = registroPontoRepository.findPrimeiraPaginaDoPeriodo(inicio, fim, limit + 1);
+        } else {
+            CursorCodec.PosicaoRegistro posicao = decodificarCursor(cursor);
+            registros = registroPontoRepository.findPaginaDoPeriodoApos(inicio, fim, posicao.dataHoraRegistro(), posicao.id(), limit + 1);
+        }
+        return CursorPageDTO.of(registros, limit, r -> CursorCodec.encode(r.getDataHoraRegistro(), r.getId()));
+    }
+
+    /**
+     * Exporta os registros de ponto de um período direto do cursor do banco para a saída, sem montar a lista em memória.
      */
     @Override
-    public List<RegistrosPonto> getRegistrosPontoByPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return registroPontoRepository.findByDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(inicio, fim);
+    @Timed(value = "oclock.ponto.periodo", extraTags = {"consulta", "exportacao"})
+    @Transactional(readOnly = true)
+    @LeituraEmReplica
+    public void exportarRegistrosPontoByPeriodo(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<RegistrosPonto> registros = registroPontoRepository.streamByDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(inicio, fim)) {
+            exporter.escrever(registros, formato, saida);
+        }
+    }
+
+    private int resolverLimite(Integer limite) {
+        try {
+            return CursorPageDTO.resolveLimit(limite, limitePadrao, limiteMaximo);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static CursorCodec.PosicaoRegistro decodificarCursor(String cursor) {
+        try {
+            return CursorCodec.decodePosicaoRegistro(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
\ No newline at end of file
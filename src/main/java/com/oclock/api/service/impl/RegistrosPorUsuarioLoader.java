@@ -0,0 +1,44 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.MarcacaoResumo;
+import com.oclock.api.repository.RegistroPontoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Carrega as marcações de todos os usuários em um período com uma única leitura por intervalo de data,
+ * já separadas por usuário e em ordem de data/hora. Meses arquivados do período são lidos do arquivo.
+ */
+@Component
+public class RegistrosPorUsuarioLoader {
+
+    private final RegistroPontoRepository registroPontoRepository;
+    private final MesesArquivados mesesArquivados;
+
+    @Autowired
+    public RegistrosPorUsuarioLoader(RegistroPontoRepository registroPontoRepository, MesesArquivados mesesArquivados) {
+        this.registroPontoRepository = registroPontoRepository;
+        this.mesesArquivados = mesesArquivados;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Integer, List<Marcacao>> carregar(LocalDateTime inicio, LocalDateTime fim) {
+        Map<Integer, List<Marcacao>> registrosPorUsuario = new HashMap<>();
+        // Projeção com só as colunas do cálculo; nada entra no contexto de persistência
+        try (Stream<MarcacaoResumo> registros = registroPontoRepository.streamMarcacoesDoPeriodo(inicio, fim)) {
+            registros.forEach(registro ->
+                    registrosPorUsuario.computeIfAbsent(registro.getIdUsuario(), id -> new ArrayList<>()).add(registro));
+        }
+        mesesArquivados.acrescentarArquivados(registrosPorUsuario, inicio, fim);
+        return registrosPorUsuario;
+    }
+}
@@ -0,0 +1,226 @@
+package com.oclock.api.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oclock.api.dto.SaldoAtualDTO;
+import com.oclock.api.model.MarcacaoResumo;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoRepository;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.SaldoAtualService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Saldo atual servido da memória: para cada usuário consultado fica um {@link EstadoSaldoAtual}, montado uma vez
+ * a partir do livro-razão e do mês corrente e mantido pelas batidas publicadas em {@link RegistroPontoAlteradoEvent}.
+ * Batidas novas de hoje são acrescentadas ao estado; qualquer outra alteração descarta o estado do usuário, que é
+ * remontado na próxima consulta. A leitura com o estado em memória não executa SQL (o usuário vem do UserCache).
+ * <p>
+ * A montagem e a aplicação das batidas acontecem sob a trava do usuário (UserPunchLocks), a mesma que envolve
+ * a transação de baterPonto até o commit; assim o estado nunca perde nem conta duas vezes uma batida concorrente.
+ * <p>
+ * Os estados ficam num cache limitado em tamanho e com expiração por tempo (métricas cache.* com a tag
+ * cache=saldo-atual); a expiração também limita o atraso para batidas gravadas por outra instância aparecerem aqui.
+ * Usuários excluídos ou desativados saem pelo {@link #remover(Integer)}.
+ */
+@Service
+public class SaldoAtualServiceImpl implements SaldoAtualService, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(SaldoAtualServiceImpl.class);
+
+    private final UserCache userCache;
+    private final UserRepository userRepository;
+    private final RegistroPontoRepository registroPontoRepository;
+    private final SaldoMensalLedger saldoMensalLedger;
+    private final MesesArquivados mesesArquivados;
+    private final PrimitiveBankedHoursEngine primitiveEngine;
+    private final BankedHoursCalculator calculator;
+    private final UserPunchLocks userPunchLocks;
+    private final Cache<Integer, EstadoSaldoAtual> estados;
+
+    @Value("${oclock.saldo-atual.pre-carregar:false}")
+    private boolean preCarregar;
+
+    @Autowired
+    public SaldoAtualServiceImpl(UserCache userCache, UserRepository userRepository, RegistroPontoRepository registroPontoRepository,
+                                 SaldoMensalLedger saldoMensalLedger, MesesArquivados mesesArquivados,
+                                 PrimitiveBankedHoursEngine primitiveEngine,
+                                 BankedHoursCalculator calculator, UserPunchLocks userPunchLocks,
+                                 @Value("${oclock.cache.saldo-atual.tamanho-maximo:10000}") long tamanhoMaximo,
+                                 @Value("${oclock.cache.saldo-atual.expiracao:1h}") Duration expiracao) {
+        this.userCache = userCache;
+        this.userRepository = userRepository;
+        this.registroPontoRepository = registroPontoRepository;
+        this.saldoMensalLedger = saldoMensalLedger;
+        this.mesesArquivados = mesesArquivados;
+        this.primitiveEngine = primitiveEngine;
+        this.calculator = calculator;
+        this.userPunchLocks = userPunchLocks;
+        this.estados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Saldo acumulado até ontem mais o trabalhado hoje, incluindo o intervalo em aberto quando a última batida
+     * de hoje é uma ENTRADA.
+     */
+    @Override
+    @Timed("oclock.ponto.saldo-atual")
+    public SaldoAtualDTO getSaldoAtual(Integer userId) {
+        User user = userCache.buscar(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado com ID: " + userId));
+
+        LocalDateTime agora = LocalDateTime.now();
+        EstadoSaldoAtual.Leitura leitura = carregar(userId).ler(PrimitiveBankedHoursEngine.paraNanos(agora));
+
+        LocalDate hoje = agora.toLocalDate();
+        Duration esperadoAteOntem = leitura.inicio() == null || !leitura.inicio().isBefore(hoje)
+                ? Duration.ZERO
+                : calculator.calcularHorasEsperadas(user, leitura.inicio(), hoje.minusDays(1));
+        Duration saldoAteOntem = Duration.ofNanos(leitura.trabalhadoAteOntemNanos()).minus(esperadoAteOntem);
+        Duration trabalhadoHoje = Duration.ofNanos(leitura.trabalhadoHojeNanos());
+
+        return new SaldoAtualDTO(user.getId(), user.getNomeCompleto(), agora, saldoAteOntem, trabalhadoHoje,
+                leitura.expedienteAberto(), saldoAteOntem.plus(trabalhadoHoje));
+    }
+
+    private EstadoSaldoAtual carregar(Integer userId) {
+        EstadoSaldoAtual estado = estados.getIfPresent(userId);
+        if (estado != null) {
+            return estado;
+        }
+        // Montado fora do cache.get para não segurar o cache durante as consultas; a trava do usuário basta
+        return userPunchLocks.executar(userId, () -> {
+            EstadoSaldoAtual montado = estados.getIfPresent(userId);
+            if (montado == null) {
+                montado = montar(userId);
+                estados.put(userId, montado);
+            }
+            return montado;
+        });
+    }
+
+    /**
+     * Horas de todos os meses fechados (livro-razão) mais os dias do mês corrente até ontem, e as batidas de hoje.
+     */
+    private EstadoSaldoAtual montar(Integer userId) {
+        LocalDate hoje = LocalDate.now();
+        Optional<YearMonth> primeiroMesOpt = mesesArquivados.primeiroMes(userId);
+        if (primeiroMesOpt.isEmpty()) {
+            return new EstadoSaldoAtual(null, hoje.toEpochDay(), 0, new long[0], null);
+        }
+
+        YearMonth primeiroMes = primeiroMesOpt.get();
+        YearMonth mesAtual = YearMonth.from(hoje);
+        long trabalhadoAteOntem = 0;
+        for (long[] nanosPorDia : saldoMensalLedger.carregarMesesFechados(userId, primeiroMes, mesAtual).values()) {
+            trabalhadoAteOntem += PrimitiveBankedHoursEngine.somar(nanosPorDia);
+        }
+
+        List<MarcacaoResumo> registrosDoMes = registroPontoRepository.findMarcacoesDoUsuarioNoPeriodo(
+                userId, mesAtual.atDay(1).atStartOfDay(), hoje.plusDays(1).atStartOfDay().minusNanos(1));
+        long[] nanosPorDia = primitiveEngine.calcularNanosPorDia(registrosDoMes, mesAtual);
+        for (int dia = 0; dia < hoje.getDayOfMonth() - 1; dia++) {
+            trabalhadoAteOntem += nanosPorDia[dia];
+        }
+
+        List<MarcacaoResumo> registrosDeHoje = registrosDoMes.stream()
+                .filter(registro -> registro.getDataHoraRegistro().toLocalDate().equals(hoje))
+                .toList();
+        TipoRegistro ultimoTipoHoje = registrosDeHoje.isEmpty() ? null : registrosDeHoje.get(registrosDeHoje.size() - 1).getTipoRegistro();
+        return new EstadoSaldoAtual(primeiroMes.atDay(1), hoje.toEpochDay(), trabalhadoAteOntem,
+                PrimitiveBankedHoursEngine.paraInstantes(registrosDeHoje), ultimoTipoHoje);
+    }
+
+    /**
+     * Mantém o estado depois do commit da marcação. Batidas de baterPonto e do lote chegam aqui ainda sob a trava
+     * do usuário, na ordem em que foram gravadas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRegistro(RegistroPontoAlteradoEvent evento) {
+        EstadoSaldoAtual estado = estados.getIfPresent(evento.idUsuario());
+        if (estado == null) {
+            return;
+        }
+        if (evento.batidaNova() && estado.acrescentar(PrimitiveBankedHoursEngine.paraNanos(evento.dataHoraRegistro()),
+                evento.tipoRegistro(), LocalDate.now().toEpochDay())) {
+            return;
+        }
+        descartar(evento.idUsuario());
+    }
+
+    /**
+     * Descarta o estado de um usuário excluído ou desativado. Dentro de uma transação, descarta de novo após o
+     * commit, para não manter um estado remontado por uma consulta concorrente antes da alteração ser confirmada.
+     */
+    @Override
+    public void remover(Integer idUsuario) {
+        descartar(idUsuario);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(idUsuario);
+                }
+            });
+        }
+    }
+
+    private void descartar(Integer idUsuario) {
+        userPunchLocks.executar(idUsuario, () -> {
+            estados.invalidate(idUsuario);
+            return null;
+        });
+    }
+
+    /**
+     * Com oclock.saldo-atual.pre-carregar, monta em segundo plano o estado dos usuários ativos logo após a subida,
+     * para que nem a primeira consulta de cada um precise ir ao banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preCarregarUsuariosAtivos() {
+        if (!preCarregar) {
+            return;
+        }
+        Thread.ofVirtual().name("saldo-atual-pre-carga").start(() -> {
+            for (User user : userRepository.findByActiveTrue()) {
+                try {
+                    carregar(user.getId());
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao pré-carregar o saldo atual do usuário {}: {}", user.getId(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, estados, "saldo-atual");
+    }
+}
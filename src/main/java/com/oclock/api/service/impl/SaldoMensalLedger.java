@@ -0,0 +1,176 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.MarcacaoResumo;
+import com.oclock.api.model.SaldoMensal;
+import com.oclock.api.repository.RegistroPontoRepository;
+import com.oclock.api.repository.SaldoMensalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * Mantém a tabela saldos_mensais com as horas trabalhadas dos meses já fechados.
+ * O mês corrente nunca é gravado: ele ainda recebe marcações e é sempre calculado na hora.
+ * Meses encontrados e meses que precisaram ser calculados são contados em cache.gets com a tag cache=saldos-mensais.
+ */
+@Service
+public class SaldoMensalLedger {
+
+    private final SaldoMensalRepository saldoMensalRepository;
+    private final RegistroPontoRepository registroPontoRepository;
+    private final MesesArquivados mesesArquivados;
+    private final PrimitiveBankedHoursEngine primitiveEngine;
+    private final StreamingBankedHoursEngine streamingEngine;
+    private final Counter mesesEncontrados;
+    private final Counter mesesCalculados;
+
+    @Autowired
+    public SaldoMensalLedger(SaldoMensalRepository saldoMensalRepository,
+                             RegistroPontoRepository registroPontoRepository,
+                             MesesArquivados mesesArquivados,
+                             PrimitiveBankedHoursEngine primitiveEngine,
+                             StreamingBankedHoursEngine streamingEngine,
+                             MeterRegistry meterRegistry) {
+        this.saldoMensalRepository = saldoMensalRepository;
+        this.registroPontoRepository = registroPontoRepository;
+        this.mesesArquivados = mesesArquivados;
+        this.primitiveEngine = primitiveEngine;
+        this.streamingEngine = streamingEngine;
+        this.mesesEncontrados = contadorDeLeituras(meterRegistry, "hit");
+        this.mesesCalculados = contadorDeLeituras(meterRegistry, "miss");
+    }
+
+    /**
+     * Deve ser chamado sempre que uma marcação do usuário é criada, alterada ou removida.
+     * Recalcula apenas o mês afetado, e somente se ele já estiver fechado.
+     */
+    @Transactional
+    public void registrarAlteracao(Integer idUsuario, LocalDateTime dataHoraRegistro) {
+        YearMonth mes = YearMonth.from(dataHoraRegistro);
+        if (mes.isBefore(YearMonth.now())) {
+            salvar(idUsuario, mes, recalcularMes(idUsuario, mes), true);
+        }
+    }
+
+    /**
+     * Retorna as horas trabalhadas por dia (nanossegundos, índice dia - 1) de cada mês fechado
+     * de primeiroMes até o mês anterior a mesAtual.
+     * Meses que ainda não estão no livro-razão são calculados (a partir do arquivo, se o mês foi arquivado, ou em uma
+     * passada pelas marcações de cada trecho de meses consecutivos que faltam) e gravados.
+     * A leitura não tem a trava do usuário, então só grava meses ainda ausentes: uma correção de marcação que gravou o
+     * mês nesse meio-tempo não é sobrescrita pelo cálculo da leitura.
+     */
+    @Transactional
+    public Map<YearMonth, long[]> carregarMesesFechados(Integer idUsuario, YearMonth primeiroMes, YearMonth mesAtual) {
+        Map<YearMonth, SaldoMensal> saldosGravados = new HashMap<>();
+        for (SaldoMensal saldo : saldoMensalRepository.findByIdUsuarioOrderByAnoAscMesAsc(idUsuario)) {
+            saldosGravados.put(YearMonth.of(saldo.getAno(), saldo.getMes()), saldo);
+        }
+
+        Map<YearMonth, long[]> meses = new LinkedHashMap<>();
+        for (YearMonth mes = primeiroMes; mes.isBefore(mesAtual); mes = mes.plusMonths(1)) {
+            SaldoMensal saldo = saldosGravados.get(mes);
+            meses.put(mes, saldo != null ? decodificarHorasPorDia(mes, saldo.getTrabalhadoPorDia()) : null);
+            (saldo != null ? mesesEncontrados : mesesCalculados).increment();
+        }
+
+        if (meses.containsValue(null)) {
+            // Meses arquivados não estão mais no histórico do banco: são calculados a partir do arquivo
+            Set<YearMonth> arquivados = mesesArquivados.mesesArquivados(idUsuario);
+            for (Map.Entry<YearMonth, long[]> mes : meses.entrySet()) {
+                if (mes.getValue() == null && arquivados.contains(mes.getKey())) {
+                    long[] nanosPorDia = recalcularMes(idUsuario, mes.getKey());
+                    salvar(idUsuario, mes.getKey(), nanosPorDia, false);
+                    mes.setValue(nanosPorDia);
+                }
+            }
+        }
+
+        // Os meses que faltam são calculados por trechos consecutivos, cada um lido só no próprio intervalo: um mês
+        // antigo invalidado não faz o histórico inteiro ser relido
+        YearMonth inicioTrecho = null;
+        for (YearMonth mes = primeiroMes; !mes.isAfter(mesAtual); mes = mes.plusMonths(1)) {
+            boolean falta = mes.isBefore(mesAtual) && meses.get(mes) == null;
+            if (falta && inicioTrecho == null) {
+                inicioTrecho = mes;
+            } else if (!falta && inicioTrecho != null) {
+                calcularTrecho(idUsuario, inicioTrecho, mes.minusMonths(1), meses);
+                inicioTrecho = null;
+            }
+        }
+        return meses;
+    }
+
+    private void calcularTrecho(Integer idUsuario, YearMonth inicio, YearMonth fim, Map<YearMonth, long[]> meses) {
+        // Projeção: as marcações não entram no contexto de persistência, que não cresce com o trecho
+        try (Stream<MarcacaoResumo> registros = registroPontoRepository.streamMarcacoesDoUsuarioNoPeriodo(
+                idUsuario, inicio.atDay(1).atStartOfDay(), fim.atEndOfMonth().atTime(LocalTime.MAX))) {
+            streamingEngine.percorrerMeses(registros, fim, (mes, nanosPorDia) -> {
+                salvar(idUsuario, mes, nanosPorDia, false);
+                meses.put(mes, nanosPorDia);
+            });
+        }
+        // percorrerMeses começa no mês da primeira marcação lida: os meses antes dela no trecho não têm marcações
+        for (YearMonth mes = inicio; !mes.isAfter(fim) && meses.get(mes) == null; mes = mes.plusMonths(1)) {
+            long[] semMarcacoes = new long[mes.lengthOfMonth()];
+            salvar(idUsuario, mes, semMarcacoes, false);
+            meses.put(mes, semMarcacoes);
+        }
+    }
+
+    private static Counter contadorDeLeituras(MeterRegistry registry, String resultado) {
+        // Mesmo nome e tags das métricas de cache do Micrometer, para ler a taxa de acerto como a do UserCache
+        return Counter.builder("cache.gets")
+                .description("Meses fechados lidos do livro-razão (hit) ou calculados a partir das marcações (miss)")
+                .tags("cache", "saldos-mensais", "result", resultado)
+                .register(registry);
+    }
+
+    private long[] recalcularMes(Integer idUsuario, YearMonth mes) {
+        List<Marcacao> registros = mesesArquivados.marcacoesDoMes(idUsuario, mes);
+        return primitiveEngine.calcularNanosPorDia(registros, mes);
+    }
+
+    /**
+     * @param sobrescrever true quando o mês foi recalculado por uma alteração (com a trava do usuário); false no
+     *                     preenchimento feito pela leitura, que não substitui um mês já gravado
+     */
+    private void salvar(Integer idUsuario, YearMonth mes, long[] nanosPorDia, boolean sobrescrever) {
+        long total = 0;
+        StringJoiner trabalhadoPorDia = new StringJoiner(",");
+        for (long nanos : nanosPorDia) {
+            total += nanos;
+            trabalhadoPorDia.add(Long.toString(nanos));
+        }
+        if (sobrescrever) {
+            saldoMensalRepository.gravar(idUsuario, mes.getYear(), mes.getMonthValue(), total, trabalhadoPorDia.toString(),
+                    LocalDateTime.now());
+        } else {
+            saldoMensalRepository.gravarSeAusente(idUsuario, mes.getYear(), mes.getMonthValue(), total, trabalhadoPorDia.toString(),
+                    LocalDateTime.now());
+        }
+    }
+
+    private static long[] decodificarHorasPorDia(YearMonth mes, String trabalhadoPorDia) {
+        String[] valores = trabalhadoPorDia.split(",");
+        long[] nanosPorDia = new long[mes.lengthOfMonth()];
+        for (int dia = 0; dia < nanosPorDia.length && dia < valores.length; dia++) {
+            nanosPorDia[dia] = Long.parseLong(valores[dia]);
+        }
+        return nanosPorDia;
+    }
+}
@@ -0,0 +1,88 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.Marcacao;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Calcula o banco de horas de todo o histórico de um usuário em uma única passada sobre
+ * as marcações ordenadas por data/hora. Só o mês em andamento fica em memória, então o
+ * custo não depende do tamanho do histórico além dos próprios meses emitidos.
+ */
+@Component
+public class StreamingBankedHoursEngine {
+
+    private static final long SEM_ENTRADA = Long.MIN_VALUE;
+
+    /**
+     * Entrega ao consumidor as horas trabalhadas em cada dia (nanossegundos, índice dia - 1) de cada mês,
+     * do mês da primeira marcação até ultimoMes (inclusive), incluindo meses sem marcações.
+     * Marcações posteriores a ultimoMes são ignoradas. Cada mês recebe um array próprio, do tamanho do mês.
+     */
+    public void percorrerMeses(Stream<? extends Marcacao> registrosOrdenados, YearMonth ultimoMes,
+                               BiConsumer<YearMonth, long[]> consumidor) {
+        Iterator<? extends Marcacao> registros = registrosOrdenados.iterator();
+        if (!registros.hasNext()) {
+            return;
+        }
+
+        long primeiroInstante = PrimitiveBankedHoursEngine.paraNanos(registros.next().getDataHoraRegistro());
+        YearMonth mes = YearMonth.from(LocalDate.ofEpochDay(PrimitiveBankedHoursEngine.diaEpoch(primeiroInstante)));
+        if (mes.isAfter(ultimoMes)) {
+            return;
+        }
+        long fimUltimoMes = ultimoMes.plusMonths(1).atDay(1).toEpochDay();
+
+        long[] nanosPorDia = new long[31];
+        long inicioMes = mes.atDay(1).toEpochDay();
+        long fimMes = inicioMes + mes.lengthOfMonth();
+        long diaAtual = Long.MIN_VALUE;
+        long entrada = SEM_ENTRADA;
+
+        long instante = primeiroInstante;
+        while (true) {
+            long dia = PrimitiveBankedHoursEngine.diaEpoch(instante);
+            if (dia >= fimUltimoMes) {
+                break;
+            }
+
+            // Fecha o mês em andamento e os meses sem marcações até o mês deste registro
+            while (dia >= fimMes) {
+                consumidor.accept(mes, Arrays.copyOf(nanosPorDia, mes.lengthOfMonth()));
+                Arrays.fill(nanosPorDia, 0L);
+                mes = mes.plusMonths(1);
+                inicioMes = fimMes;
+                fimMes = inicioMes + mes.lengthOfMonth();
+            }
+
+            if (dia != diaAtual) {
+                // Uma ENTRADA sem SAIDA no mesmo dia não conta horas.
+                diaAtual = dia;
+                entrada = SEM_ENTRADA;
+            }
+            if (entrada == SEM_ENTRADA) {
+                entrada = instante;
+            } else {
+                nanosPorDia[(int) (dia - inicioMes)] += instante - entrada;
+                entrada = SEM_ENTRADA;
+            }
+
+            if (!registros.hasNext()) {
+                break;
+            }
+            instante = PrimitiveBankedHoursEngine.paraNanos(registros.next().getDataHoraRegistro());
+        }
+
+        while (!mes.isAfter(ultimoMes)) {
+            consumidor.accept(mes, Arrays.copyOf(nanosPorDia, mes.lengthOfMonth()));
+            Arrays.fill(nanosPorDia, 0L);
+            mes = mes.plusMonths(1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.oclock.api.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oclock.api.config.RoteamentoDataSource;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache em memória dos usuários lidos por ID, limitado em tamanho e com expiração por tempo.
+ * Serve apenas para leituras (existência do usuário, jornada, nome); quem altera o usuário
+ * deve ler do repositório e chamar {@link #atualizar(User)} ou {@link #remover(Integer)} depois de gravar.
+ * O cache guarda uma cópia desvinculada da entidade e cada leitura recebe a sua própria cópia: as threads não
+ * compartilham um objeto mutável, nem o da sessão JPA de quem gravou.
+ * Acertos, faltas e remoções ficam em /actuator/metrics/cache.* com a tag cache=usuarios.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<Integer, User> cache;
+
+    @Autowired
+    public UserCache(UserRepository userRepository,
+                     @Value("${oclock.cache.usuarios.tamanho-maximo:10000}") long tamanhoMaximo,
+                     @Value("${oclock.cache.usuarios.expiracao:5m}") Duration expiracao) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna o usuário do cache ou, na falta, do banco. Usuários inexistentes não são guardados.
+     * A carga é sempre feita no primário, para que uma linha atrasada da réplica não fique no cache.
+     */
+    public Optional<User> buscar(Integer idUsuario) {
+        User user = cache.get(idUsuario,
+                id -> RoteamentoDataSource.noPrimario(() -> userRepository.findById(id).map(UserCache::copiar).orElse(null)));
+        return Optional.ofNullable(user).map(UserCache::copiar);
+    }
+
+    public void atualizar(User user) {
+        cache.put(user.getId(), copiar(user));
+    }
+
+    /**
+     * Remove o usuário do cache. Dentro de uma transação, remove de novo após o commit, para descartar
+     * uma leitura concorrente que tenha recarregado a linha antiga antes da exclusão ser confirmada.
+     */
+    public void remover(Integer idUsuario) {
+        cache.invalidate(idUsuario);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(idUsuario);
+                }
+            });
+        }
+    }
+
+    private static User copiar(User user) {
+        User copia = new User();
+        BeanUtils.copyProperties(user, copia);
+        return copia;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "usuarios");
+    }
+}
@@ -0,0 +1,64 @@
+package com.oclock.api.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializa as batidas de ponto de um mesmo usuário dentro da instância, para que a leitura do último
+ * registro e a gravação do próximo não se intercalem. Usuários diferentes caem, em geral, em travas
+ * diferentes e seguem em paralelo. Entre instâncias a proteção é o bloqueio da linha do usuário no banco.
+ */
+@Component
+public class UserPunchLocks {
+
+    private final ReentrantLock[] locks;
+
+    public UserPunchLocks(@Value("${oclock.ponto.lock-stripes:1024}") int stripes) {
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Executa a ação com a trava do usuário. A transação deve ser aberta e confirmada dentro da ação,
+     * para que a trava só seja liberada depois do commit.
+     */
+    public <T> T executar(Integer idUsuario, Supplier<T> acao) {
+        ReentrantLock lock = locks[indice(idUsuario)];
+        lock.lock();
+        try {
+            return acao.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executa a ação com as travas de todos os usuários informados, adquiridas em ordem crescente
+     * de índice para evitar deadlock entre lotes concorrentes.
+     */
+    public <T> T executar(Collection<Integer> idsUsuarios, Supplier<T> acao) {
+        int[] indices = idsUsuarios.stream().mapToInt(this::indice).distinct().sorted().toArray();
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                locks[indice].lock();
+                adquiridas++;
+            }
+            return acao.get();
+        } finally {
+            for (int i = adquiridas - 1; i >= 0; i--) {
+                locks[indices[i]].unlock();
+            }
+        }
+    }
+
+    private int indice(Integer idUsuario) {
+        return Math.floorMod(idUsuario.hashCode(), locks.length);
+    }
+}
@@ -1,13 +1,21 @@
 package com.oclock.api.service.impl;
 
+import com.oclock.api.config.LeituraEmReplica;
+import com.oclock.api.dto.CursorPageDTO;
 import com.oclock.api.dto.UserCreateUpdateDTO;
 import com.oclock.api.model.User;
+import com.oclock.api.repository.SaldoMensalRepository;
 import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.SaldoAtualService;
 import com.oclock.api.service.UserService;
+import com.oclock.api.util.CursorCodec;
 import com.oclock.api.util.Sha256Hasher;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,10 +25,23 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final SaldoMensalRepository saldoMensalRepository;
+    private final UserCache userCache;
+    private final SaldoAtualService saldoAtualService;
+
+    @Value("${oclock.paginacao.limite-padrao:100}")
+    private int limitePadrao;
+
+    @Value("${oclock.paginacao.limite-maximo:1000}")
+    private int limiteMaximo;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, SaldoMensalRepository saldoMensalRepository, UserCache userCache,
+                           SaldoAtualService saldoAtualService) {
         this.userRepository = userRepository;
+        this.saldoMensalRepository = saldoMensalRepository;
+        this.userCache = userCache;
+        this.saldoAtualService = saldoAtualService;
     }
 
     @Override
@@ -43,15 +64,24 @@ public class UserServiceImpl implements UserService {
         user.setPermissao(userDTO.getPermissao().toLowerCase());
         user.setActive(userDTO.getActive());
         user.setValorHora(userDTO.getValorHora());
+        user.setUf(userDTO.getUf());
+        user.setEscalaSemanal(CalendarioTrabalho.formatarEscala(userDTO.getEscalaSemanal()));
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User userSalvo = userRepository.save(user);
+        userCache.atualizar(userSalvo);
+        return userSalvo;
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @LeituraEmReplica
+    public CursorPageDTO<User> getAllUsers(String cursor, Integer limite) {
+        int limit = CursorPageDTO.resolveLimit(limite, limitePadrao, limiteMaximo);
+        Integer ultimoId = cursor == null ? 0 : CursorCodec.decodeId(cursor);
+        // Busca um item a mais só para saber se existe próxima página
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(ultimoId, Limit.of(limit + 1));
+        return CursorPageDTO.of(users, limit, user -> CursorCodec.encode(user.getId()));
     }
 
     @Override
@@ -87,19 +117,30 @@ public class UserServiceImpl implements UserService {
         existingUser.setPermissao(userDTO.getPermissao().toLowerCase());
         existingUser.setActive(userDTO.getActive());
         existingUser.setValorHora(userDTO.getValorHora());
+        existingUser.setUf(userDTO.getUf());
+        existingUser.setEscalaSemanal(CalendarioTrabalho.formatarEscala(userDTO.getEscalaSemanal()));
 
         existingUser.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(existingUser);
+        User userSalvo = userRepository.save(existingUser);
+        userCache.atualizar(userSalvo);
+        if (!userSalvo.isActive()) {
+            saldoAtualService.remover(userSalvo.getId());
+        }
+        return userSalvo;
     }
 
     @Override
+    @Transactional
     public void deleteUser(Integer userId) {
 
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("Usuário com ID " + userId + " não encontrado para exclusão.");
         }
+        saldoMensalRepository.deleteByIdUsuario(userId);
         userRepository.deleteById(userId);
+        userCache.remover(userId);
+        saldoAtualService.remover(userId);
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.config.LeituraEmReplica;
+import com.oclock.api.dto.VersaoRelatorioDTO;
+import com.oclock.api.repository.VersaoRelatorioRepository;
+import com.oclock.api.service.VersaoRelatorioService;
+import com.oclock.api.util.Sha256Hasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.YearMonth;
+
+/**
+ * A versão é lida antes do relatório e, como ele, pode ir para a réplica: assim os dois enxergam o mesmo ponto da
+ * replicação (ou o relatório um ponto mais novo, o que só custa um 200 a mais na próxima requisição), e um corpo
+ * antigo nunca é guardado pelo cliente com o ETag de uma versão mais nova.
+ * <p>
+ * Os ETags são fracos: o mesmo relatório pode sair comprimido ou não, e o que se garante é o conteúdo, não os bytes.
+ */
+@Service
+public class VersaoRelatorioServiceImpl implements VersaoRelatorioService {
+
+    private final VersaoRelatorioRepository versaoRelatorioRepository;
+    private final UserCache userCache;
+
+    @Autowired
+    public VersaoRelatorioServiceImpl(VersaoRelatorioRepository versaoRelatorioRepository, UserCache userCache) {
+        this.versaoRelatorioRepository = versaoRelatorioRepository;
+        this.userCache = userCache;
+    }
+
+    @Override
+    @LeituraEmReplica
+    public VersaoRelatorioDTO getVersaoRelatorioMensal(Integer userId, int ano, int mes) {
+        verificarUsuario(userId);
+        YearMonth competencia = YearMonth.of(ano, mes);
+        VersaoRelatorioRepository.Versao versao = versaoRelatorioRepository.versaoDoMes(userId, competencia);
+        boolean mesFechado = competencia.isBefore(YearMonth.now());
+        return new VersaoRelatorioDTO(etag("mensal", userId, competencia, versao),
+                mesFechado ? versao.ultimaAlteracao() : null);
+    }
+
+    @Override
+    @LeituraEmReplica
+    public VersaoRelatorioDTO getVersaoRelatorioAcumulado(Integer userId) {
+        verificarUsuario(userId);
+        // O mês corrente entra na versão: na virada do mês o relatório ganha uma linha sem que nada mude no banco
+        YearMonth mesAtual = YearMonth.now();
+        return new VersaoRelatorioDTO(etag("acumulado", userId, mesAtual, versaoRelatorioRepository.versaoAcumulada(userId, mesAtual)), null);
+    }
+
+    private void verificarUsuario(Integer userId) {
+        userCache.buscar(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado com ID: " + userId));
+    }
+
+    private static String etag(String relatorio, Integer userId, YearMonth mes, VersaoRelatorioRepository.Versao versao) {
+        String hash = Sha256Hasher.hash(relatorio + "|" + userId + "|" + mes + "|" + versao.componentes());
+        return "W/\"" + hash.substring(0, 32) + "\"";
+    }
+}
@@ -0,0 +1,59 @@
+package com.oclock.api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Codifica a posição de uma página (paginação por cursor) em um token opaco para o cliente.
+ */
+public class CursorCodec {
+
+    private static final String SEPARADOR = "|";
+
+    public record PosicaoRegistro(LocalDateTime dataHoraRegistro, Integer id) {
+    }
+
+    public static String encode(LocalDateTime dataHoraRegistro, Integer id) {
+        return toBase64(dataHoraRegistro + SEPARADOR + id);
+    }
+
+    public static String encode(Integer id) {
+        return toBase64(String.valueOf(id));
+    }
+
+    public static PosicaoRegistro decodePosicaoRegistro(String cursor) {
+        String texto = fromBase64(cursor);
+        int separador = texto.indexOf(SEPARADOR);
+        if (separador < 0) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+        try {
+            return new PosicaoRegistro(LocalDateTime.parse(texto.substring(0, separador)),
+                    Integer.valueOf(texto.substring(separador + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+
+    public static Integer decodeId(String cursor) {
+        try {
+            return Integer.valueOf(fromBase64(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+
+    private static String toBase64(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromBase64(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+}
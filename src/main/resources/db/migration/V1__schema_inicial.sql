@@ -0,0 +1,30 @@
+-- Esquema original, antes criado pelo Hibernate (ddl-auto=update).
+-- Bancos já existentes entram no Flyway com baseline nesta versão.
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id_usuario           INT          NOT NULL AUTO_INCREMENT,
+    email                VARCHAR(255) NOT NULL,
+    senha_hash           VARCHAR(255) NOT NULL,
+    nome_completo        VARCHAR(255) NOT NULL,
+    cpf                  VARCHAR(255) NOT NULL,
+    permissao            VARCHAR(255) NOT NULL,
+    ativo                BIT          NOT NULL,
+    data_criacao         DATETIME(6)  NOT NULL,
+    data_atualizacao     DATETIME(6),
+    valor_hora           DECIMAL(10, 2),
+    jornada_diaria_horas DECIMAL(4, 2) NOT NULL,
+    PRIMARY KEY (id_usuario),
+    CONSTRAINT uk_usuarios_email UNIQUE (email),
+    CONSTRAINT uk_usuarios_cpf UNIQUE (cpf)
+);
+
+CREATE TABLE IF NOT EXISTS registros_ponto (
+    id_registro        INT          NOT NULL AUTO_INCREMENT,
+    id_usuario         INT          NOT NULL,
+    data_hora_registro DATETIME(6)  NOT NULL,
+    tipo_registro      ENUM ('ENTRADA', 'SAIDA') NOT NULL,
+    observacao         VARCHAR(255),
+    created_at         DATETIME(6)  NOT NULL,
+    updated_at         DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id_registro)
+);
@@ -0,0 +1,13 @@
+-- Livro-razão de horas trabalhadas por mês fechado (SaldoMensal).
+
+CREATE TABLE IF NOT EXISTS saldos_mensais (
+    id_saldo               INT          NOT NULL AUTO_INCREMENT,
+    id_usuario             INT          NOT NULL,
+    ano                    INT          NOT NULL,
+    mes                    INT          NOT NULL,
+    total_trabalhado_nanos BIGINT       NOT NULL,
+    trabalhado_por_dia     VARCHAR(512) NOT NULL,
+    updated_at             DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id_saldo),
+    CONSTRAINT uk_saldos_mensais_usuario_ano_mes UNIQUE (id_usuario, ano, mes)
+);
@@ -0,0 +1,6 @@
+-- Consultas por usuário filtram por id_usuario e ordenam por data_hora_registro
+-- (intervalos, primeira/última marcação e histórico em stream).
+CREATE INDEX idx_registros_ponto_usuario_data ON registros_ponto (id_usuario, data_hora_registro);
+
+-- Consulta de período de toda a empresa.
+CREATE INDEX idx_registros_ponto_data ON registros_ponto (data_hora_registro);
@@ -0,0 +1,9 @@
+-- Ponto de controle do journal local de batidas (PontoJournal): última sequência já gravada em registros_ponto.
+-- Atualizado na mesma transação que insere as marcações drenadas, para que a reexecução após uma queda não duplique batidas.
+
+CREATE TABLE IF NOT EXISTS journal_ponto_checkpoint (
+    id_journal       VARCHAR(36) NOT NULL,
+    ultima_sequencia BIGINT      NOT NULL,
+    updated_at       DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_journal)
+);
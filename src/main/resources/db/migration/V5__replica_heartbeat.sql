@@ -0,0 +1,10 @@
+-- Batimento gravado no primário pelo MonitorAtrasoReplica e lido na réplica: a diferença entre o valor que a réplica
+-- já recebeu e o relógio atual é o atraso da replicação (independe de SHOW REPLICA STATUS e funciona com qualquer banco).
+
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id                   INT    NOT NULL,
+    registrado_em_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replica_heartbeat (id, registrado_em_millis) VALUES (1, 0);
@@ -0,0 +1,15 @@
+-- Meses cujas marcações saíram de registros_ponto para um segmento do arquivo (ArquivoMensalStore).
+-- Os relatórios consultam esta tabela para saber quando ler o mês do arquivo em vez do banco.
+
+CREATE TABLE IF NOT EXISTS meses_arquivados (
+    id_usuario           INT         NOT NULL,
+    ano                  INT         NOT NULL,
+    mes                  INT         NOT NULL,
+    quantidade_registros INT         NOT NULL,
+    tamanho_bytes        BIGINT      NOT NULL,
+    crc32c               BIGINT      NOT NULL,
+    arquivado_em         DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_usuario, ano, mes)
+);
+
+CREATE INDEX idx_meses_arquivados_ano_mes ON meses_arquivados (ano, mes);
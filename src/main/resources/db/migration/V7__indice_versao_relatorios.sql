@@ -0,0 +1,5 @@
+-- A versão dos relatórios de banco de horas (ETag/Last-Modified) conta as marcações do usuário no mês e pega o
+-- maior updated_at delas. Com updated_at no fim do índice composto a consulta é respondida só pelo índice;
+-- as consultas que já usavam (id_usuario, data_hora_registro) continuam servidas pelo mesmo prefixo.
+ALTER TABLE registros_ponto DROP INDEX idx_registros_ponto_usuario_data;
+CREATE INDEX idx_registros_ponto_usuario_data ON registros_ponto (id_usuario, data_hora_registro, updated_at);
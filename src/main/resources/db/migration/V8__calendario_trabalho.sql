@@ -0,0 +1,30 @@
+-- Calendário de trabalho: feriados estaduais e da empresa (os nacionais são calculados no código, em FeriadosNacionais)
+-- e a escala semanal de cada usuário. As horas esperadas dos relatórios saem do CalendarioTrabalho.
+
+-- Um feriado recorrente vale todo ano no mesmo dia e mês, a partir do ano de data; os demais só na data.
+CREATE TABLE IF NOT EXISTS feriados (
+    id_feriado  INT          NOT NULL AUTO_INCREMENT,
+    data        DATE         NOT NULL,
+    descricao   VARCHAR(255) NOT NULL,
+    abrangencia ENUM ('NACIONAL', 'ESTADUAL', 'EMPRESA') NOT NULL,
+    uf          VARCHAR(2),
+    recorrente  BIT          NOT NULL,
+    PRIMARY KEY (id_feriado)
+);
+
+CREATE INDEX idx_feriados_data ON feriados (data);
+
+-- Versão do calendário, incrementada a cada alteração de feriado; entra na versão (ETag/Last-Modified) dos relatórios.
+CREATE TABLE IF NOT EXISTS calendario_versao (
+    id            INT         NOT NULL,
+    versao        BIGINT      NOT NULL,
+    atualizado_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO calendario_versao (id, versao, atualizado_em) VALUES (1, 0, CURRENT_TIMESTAMP);
+
+-- UF para os feriados estaduais e minutos esperados de segunda a domingo ("480,480,480,480,480,0,0").
+-- Sem escala, vale a jornada diária de segunda a sexta.
+ALTER TABLE usuarios ADD COLUMN uf VARCHAR(2);
+ALTER TABLE usuarios ADD COLUMN escala_semanal VARCHAR(64);
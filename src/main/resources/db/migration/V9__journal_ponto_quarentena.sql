@@ -0,0 +1,13 @@
+-- Batidas do journal local (PontoJournal) que falharam sempre ao serem gravadas, mesmo isoladas do lote.
+-- Saem da fila de drenagem para não travar as seguintes; ficam aqui para conferência e lançamento manual.
+-- Gravadas na mesma transação que avança o ponto de controle (journal_ponto_checkpoint).
+
+CREATE TABLE IF NOT EXISTS journal_ponto_quarentena (
+    id_journal         VARCHAR(36)  NOT NULL,
+    sequencia          BIGINT       NOT NULL,
+    id_usuario         INT          NOT NULL,
+    data_hora_registro DATETIME(6)  NOT NULL,
+    erro               VARCHAR(500) NOT NULL,
+    created_at         DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id_journal, sequencia)
+);
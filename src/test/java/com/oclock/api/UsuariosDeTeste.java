@@ -0,0 +1,50 @@
+package com.oclock.api;
+
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Usuários dos testes. {@link #novo} monta um usuário só em memória, já com ID, para os testes sem banco;
+ * {@link #paraGravar} e {@link #criar} montam e gravam um usuário ativo com email e CPF derivados do prefixo,
+ * que deve ser único porque os testes dividem o mesmo banco H2.
+ */
+public final class UsuariosDeTeste {
+
+    public static final BigDecimal JORNADA_PADRAO = new BigDecimal("8.00");
+
+    private UsuariosDeTeste() {
+    }
+
+    public static User novo(Integer id, BigDecimal jornada) {
+        User user = new User();
+        user.setId(id);
+        user.setNomeCompleto("Usuário " + id);
+        user.setPermissao("usuario");
+        user.setActive(true);
+        user.setJornadaDiariaHoras(jornada);
+        return user;
+    }
+
+    /**
+     * Usuário ainda não gravado, para o teste ajustar algum campo antes de salvar.
+     */
+    public static User paraGravar(String prefixo) {
+        User user = new User();
+        user.setEmail(prefixo + "@oclock.test");
+        user.setPasswordHash("hash");
+        user.setNomeCompleto("Usuário " + prefixo);
+        user.setCpf(prefixo + "-1");
+        user.setPermissao("usuario");
+        user.setActive(true);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setJornadaDiariaHoras(JORNADA_PADRAO);
+        return user;
+    }
+
+    public static User criar(UserRepository userRepository, String prefixo) {
+        return userRepository.save(paraGravar(prefixo));
+    }
+}
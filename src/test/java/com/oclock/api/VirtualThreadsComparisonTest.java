@@ -0,0 +1,155 @@
+package com.oclock.api;
+
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sobe a aplicação duas vezes, com threads de plataforma e com threads virtuais (mais o limite pelo pool de
+ * conexões), e dispara a mesma rajada de POST /api/ponto/bater por HTTP. Registra no log vazão e p99 de cada modo e
+ * verifica que nenhuma batida se perde. Leva cerca de um minuto e fica fora do mvn test padrão; executar com:
+ * mvn test -Dtest=VirtualThreadsComparisonTest -Doclock.comparacao=true
+ */
+@EnabledIfSystemProperty(named = "oclock.comparacao", matches = "true")
+class VirtualThreadsComparisonTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsComparisonTest.class);
+
+    private static final int USUARIOS = 50;
+    private static final int CLIENTES_SIMULTANEOS = 1000;
+    private static final int BATIDAS_POR_CLIENTE = 3;
+
+    @Test
+    void comparaThreadsDePlataformaEVirtuais() throws Exception {
+        Resultado plataforma = executar(false);
+        Resultado virtuais = executar(true);
+
+        for (Resultado resultado : List.of(plataforma, virtuais)) {
+            log.info("Threads {}: {} batidas, vazão {} /s, p50 {} ms, p99 {} ms", resultado.modo(), resultado.latenciasNanos().length,
+                    String.format("%.0f", resultado.vazao()), String.format("%.1f", resultado.percentilMillis(0.50)),
+                    String.format("%.1f", resultado.percentilMillis(0.99)));
+        }
+
+        for (Resultado resultado : List.of(plataforma, virtuais)) {
+            assertThat(resultado.falhas()).as(resultado.modo()).isZero();
+            assertThat(resultado.latenciasNanos()).as(resultado.modo()).hasSize(CLIENTES_SIMULTANEOS * BATIDAS_POR_CLIENTE);
+        }
+    }
+
+    private Resultado executar(boolean threadsVirtuais) throws Exception {
+        String modo = threadsVirtuais ? "virtuais" : "plataforma";
+        // Argumentos de linha de comando, para prevalecer sobre o application.properties de teste
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(OClockBancoHorasApiApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                "--oclock.backpressure.enabled=" + threadsVirtuais,
+                "--spring.datasource.url=jdbc:h2:mem:comparacao-" + modo
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1")) {
+            int porta = Integer.parseInt(contexto.getEnvironment().getRequiredProperty("local.server.port"));
+            List<String> tokens = criarUsuarios(contexto);
+            return dispararBatidas(modo, porta, tokens);
+        }
+    }
+
+    private static List<String> criarUsuarios(ConfigurableApplicationContext contexto) {
+        UserRepository userRepository = contexto.getBean(UserRepository.class);
+        JwtService jwtService = contexto.getBean(JwtService.class);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < USUARIOS; i++) {
+            User user = new User();
+            user.setEmail("comparacao" + i + "@oclock.test");
+            user.setPasswordHash("hash");
+            user.setNomeCompleto("Usuário Comparação " + i);
+            user.setCpf("comparacao-" + i);
+            user.setPermissao("usuario");
+            user.setActive(true);
+            user.setCreatedAt(LocalDateTime.now());
+            user.setJornadaDiariaHoras(new BigDecimal("8.00"));
+            tokens.add(jwtService.gerarToken(userRepository.save(user)));
+        }
+        return tokens;
+    }
+
+    private static Resultado dispararBatidas(String modo, int porta, List<String> tokens) throws Exception {
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        AtomicInteger falhas = new AtomicInteger();
+        long[] latencias = new long[CLIENTES_SIMULTANEOS * BATIDAS_POR_CLIENTE];
+        AtomicInteger proximaLatencia = new AtomicInteger();
+
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(clientes).connectTimeout(Duration.ofSeconds(30)).build()) {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> execucoes = new ArrayList<>();
+            for (int cliente = 0; cliente < CLIENTES_SIMULTANEOS; cliente++) {
+                int idUsuario = cliente % USUARIOS + 1;
+                String token = tokens.get(idUsuario - 1);
+                int segundoBase = cliente * BATIDAS_POR_CLIENTE;
+                execucoes.add(clientes.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < BATIDAS_POR_CLIENTE; i++) {
+                        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/ponto/bater/" + idUsuario))
+                                .header("Authorization", "Bearer " + token)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"dataHoraRegistro\":\"" + base.plusSeconds(segundoBase + i) + "\"}"))
+                                .build();
+                        long inicio = System.nanoTime();
+                        HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                        latencias[proximaLatencia.getAndIncrement()] = System.nanoTime() - inicio;
+                        if (resposta.statusCode() != 201) {
+                            falhas.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> execucao : execucoes) {
+                execucao.get();
+            }
+            long duracao = System.nanoTime() - inicio;
+            return new Resultado(modo, Arrays.copyOf(latencias, proximaLatencia.get()), duracao, falhas.get());
+        }
+    }
+
+    private record Resultado(String modo, long[] latenciasNanos, long duracaoNanos, int falhas) {
+
+        double vazao() {
+            return latenciasNanos.length / (duracaoNanos / 1e9);
+        }
+
+        double percentilMillis(double percentil) {
+            long[] ordenadas = latenciasNanos.clone();
+            Arrays.sort(ordenadas);
+            int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return ordenadas[Math.max(indice, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.oclock.api.config;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.oclock.api.dto.BankedHoursAccumulatedReportDTO;
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.CursorPageDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização das respostas grandes em JSON e em CBOR, com e sem gzip (o nível padrão, como o Tomcat usa):
+ * "pagina" é uma página de 1000 marcações (oclock.paginacao.limite-maximo) e "acumulado" o relatório acumulado
+ * de 24 meses. O tamanho de cada resposta sai no início do trial; o tempo é o de gerar os bytes finais.
+ * Executar com: mvn -Pjmh test-compile exec:exec -Djmh.args=FormatosRespostaBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatosRespostaBenchmark {
+
+    @Param({"JSON", "CBOR"})
+    public String formato;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectWriter writer;
+    private CursorPageDTO<RegistrosPonto> pagina;
+    private BankedHoursAccumulatedReportDTO acumulado;
+
+    @Setup
+    public void setup() throws IOException {
+        // Como o Spring Boot configura o Jackson2ObjectMapperBuilder (e FormatosRespostaConfig, o do CBOR)
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+        if ("CBOR".equals(formato)) {
+            builder.factory(new CBORFactory());
+        }
+        writer = builder.build().writer();
+
+        Random random = new Random(42L);
+        List<RegistrosPonto> registros = new ArrayList<>();
+        LocalDateTime dataHora = LocalDateTime.of(2024, 3, 1, 8, 0);
+        for (int i = 0; i < 1000; i++) {
+            dataHora = dataHora.plusMinutes(30 + random.nextInt(300));
+            LocalDateTime criadoEm = dataHora.plusNanos(random.nextInt(1_000_000) * 1000L);
+            registros.add(new RegistrosPonto(100_000 + i, 1 + random.nextInt(500), dataHora,
+                    i % 2 == 0 ? TipoRegistro.ENTRADA : TipoRegistro.SAIDA, "Ponto batido automaticamente pela API.",
+                    criadoEm, criadoEm));
+        }
+        pagina = new CursorPageDTO<>(registros, 1000, "MjAyNC0wMy0wMVQwODowMDoxMDAwMDA");
+
+        List<BankedHoursReportDTO> meses = new ArrayList<>();
+        for (YearMonth mes = YearMonth.of(2023, 1); mes.isBefore(YearMonth.of(2025, 1)); mes = mes.plusMonths(1)) {
+            Map<LocalDate, Duration> horasPorDia = new LinkedHashMap<>();
+            for (int dia = 1; dia <= mes.lengthOfMonth(); dia++) {
+                horasPorDia.put(mes.atDay(dia), Duration.ofSeconds(random.nextInt(10 * 3600)));
+            }
+            BankedHoursReportDTO relatorio = new BankedHoursReportDTO(1, "Usuário 1", mes.getYear(), mes.getMonthValue(), 8.0,
+                    null, Duration.ofHours(170), Duration.ofHours(168), Duration.ofHours(2), "POSITIVO");
+            relatorio.setDailyHoursWorked(horasPorDia);
+            meses.add(relatorio);
+        }
+        acumulado = new BankedHoursAccumulatedReportDTO(1, "Usuário 1", Duration.ofHours(48), meses);
+
+        System.out.printf("%n%s%s: pagina=%d bytes, acumulado=%d bytes%n", formato, gzip ? "+gzip" : "",
+                pagina().length, acumulado().length);
+    }
+
+    @Benchmark
+    public byte[] pagina() throws IOException {
+        return serializar(pagina);
+    }
+
+    @Benchmark
+    public byte[] acumulado() throws IOException {
+        return serializar(acumulado);
+    }
+
+    private byte[] serializar(Object valor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream saida = gzip ? new GZIPOutputStream(bytes, 8 * 1024) : bytes) {
+            writer.writeValue(saida, valor);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,133 @@
+package com.oclock.api.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.RegistroPontoAdminDTO;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtService;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.YearMonth;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Negociação de CBOR e compressão gzip no Tomcat de verdade (a compressão não passa pelo MockMvc).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FormatosRespostaIntegrationTest {
+
+    private static final HttpClient CLIENTE = HttpClient.newHttpClient();
+    private static final CBORMapper CBOR = new CBORMapper();
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private User user;
+    private String token;
+
+    @BeforeAll
+    void criarMarcacoes() {
+        user = UsuariosDeTeste.criar(userRepository, "formatos");
+        token = "Bearer " + jwtService.gerarToken(user);
+
+        YearMonth mes = YearMonth.of(2024, 3);
+        for (int dia = 1; dia <= 20; dia++) {
+            registrosPontoService.createRegistroPonto(
+                    new RegistroPontoAdminDTO(user.getId(), mes.atDay(dia).atTime(8, 0), TipoRegistro.ENTRADA, null));
+            registrosPontoService.createRegistroPonto(
+                    new RegistroPontoAdminDTO(user.getId(), mes.atDay(dia).atTime(17, 0), TipoRegistro.SAIDA, null));
+        }
+    }
+
+    @Test
+    void relatorioEmCborTemOMesmoConteudoDoJson() throws Exception {
+        String url = "/api/ponto/" + user.getId() + "/banco-horas-mensal?ano=2024&mes=3";
+
+        HttpResponse<byte[]> json = get(url, "application/json", null);
+        HttpResponse<byte[]> cbor = get(url, "application/cbor", null);
+        HttpResponse<byte[]> semAccept = get(url, null, null);
+
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(semAccept.headers().firstValue("Content-Type")).hasValue("application/json");
+        assertThat(CBOR.readTree(cbor.body())).isEqualTo(objectMapper.readTree(json.body()));
+        assertThat(cbor.body().length).isLessThan(json.body().length);
+    }
+
+    @Test
+    void respostasGrandesSaemComprimidas() throws Exception {
+        String url = "/api/ponto/usuario/" + user.getId() + "/periodo?inicio=2024-03-01T00:00:00&fim=2024-03-31T23:59:59";
+
+        HttpResponse<byte[]> comprimida = get(url, "application/json", "gzip");
+        HttpResponse<byte[]> semCompressao = get(url, "application/json", null);
+
+        assertThat(comprimida.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(semCompressao.headers().firstValue("Content-Encoding")).isEmpty();
+        byte[] descomprimida = new GZIPInputStream(new ByteArrayInputStream(comprimida.body())).readAllBytes();
+        assertThat(descomprimida).isEqualTo(semCompressao.body());
+        assertThat(comprimida.body().length).isLessThan(semCompressao.body().length / 4);
+    }
+
+    @Test
+    void exportacaoEmSequenciaCbor() throws Exception {
+        HttpResponse<byte[]> resposta = get("/api/ponto/periodo/exportar?inicio=2024-03-01T00:00:00&fim=2024-03-31T23:59:59"
+                + "&formato=CBOR", null, null);
+
+        assertThat(resposta.headers().firstValue("Content-Type")).hasValue("application/cbor-seq");
+        int registros = 0;
+        try (MappingIterator<JsonNode> itens = CBOR.readerFor(JsonNode.class).readValues(resposta.body())) {
+            while (itens.hasNext()) {
+                JsonNode item = itens.next();
+                if (item.get("idUsuario").asInt() == user.getId()) {
+                    assertThat(item.get("dataHoraRegistro").asText()).startsWith("2024-03-");
+                    registros++;
+                }
+            }
+        }
+        assertThat(registros).isEqualTo(40);
+    }
+
+    private HttpResponse<byte[]> get(String caminho, String accept, String acceptEncoding) throws Exception {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .header("Authorization", token);
+        if (accept != null) {
+            requisicao.header("Accept", accept);
+        }
+        if (acceptEncoding != null) {
+            requisicao.header("Accept-Encoding", acceptEncoding);
+        }
+        HttpResponse<byte[]> resposta = CLIENTE.send(requisicao.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(resposta.statusCode()).isEqualTo(200);
+        return resposta;
+    }
+}
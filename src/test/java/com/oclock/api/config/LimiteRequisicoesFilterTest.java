@@ -0,0 +1,180 @@
+package com.oclock.api.config;
+
+import com.oclock.api.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteRequisicoesFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void limparAutenticacao() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void baldePorEnderecoSemAutenticacao() throws Exception {
+        // Uma ficha a cada 10 s: nenhuma é reposta durante o teste
+        LimiteRequisicoesFilter filter = novoFiltro(new LimiteRequisicoesFilter.Taxa(0.1, 3),
+                new LimiteRequisicoesFilter.Taxa(0.1, 5), 1, Duration.ZERO);
+
+        // Trocar um cabeçalho a cada chamada não gera balde novo
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest login = requisicao("/api/users/login", "10.0.0.1");
+            login.addHeader("X-Dispositivo", "relogio-" + i);
+            assertThat(executar(filter, login).getStatus()).isEqualTo(i < 3 ? 200 : 429);
+        }
+        MockHttpServletResponse recusada = executar(filter, "/api/users/login", "10.0.0.1");
+        assertThat(recusada.getStatus()).isEqualTo(429);
+        assertThat(recusada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        assertThat(executar(filter, "/api/users/login", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(rejeitadas("cliente")).isEqualTo(2);
+    }
+
+    @Test
+    void baldePorTokenEPorUsuario() throws Exception {
+        LimiteRequisicoesFilter filter = novoFiltro(new LimiteRequisicoesFilter.Taxa(0.1, 3),
+                new LimiteRequisicoesFilter.Taxa(0.1, 5), 1, Duration.ZERO);
+
+        // Um token (login) esgota o balde de cliente dele, mesmo vindo de endereços diferentes
+        autenticar(8, "sessao-a");
+        for (int i = 0; i < 3; i++) {
+            assertThat(executar(filter, "/api/ponto/bater/8", "10.0.1." + i).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse porCliente = executar(filter, "/api/ponto/bater/8", "10.0.1.9");
+        assertThat(porCliente.getStatus()).isEqualTo(429);
+        assertThat(porCliente.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+
+        // O mesmo usuário em tokens diferentes divide um balde só; o endereço compartilhado não pesa
+        for (int i = 0; i < 5; i++) {
+            autenticar(7, "sessao-" + i);
+            assertThat(executar(filter, "/api/ponto/bater/7", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        autenticar(7, "sessao-9");
+        MockHttpServletResponse porUsuario = executar(filter, "/api/ponto/bater/7", "10.0.0.1");
+        assertThat(porUsuario.getStatus()).isEqualTo(429);
+        assertThat(porUsuario.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+
+        assertThat(rejeitadas("cliente")).isEqualTo(1);
+        assertThat(rejeitadas("usuario")).isEqualTo(1);
+    }
+
+    @Test
+    void exportacaoSoDevolveAVagaQuandoOStreamingTermina() throws Exception {
+        LimiteRequisicoesFilter filter = novoFiltro(new LimiteRequisicoesFilter.Taxa(1000, 1000),
+                new LimiteRequisicoesFilter.Taxa(1000, 1000), 1, Duration.ZERO);
+        MockHttpServletRequest exportacao = requisicao("/api/ponto/periodo/exportar", "10.0.0.1");
+        exportacao.setAsyncSupported(true);
+        assertThat(executar(filter, exportacao, (request, response) -> request.startAsync()).getStatus()).isEqualTo(200);
+
+        // O filtro já retornou, mas a resposta ainda está sendo escrita
+        MockHttpServletResponse recusada = executar(filter, "/api/ponto/periodo/exportar", "10.0.0.1");
+        assertThat(recusada.getStatus()).isEqualTo(429);
+        assertThat(recusada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(registry.get("oclock.limites.relatorios.em.uso").gauge().value()).isEqualTo(1);
+
+        ((MockAsyncContext) exportacao.getAsyncContext()).complete();
+        assertThat(registry.get("oclock.limites.relatorios.em.uso").gauge().value()).isZero();
+        assertThat(executar(filter, "/api/ponto/periodo/exportar", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(rejeitadas("relatorios")).isEqualTo(1);
+    }
+
+    @Test
+    void relatoriosAlemDoTetoEsperamERecebem429() throws Exception {
+        LimiteRequisicoesFilter filter = novoFiltro(new LimiteRequisicoesFilter.Taxa(1000, 1000),
+                new LimiteRequisicoesFilter.Taxa(1000, 1000), 1, Duration.ofMillis(50));
+        CountDownLatch calculando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        FilterChain relatorioLento = (request, response) -> {
+            calculando.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<MockHttpServletResponse> primeiro = CompletableFuture.supplyAsync(() -> {
+            try {
+                return executar(filter, "/api/ponto/3/banco-horas-acumulado", "10.0.0.1", relatorioLento);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(calculando.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse recusado = executar(filter, "/api/ponto/4/banco-horas-mensal", "10.0.0.1");
+        assertThat(recusado.getStatus()).isEqualTo(429);
+        assertThat(recusado.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(registry.get("oclock.limites.relatorios.em.uso").gauge().value()).isEqualTo(1);
+        // Fora dos relatórios o teto não vale
+        assertThat(executar(filter, "/api/ponto/4/saldo-atual", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        liberar.countDown();
+        assertThat(primeiro.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(executar(filter, "/api/ponto/4/banco-horas-mensal", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(rejeitadas("relatorios")).isEqualTo(1);
+        assertThat(registry.get("oclock.limites.relatorios.enfileiradas").functionCounter().count()).isEqualTo(1);
+    }
+
+    private LimiteRequisicoesFilter novoFiltro(LimiteRequisicoesFilter.Taxa porCliente, LimiteRequisicoesFilter.Taxa porUsuario,
+                                               int relatorios, Duration esperaRelatorio) {
+        LimiteRequisicoesFilter filter = new LimiteRequisicoesFilter(porCliente, porUsuario, relatorios, esperaRelatorio,
+                1000, Duration.ofMinutes(10));
+        filter.bindTo(registry);
+        return filter;
+    }
+
+    private double rejeitadas(String motivo) {
+        return registry.get("oclock.limites.rejeitadas").tag("motivo", motivo).functionCounter().count();
+    }
+
+    private static void autenticar(int idUsuario, String idToken) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new UsuarioAutenticado(idUsuario, "usuario", idToken), null, List.of()));
+    }
+
+    private static MockHttpServletRequest requisicao(String uri, String endereco) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(endereco);
+        return request;
+    }
+
+    private static MockHttpServletResponse executar(LimiteRequisicoesFilter filter, String uri, String endereco) throws Exception {
+        return executar(filter, requisicao(uri, endereco));
+    }
+
+    private static MockHttpServletResponse executar(LimiteRequisicoesFilter filter, String uri, String endereco,
+                                                    FilterChain chain) throws Exception {
+        return executar(filter, requisicao(uri, endereco), chain);
+    }
+
+    private static MockHttpServletResponse executar(LimiteRequisicoesFilter filter, MockHttpServletRequest request) throws Exception {
+        return executar(filter, request, (req, resp) -> {
+        });
+    }
+
+    private static MockHttpServletResponse executar(LimiteRequisicoesFilter filter, MockHttpServletRequest request,
+                                                    FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,72 @@
+package com.oclock.api.config;
+
+import com.jayway.jsonpath.JsonPath;
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.util.Sha256Hasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * O login devolve o token e só a identificação do usuário, e o token é a única forma de autenticação.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoginIntegrationTest {
+
+    private static final String SENHA = "senha-do-login";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Test
+    void loginDevolveOTokenEAIdentificacaoSemOCadastro() throws Exception {
+        User novo = UsuariosDeTeste.paraGravar("login");
+        novo.setPasswordHash(Sha256Hasher.hash(SENHA));
+        User user = userRepository.save(novo);
+
+        String resposta = mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"%s\", \"password\": \"%s\"}".formatted(user.getEmail(), SENHA)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", notNullValue()))
+                .andExpect(jsonPath("$.tipo").value("Bearer"))
+                .andExpect(jsonPath("$.idUsuario").value(user.getId()))
+                .andExpect(jsonPath("$.nomeCompleto").value(user.getNomeCompleto()))
+                .andExpect(jsonPath("$.permissao").value("usuario"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(resposta).doesNotContain("passwordHash", user.getPasswordHash(), user.getCpf(), user.getEmail());
+
+        String token = JsonPath.read(resposta, "$.token");
+        mockMvc.perform(get("/api/users/" + user.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void semUsuarioEmMemoriaDoSpringBoot() throws Exception {
+        assertThat(contexto.getBeanNamesForType(UserDetailsService.class)).isEmpty();
+        // HTTP Basic com o usuário padrão "user" não autentica
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, "Basic dXNlcjpzZW5oYQ=="))
+                .andExpect(status().isUnauthorized());
+    }
+}
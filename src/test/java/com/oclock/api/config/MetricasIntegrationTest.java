@@ -0,0 +1,72 @@
+package com.oclock.api.config;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Uma batida e um relatório mensal pela API devem aparecer nos timers dos serviços e na contagem de SQL por endpoint.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricasIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void batidaERelatorioGeramTimersEContagemDeSql() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "metricas");
+        String token = "Bearer " + jwtService.gerarToken(user);
+
+        mockMvc.perform(post("/api/ponto/bater/" + user.getId())
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dataHoraRegistro\":\"2024-03-04T08:00:00\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/ponto/" + user.getId() + "/banco-horas-mensal")
+                        .header("Authorization", token)
+                        .param("ano", "2024")
+                        .param("mes", "3"))
+                .andExpect(status().isOk());
+
+        assertThat(registry.get("oclock.ponto.bater").timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.get("oclock.relatorio.mensal").timer().count()).isGreaterThanOrEqualTo(1);
+
+        DistributionSummary comandosBatida = registry.get("oclock.sql.comandos")
+                .tags("uri", "/api/ponto/bater/{idUsuario}", "method", "POST").summary();
+        assertThat(comandosBatida.count()).isEqualTo(1);
+        assertThat(comandosBatida.totalAmount()).isPositive();
+
+        DistributionSummary linhasRelatorio = registry.get("oclock.sql.linhas")
+                .tags("uri", "/api/ponto/{userId}/banco-horas-mensal", "method", "GET").summary();
+        // A marcação do mês volta do banco (o usuário pode vir do cache)
+        assertThat(linhasRelatorio.totalAmount()).isGreaterThanOrEqualTo(1);
+
+        // O DataSource envolvido pelo contador continua expondo o tempo de espera por conexão do Hikari
+        assertThat(registry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+    }
+}
@@ -0,0 +1,88 @@
+package com.oclock.api.config;
+
+import com.oclock.api.dto.CursorPageDTO;
+import com.oclock.api.dto.UserCreateUpdateDTO;
+import com.oclock.api.model.User;
+import com.oclock.api.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dois H2 fazem o papel do primário e da réplica. Não há replicação entre eles: cada um tem um usuário que só
+ * existe nele, o que mostra de onde veio cada leitura, e o batimento da réplica é escrito pelo teste para
+ * simular uma réplica em dia ou atrasada.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaIntegrationTest.URL_PRIMARIO,
+        "oclock.replica.enabled=true",
+        "oclock.replica.datasource.jdbc-url=" + ReplicaIntegrationTest.URL_REPLICA,
+        "oclock.replica.datasource.username=sa",
+        // As medições são disparadas pelo teste
+        "oclock.replica.intervalo-verificacao=1h",
+        "oclock.replica.atraso-maximo=5s"
+})
+class ReplicaIntegrationTest {
+
+    static final String URL_PRIMARIO = "jdbc:h2:mem:oclock-primario;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+    static final String URL_REPLICA = "jdbc:h2:mem:oclock-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MonitorAtrasoReplica monitor;
+
+    @BeforeAll
+    static void criarReplica() {
+        // Numa réplica de verdade o esquema e os dados chegam pela replicação
+        Flyway.configure().dataSource(URL_REPLICA, "sa", "").load().migrate();
+        replica.update("INSERT INTO usuarios (email, senha_hash, nome_completo, cpf, permissao, ativo, data_criacao, jornada_diaria_horas) "
+                + "VALUES ('replica@oclock.test', 'hash', 'Só na réplica', 'replica-1', 'usuario', TRUE, ?, 8.00)", LocalDateTime.now());
+    }
+
+    @Test
+    void leiturasMarcadasVaoParaAReplicaEmDiaEVoltamAoPrimarioQuandoElaAtrasa() {
+        User gravado = userService.createUser(novoUsuario());
+
+        replica.update("UPDATE replica_heartbeat SET registrado_em_millis = ?", System.currentTimeMillis());
+        monitor.verificar();
+        assertThat(monitor.isDisponivel()).isTrue();
+        assertThat(nomes(userService.getAllUsers(null, null))).containsExactly("Só na réplica");
+        // Leitura sem @LeituraEmReplica: continua no primário e enxerga o que acabou de ser gravado
+        assertThat(userService.getUserById(gravado.getId())).isPresent();
+
+        replica.update("UPDATE replica_heartbeat SET registrado_em_millis = ?", System.currentTimeMillis() - 60_000);
+        monitor.verificar();
+        assertThat(monitor.isDisponivel()).isFalse();
+        assertThat(monitor.getAtraso().toSeconds()).isGreaterThanOrEqualTo(60);
+        assertThat(nomes(userService.getAllUsers(null, null))).containsExactly("Só no primário");
+    }
+
+    private static Iterable<String> nomes(CursorPageDTO<User> pagina) {
+        return pagina.getItems().stream().map(User::getNomeCompleto).toList();
+    }
+
+    private static UserCreateUpdateDTO novoUsuario() {
+        UserCreateUpdateDTO dto = new UserCreateUpdateDTO();
+        dto.setEmail("primario@oclock.test");
+        dto.setPassword("senha-forte-123");
+        dto.setNomeCompleto("Só no primário");
+        dto.setCpf("primario-1");
+        dto.setPermissao("usuario");
+        dto.setActive(true);
+        dto.setJornadaDiariaHoras(new BigDecimal("8.00"));
+        return dto;
+    }
+}
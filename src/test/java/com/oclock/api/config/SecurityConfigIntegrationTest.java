@@ -0,0 +1,112 @@
+package com.oclock.api.config;
+
+import com.oclock.api.security.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Regras do SecurityConfig e validação do token no JwtAuthenticationFilter. Banco próprio, para que a tabela de
+ * usuários comece vazia e o cadastro inicial possa ser exercitado.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:oclock-seguranca;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+        "oclock.jwt.segredo=" + SecurityConfigIntegrationTest.SEGREDO,
+        "oclock.jwt.permitir-chave-aleatoria=false"
+})
+@AutoConfigureMockMvc
+class SecurityConfigIntegrationTest {
+
+    // 32 bytes com valor 7, em Base64
+    static final String SEGREDO = "BwcHBwcHBwcHBwcHBwcHBwcHBwcHBwcHBwcHBwcHBwc=";
+    private static final SecretKey CHAVE = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SEGREDO));
+    private static final String USUARIO_INEXISTENTE = "/api/users/999999";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void tokenValidoAutentica() throws Exception {
+        // Autenticado, a requisição chega ao controller e o usuário inexistente vira 404
+        mockMvc.perform(get(USUARIO_INEXISTENTE).header(HttpHeaders.AUTHORIZATION, bearer(token(CHAVE, "oclock", Instant.now().plusSeconds(60)))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void semTokenResponde401() throws Exception {
+        mockMvc.perform(get(USUARIO_INEXISTENTE)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void assinaturaInvalidaResponde401() throws Exception {
+        SecretKey outraChave = Keys.hmacShaKeyFor(new byte[32]);
+        mockMvc.perform(get(USUARIO_INEXISTENTE).header(HttpHeaders.AUTHORIZATION, bearer(token(outraChave, "oclock", Instant.now().plusSeconds(60)))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenExpiradoResponde401() throws Exception {
+        mockMvc.perform(get(USUARIO_INEXISTENTE).header(HttpHeaders.AUTHORIZATION, bearer(token(CHAVE, "oclock", Instant.now().minusSeconds(60)))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void emissorErradoResponde401() throws Exception {
+        mockMvc.perform(get(USUARIO_INEXISTENTE).header(HttpHeaders.AUTHORIZATION, bearer(token(CHAVE, "outro-sistema", Instant.now().plusSeconds(60)))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void primeiroCadastroDispensaTokenSoEnquantoNaoHaUsuarios() throws Exception {
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(novoUsuario("admin@oclock.test", "52998224725")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(novoUsuario("intruso@oclock.test", "11144477735")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void semSegredoASubidaFalha() {
+        assertThatThrownBy(() -> new JwtService("", Duration.ofHours(8), false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String token(SecretKey chave, String emissor, Instant expiracao) {
+        return Jwts.builder()
+                .issuer(emissor)
+                .subject("1")
+                .claim("permissao", "admin")
+                .issuedAt(Date.from(expiracao.minus(Duration.ofHours(1))))
+                .expiration(Date.from(expiracao))
+                .signWith(chave)
+                .compact();
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+
+    private static String novoUsuario(String email, String cpf) {
+        return """
+                {"nomeCompleto": "Administrador", "email": "%s", "password": "segredo", "cpf": "%s",
+                 "jornadaDiariaHoras": 8.0, "permissao": "admin", "active": true}
+                """.formatted(email, cpf);
+    }
+}
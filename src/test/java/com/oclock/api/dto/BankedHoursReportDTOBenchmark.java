@@ -0,0 +1,52 @@
+package com.oclock.api.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das horas por dia de um mês (31 dias) para o mapa com chaves ISO do BankedHoursReportDTO.
+ * Executar com: mvn -Pjmh test-compile exec:exec -Djmh.args=BankedHoursReportDTOBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BankedHoursReportDTOBenchmark {
+
+    private Map<LocalDate, Duration> horasPorDia;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        YearMonth mes = YearMonth.of(2024, 1);
+        horasPorDia = new LinkedHashMap<>();
+        for (int dia = 1; dia <= mes.lengthOfMonth(); dia++) {
+            horasPorDia.put(mes.atDay(dia), Duration.ofMinutes(random.nextInt(600)));
+        }
+    }
+
+    @Benchmark
+    public BankedHoursReportDTO setDailyHoursWorked() {
+        BankedHoursReportDTO report = new BankedHoursReportDTO();
+        report.setDailyHoursWorked(horasPorDia);
+        return report;
+    }
+}
@@ -0,0 +1,61 @@
+package com.oclock.api.repository;
+
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArquivoMensalStoreTest {
+
+    private static final YearMonth MES = YearMonth.of(2023, 2);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void segmentoDevolveAsMesmasMarcacoesEFicaPequeno() {
+        ArquivoMensalStore store = new ArquivoMensalStore(diretorio);
+        List<RegistrosPonto> registros = new ArrayList<>();
+        LocalDateTime dataHora = MES.atDay(1).atTime(8, 0, 0, 123_456_000);
+        for (int i = 0; i < 50; i++) {
+            dataHora = dataHora.plusHours(i % 2 == 0 ? 4 : 20).plusSeconds(i);
+            // Ids não contíguos, observação padrão, sem observação e correções com updated_at posterior
+            String observacao = i % 7 == 0 ? null : i % 11 == 0 ? "Corrigido pelo RH" : "Ponto batido automaticamente pela API.";
+            LocalDateTime criadoEm = i % 13 == 0 ? dataHora.minusDays(1) : dataHora.plusNanos(5_000);
+            registros.add(new RegistrosPonto(1000 + i * 3, 42, dataHora, i % 2 == 0 ? TipoRegistro.ENTRADA : TipoRegistro.SAIDA,
+                    observacao, criadoEm, criadoEm.plusMinutes(i % 5)));
+        }
+
+        ArquivoMensalStore.Segmento segmento = store.gravar(42, MES, registros);
+
+        assertThat(store.ler(42, MES)).isEqualTo(registros);
+        assertThat(segmento.tamanhoBytes()).isLessThan(registros.size() * 16L);
+    }
+
+    @Test
+    void segmentoCorrompidoNaoELido() throws Exception {
+        ArquivoMensalStore store = new ArquivoMensalStore(diretorio);
+        LocalDateTime dataHora = MES.atDay(3).atTime(9, 0);
+        store.gravar(7, MES, List.of(new RegistrosPonto(1, 7, dataHora, TipoRegistro.ENTRADA, null, dataHora, dataHora)));
+
+        try (FileChannel canal = FileChannel.open(diretorio.resolve("7").resolve("2023-02.seg"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {0x7F}), 24);
+        }
+
+        assertThatThrownBy(() -> store.ler(7, MES)).isInstanceOf(IllegalStateException.class).hasMessageContaining("CRC");
+        assertThatThrownBy(() -> store.ler(7, MES.plusMonths(1))).isInstanceOf(UncheckedIOException.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.oclock.api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PontoJournalTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 4, 8, 0, 0, 123_456_789);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void reabreDepoisDeUmaQuedaComTodosOsRegistrosConfirmados() throws Exception {
+        PontoJournal journal = new PontoJournal(diretorio, 4);
+        List<PontoJournal.Registro> gravados = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            gravados.add(journal.acrescentar(i % 3 + 1, BASE.plusMinutes(i)));
+        }
+        assertThat(arquivos()).hasSize(3);
+
+        // Sem close(): a nova instância lê os arquivos como se o processo tivesse caído
+        PontoJournal reaberto = new PontoJournal(diretorio, 4);
+        assertThat(reaberto.getId()).isEqualTo(journal.getId());
+        assertThat(reaberto.getUltimaSequencia()).isEqualTo(10);
+        assertThat(reaberto.ler(1, 100)).isEqualTo(gravados);
+        assertThat(reaberto.acrescentar(7, BASE).sequencia()).isEqualTo(11);
+        reaberto.close();
+    }
+
+    @Test
+    void registroEscritoPelaMetadeEDescartadoNaAbertura() throws Exception {
+        PontoJournal journal = new PontoJournal(diretorio, 16);
+        journal.acrescentar(1, BASE);
+        journal.acrescentar(1, BASE.plusHours(1));
+        journal.acrescentar(1, BASE.plusHours(2));
+        journal.close();
+
+        // Corrompe o CRC do terceiro registro
+        try (FileChannel canal = FileChannel.open(arquivos().get(0), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}),
+                    PontoJournal.TAMANHO_CABECALHO + 2L * PontoJournal.TAMANHO_REGISTRO + 28);
+        }
+
+        PontoJournal reaberto = new PontoJournal(diretorio, 16);
+        assertThat(reaberto.getUltimaSequencia()).isEqualTo(2);
+        PontoJournal.Registro novo = reaberto.acrescentar(2, BASE.plusHours(5));
+        assertThat(novo.sequencia()).isEqualTo(3);
+        assertThat(reaberto.ler(3, 10)).containsExactly(novo);
+        reaberto.close();
+    }
+
+    @Test
+    void descartaSegmentosJaDrenados() throws Exception {
+        PontoJournal journal = new PontoJournal(diretorio, 4);
+        for (int i = 0; i < 10; i++) {
+            journal.acrescentar(1, BASE.plusMinutes(i));
+        }
+        journal.descartarAte(9);
+        assertThat(arquivos()).hasSize(1);
+        assertThat(journal.ler(1, 100)).extracting(PontoJournal.Registro::sequencia).containsExactly(9L, 10L);
+        journal.close();
+
+        assertThat(new PontoJournal(diretorio, 4).getUltimaSequencia()).isEqualTo(10);
+    }
+
+    @Test
+    void escritoresConcorrentesRecebemSequenciasUnicasEDuraveis() throws Exception {
+        PontoJournal journal = new PontoJournal(diretorio, 1000);
+        int threads = 8;
+        int porThread = 500;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> execucoes = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int idUsuario = t + 1;
+                execucoes.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        PontoJournal.Registro registro = journal.acrescentar(idUsuario, BASE.plusSeconds(i));
+                        assertThat(journal.getSequenciaDuravel()).isGreaterThanOrEqualTo(registro.sequencia());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> execucao : execucoes) {
+                execucao.get();
+            }
+        }
+
+        List<PontoJournal.Registro> registros = new PontoJournal(diretorio, 1000).ler(1, threads * porThread + 1);
+        assertThat(registros).extracting(PontoJournal.Registro::sequencia)
+                .containsExactlyElementsOf(Stream.iterate(1L, s -> s + 1).limit(threads * porThread).toList());
+        for (int t = 1; t <= threads; t++) {
+            int idUsuario = t;
+            // Cada escritor vê as próprias batidas na ordem em que as gravou
+            assertThat(registros.stream().filter(r -> r.idUsuario() == idUsuario).map(PontoJournal.Registro::dataHoraRegistro))
+                    .isSorted()
+                    .hasSize(porThread);
+        }
+    }
+
+    private List<Path> arquivos() throws Exception {
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            return listagem.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.oclock.api.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que as consultas quentes de registros_ponto usam os índices criados pelas migrations
+ * (V3__indices_registros_ponto.sql) em vez de varrer a tabela. O SQL verificado é o que o
+ * Hibernate realmente gera para cada método do repositório.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.oclock.api.repository.RegistroPontoRepositoryQueryPlanTest$SqlCapturado")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RegistroPontoRepositoryQueryPlanTest {
+
+    private static final String INDICE_USUARIO_DATA = "idx_registros_ponto_usuario_data";
+    private static final String INDICE_DATA = "idx_registros_ponto_data";
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 5, 1, 0, 0);
+    private static final LocalDateTime FIM = LocalDateTime.of(2024, 5, 31, 23, 59, 59);
+
+    @Autowired
+    private RegistroPontoRepository registroPontoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void limparSqlCapturado() {
+        SqlCapturado.SQL.clear();
+    }
+
+    @Test
+    void intervaloPorUsuarioUsaIndiceComposto() {
+        registroPontoRepository.findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(1, INICIO, FIM);
+
+        assertThat(plano(1, INICIO, FIM)).contains(INDICE_USUARIO_DATA).doesNotContain("tableScan");
+    }
+
+    @Test
+    void ultimoRegistroDoUsuarioUsaIndiceComposto() {
+        registroPontoRepository.findTopByIdUsuarioOrderByDataHoraRegistroDescIdDesc(1);
+
+        assertThat(plano(1, 1)).contains(INDICE_USUARIO_DATA).doesNotContain("tableScan");
+    }
+
+    @Test
+    void primeiroRegistroDoUsuarioUsaIndiceComposto() {
+        registroPontoRepository.findTopByIdUsuarioOrderByDataHoraRegistroAsc(1);
+
+        assertThat(plano(1, 1)).contains(INDICE_USUARIO_DATA).doesNotContain("tableScan");
+    }
+
+    @Test
+    void trechoDoUsuarioEmStreamUsaIndiceComposto() {
+        try (var marcacoes = registroPontoRepository.streamMarcacoesDoUsuarioNoPeriodo(1, INICIO, FIM)) {
+            marcacoes.count();
+        }
+
+        assertThat(plano(1, INICIO, FIM)).contains(INDICE_USUARIO_DATA).doesNotContain("tableScan");
+    }
+
+    @Test
+    void projecaoDoMesDoUsuarioUsaIndiceComposto() {
+        registroPontoRepository.findMarcacoesDoUsuarioNoPeriodo(1, INICIO, FIM);
+
+        assertThat(plano(1, INICIO, FIM)).contains(INDICE_USUARIO_DATA).doesNotContain("tableScan");
+    }
+
+    @Test
+    void projecaoDoPeriodoEmStreamUsaIndiceDeData() {
+        try (var marcacoes = registroPontoRepository.streamMarcacoesDoPeriodo(INICIO, FIM)) {
+            marcacoes.count();
+        }
+
+        assertThat(plano(INICIO, FIM)).contains(INDICE_DATA).doesNotContain("tableScan");
+    }
+
+    @Test
+    void periodoDaEmpresaUsaIndiceDeData() {
+        registroPontoRepository.findByDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(INICIO, FIM);
+
+        assertThat(plano(INICIO, FIM)).contains(INDICE_DATA).doesNotContain("tableScan");
+    }
+
+    @Test
+    void paginaSeguinteUsaIndiceDeData() {
+        registroPontoRepository.findPaginaApos(INICIO, 10, 101);
+
+        assertThat(plano(INICIO, INICIO, 10, 101)).contains(INDICE_DATA).doesNotContain("tableScan")
+                .doesNotContainIgnoringCase("offset");
+    }
+
+    @Test
+    void paginaSeguinteDoPeriodoUsaIndiceDeData() {
+        registroPontoRepository.findPaginaDoPeriodoApos(INICIO, FIM, INICIO, 10, 101);
+
+        assertThat(plano(INICIO, FIM, INICIO, INICIO, 10, 101)).contains(INDICE_DATA).doesNotContain("tableScan")
+                .doesNotContainIgnoringCase("offset");
+    }
+
+    /**
+     * Executa EXPLAIN sobre a última consulta capturada, com os mesmos parâmetros.
+     */
+    private String plano(Object... parametros) {
+        List<String> selects = SqlCapturado.SQL.stream()
+                .filter(sql -> sql.toLowerCase().contains("from registros_ponto"))
+                .toList();
+        assertThat(selects).isNotEmpty();
+        return jdbcTemplate.queryForObject("EXPLAIN " + selects.get(selects.size() - 1), String.class, parametros);
+    }
+
+    public static class SqlCapturado implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.oclock.api.security;
+
+import com.oclock.api.model.User;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição do JwtAuthenticationFilter: sem cabeçalho, com token válido e com token de assinatura inválida.
+ * Executar com: mvn -Pjmh test-compile exec:exec -Djmh.args=JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain CHAIN_VAZIA = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest requisicaoSemToken;
+    private MockHttpServletRequest requisicaoComToken;
+    private MockHttpServletRequest requisicaoTokenInvalido;
+    private MockHttpServletResponse resposta;
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = new JwtService(Base64.getEncoder().encodeToString(new byte[32]), Duration.ofHours(8), false);
+        filter = new JwtAuthenticationFilter(jwtService);
+
+        User user = new User();
+        user.setId(42);
+        user.setPermissao("usuario");
+        String token = jwtService.gerarToken(user);
+
+        requisicaoSemToken = new MockHttpServletRequest("GET", "/api/ponto");
+        requisicaoComToken = new MockHttpServletRequest("GET", "/api/ponto");
+        requisicaoComToken.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        requisicaoTokenInvalido = new MockHttpServletRequest("GET", "/api/ponto");
+        requisicaoTokenInvalido.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token.substring(0, token.length() - 2) + "xx");
+        resposta = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication semToken() throws Exception {
+        return filtrar(requisicaoSemToken);
+    }
+
+    @Benchmark
+    public Authentication tokenValido() throws Exception {
+        return filtrar(requisicaoComToken);
+    }
+
+    @Benchmark
+    public Authentication tokenInvalido() throws Exception {
+        return filtrar(requisicaoTokenInvalido);
+    }
+
+    private Authentication filtrar(MockHttpServletRequest requisicao) throws Exception {
+        // OncePerRequestFilter marca a requisição como já filtrada; o atributo é removido para cada execução contar.
+        requisicao.clearAttributes();
+        filter.doFilter(requisicao, resposta, CHAIN_VAZIA);
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacao;
+    }
+}
@@ -0,0 +1,89 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.BankedHoursAccumulatedReportDTO;
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.OrganizationMonthlyReportDTO;
+import com.oclock.api.dto.RegistroPontoAdminDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoRepository;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.ArquivamentoService;
+import com.oclock.api.service.OrganizationReportService;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Um mês arquivado some de registros_ponto, mas os relatórios continuam iguais; a restauração devolve as
+ * marcações com os mesmos ids.
+ */
+@SpringBootTest(properties = "oclock.arquivo.diretorio=target/arquivo-teste")
+class ArquivamentoIntegrationTest {
+
+    @Autowired
+    private ArquivamentoService arquivamentoService;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Autowired
+    private OrganizationReportService organizationReportService;
+
+    @Autowired
+    private RegistroPontoRepository registroPontoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void relatoriosLeemOMesArquivadoEARestauracaoDevolveAsMarcacoes() {
+        User user = UsuariosDeTeste.criar(userRepository, "arquivo");
+        YearMonth mesAntigo = YearMonth.now().minusMonths(14);
+        LocalDate dia = mesAntigo.atDay(10);
+        List<RegistrosPonto> marcacoes = List.of(
+                registrosPontoService.createRegistroPonto(new RegistroPontoAdminDTO(user.getId(), dia.atTime(8, 0), TipoRegistro.ENTRADA, "Manual")),
+                registrosPontoService.createRegistroPonto(new RegistroPontoAdminDTO(user.getId(), dia.atTime(17, 30), TipoRegistro.SAIDA, null)));
+        registrosPontoService.createRegistroPonto(new RegistroPontoAdminDTO(user.getId(), LocalDate.now().atTime(0, 0), TipoRegistro.ENTRADA, null));
+
+        BankedHoursReportDTO mensalAntes = registrosPontoService.generateMonthlyBankedHoursReport(user.getId(), mesAntigo.getYear(), mesAntigo.getMonthValue());
+        BankedHoursAccumulatedReportDTO acumuladoAntes = registrosPontoService.generateAccumulatedBankedHoursReport(user.getId());
+
+        assertThat(arquivamentoService.arquivarMes(user.getId(), mesAntigo).getQuantidadeRegistros()).isEqualTo(2);
+
+        assertThat(registroPontoRepository.findAllById(marcacoes.stream().map(RegistrosPonto::getId).toList())).isEmpty();
+        assertThat(registrosPontoService.generateMonthlyBankedHoursReport(user.getId(), mesAntigo.getYear(), mesAntigo.getMonthValue()))
+                .isEqualTo(mensalAntes);
+        assertThat(registrosPontoService.generateAccumulatedBankedHoursReport(user.getId())).isEqualTo(acumuladoAntes);
+        OrganizationMonthlyReportDTO organizacao = organizationReportService.generateMonthlyReport(mesAntigo.getYear(), mesAntigo.getMonthValue(), false, null);
+        assertThat(organizacao.getReports()).contains(mensalAntes);
+        assertThatThrownBy(() -> registrosPontoService.createRegistroPonto(
+                new RegistroPontoAdminDTO(user.getId(), dia.atTime(18, 0), TipoRegistro.ENTRADA, null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        arquivamentoService.restaurarMes(user.getId(), mesAntigo);
+
+        assertThat(arquivamentoService.getMesesArquivados(user.getId())).isEmpty();
+        assertThat(registrosPontoService.getRegistrosPontoByUsuarioAndPeriodo(user.getId(), mesAntigo.atDay(1).atStartOfDay(),
+                mesAntigo.atEndOfMonth().atTime(23, 59)))
+                .extracting(RegistrosPonto::getId, RegistrosPonto::getTipoRegistro, RegistrosPonto::getObservacao)
+                .containsExactly(
+                        tuple(marcacoes.get(0).getId(), TipoRegistro.ENTRADA, "Manual"),
+                        tuple(marcacoes.get(1).getId(), TipoRegistro.SAIDA, null));
+        assertThat(registrosPontoService.generateMonthlyBankedHoursReport(user.getId(), mesAntigo.getYear(), mesAntigo.getMonthValue()))
+                .isEqualTo(mensalAntes);
+    }
+}
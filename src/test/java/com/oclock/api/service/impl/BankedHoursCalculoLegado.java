@@ -0,0 +1,110 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.User;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cálculo original do banco de horas, baseado em LocalDateTime, Duration e Map&lt;LocalDate, Duration&gt;,
+ * mantido apenas como referência para os testes de equivalência e os benchmarks do PrimitiveBankedHoursEngine.
+ */
+class BankedHoursCalculoLegado {
+
+    double getJornadaDiaria(User user) {
+        return user.getJornadaDiariaHoras() != null ? user.getJornadaDiariaHoras().doubleValue() : 8.0;
+    }
+
+    /**
+     * Calcula as horas trabalhadas em cada dia do intervalo (inclusive), pareando as
+     * marcações de cada dia na ordem: primeira é ENTRADA, segunda é SAIDA e assim por diante.
+     * Os registros devem vir ordenados por data/hora, como retornados pelo repositório.
+     */
+    Map<LocalDate, Duration> calcularHorasPorDia(List<RegistrosPonto> registrosOrdenados, LocalDate inicio, LocalDate fim) {
+        Map<LocalDate, Duration> horasPorDia = new LinkedHashMap<>();
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            horasPorDia.put(dia, Duration.ZERO);
+        }
+
+        LocalDate diaAtual = null;
+        LocalDateTime entrada = null;
+        for (RegistrosPonto registro : registrosOrdenados) {
+            LocalDateTime dataHora = registro.getDataHoraRegistro();
+            LocalDate dia = dataHora.toLocalDate();
+            if (!dia.equals(diaAtual)) {
+                // Uma ENTRADA sem SAIDA no mesmo dia não conta horas.
+                diaAtual = dia;
+                entrada = null;
+            }
+            if (entrada == null) {
+                entrada = dataHora;
+            } else {
+                Duration intervalo = Duration.between(entrada, dataHora);
+                horasPorDia.computeIfPresent(dia, (d, total) -> total.plus(intervalo));
+                entrada = null;
+            }
+        }
+        return horasPorDia;
+    }
+
+    /**
+     * Horas esperadas no intervalo (inclusive): a jornada diária em cada dia de semana (segunda a sexta).
+     */
+    Duration calcularHorasEsperadas(User user, LocalDate inicio, LocalDate fim) {
+        long horasPorDia = (long) getJornadaDiaria(user);
+        long diasUteis = 0;
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            if (dia.getDayOfWeek() != DayOfWeek.SATURDAY && dia.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                diasUteis++;
+            }
+        }
+        return Duration.ofHours(horasPorDia * diasUteis);
+    }
+
+    /**
+     * Monta o relatório mensal a partir das horas trabalhadas em cada dia do mês.
+     */
+    BankedHoursReportDTO montarRelatorioMensal(User user, int ano, int mes, Map<LocalDate, Duration> horasPorDia) {
+        LocalDate inicioMes = LocalDate.of(ano, mes, 1);
+        LocalDate fimMes = inicioMes.with(TemporalAdjusters.lastDayOfMonth());
+
+        Duration totalHorasTrabalhadasNoMes = Duration.ZERO;
+        for (Duration horasDoDia : horasPorDia.values()) {
+            totalHorasTrabalhadasNoMes = totalHorasTrabalhadasNoMes.plus(horasDoDia);
+        }
+        Duration totalHorasEsperadasNoMes = calcularHorasEsperadas(user, inicioMes, fimMes);
+
+        // Calcula o saldo mensal do banco de horas.
+        Duration balanceHorasMes = totalHorasTrabalhadasNoMes.minus(totalHorasEsperadasNoMes);
+
+        BankedHoursReportDTO report = new BankedHoursReportDTO();
+        report.setUserId(user.getId());
+        report.setUserName(user.getNomeCompleto());
+        report.setYear(ano);
+        report.setMonth(mes);
+        report.setExpectedDailyHours(getJornadaDiaria(user));
+        report.setDailyHoursWorked(horasPorDia); // Converte LocalDate para String no DTO
+        report.setTotalHoursWorkedMonth(totalHorasTrabalhadasNoMes);
+        report.setTotalExpectedHoursMonth(totalHorasEsperadasNoMes);
+        report.setBalanceHoursMonth(balanceHorasMes);
+        report.setBalanceStatus(getBalanceStatus(balanceHorasMes));
+        return report;
+    }
+
+    String getBalanceStatus(Duration balance) {
+        if (balance.isZero()) {
+            return "ZERADO";
+        } else if (balance.isNegative()) {
+            return "NEGATIVO";
+        }
+        return "POSITIVO";
+    }
+}
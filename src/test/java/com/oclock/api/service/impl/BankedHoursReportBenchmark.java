@@ -0,0 +1,121 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo dos relatórios de banco de horas sobre marcações sintéticas já carregadas (sem banco):
+ * o mensal de cada usuário, como em generateMonthlyBankedHoursReport depois da consulta, e o acumulado
+ * de todo o histórico de cada usuário pelo StreamingBankedHoursEngine. As variantes "Legado" usam o
+ * cálculo original (BankedHoursCalculoLegado) para comparar vazão e alocação com o PrimitiveBankedHoursEngine.
+ * Executar com: mvn -Pjmh test-compile exec:exec -Djmh.args=BankedHoursReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BankedHoursReportBenchmark {
+
+    @Param({"100"})
+    public int usuarios;
+
+    @Param({"1", "5"})
+    public int anos;
+
+    private final PrimitiveBankedHoursEngine primitiveEngine = new PrimitiveBankedHoursEngine(new BankedHoursCalculator(CalendarioTrabalhoTest.semFeriadosCadastrados()));
+    private final StreamingBankedHoursEngine engine = new StreamingBankedHoursEngine();
+    private final BankedHoursCalculoLegado legado = new BankedHoursCalculoLegado();
+
+    private MarcacoesSinteticas dados;
+    private YearMonth mesDoRelatorio;
+    private List<List<RegistrosPonto>> registrosDoMesPorUsuario;
+
+    @Setup
+    public void setup() {
+        dados = new MarcacoesSinteticas(usuarios, anos, 42L);
+        mesDoRelatorio = dados.getUltimoMes();
+        registrosDoMesPorUsuario = new ArrayList<>();
+        for (User user : dados.getUsuarios()) {
+            registrosDoMesPorUsuario.add(dados.getRegistrosDoMes(user.getId(), mesDoRelatorio));
+        }
+    }
+
+    /**
+     * Relatório mensal de todos os usuários.
+     */
+    @Benchmark
+    public void relatorioMensal(Blackhole blackhole) {
+        List<User> users = dados.getUsuarios();
+        for (int i = 0; i < users.size(); i++) {
+            BankedHoursReportDTO report = primitiveEngine.montarRelatorioMensal(users.get(i), mesDoRelatorio,
+                    primitiveEngine.calcularNanosPorDia(registrosDoMesPorUsuario.get(i), mesDoRelatorio));
+            blackhole.consume(report);
+        }
+    }
+
+    @Benchmark
+    public void relatorioMensalLegado(Blackhole blackhole) {
+        LocalDate inicio = mesDoRelatorio.atDay(1);
+        LocalDate fim = mesDoRelatorio.atEndOfMonth();
+        List<User> users = dados.getUsuarios();
+        for (int i = 0; i < users.size(); i++) {
+            BankedHoursReportDTO report = legado.montarRelatorioMensal(users.get(i), mesDoRelatorio.getYear(), mesDoRelatorio.getMonthValue(),
+                    legado.calcularHorasPorDia(registrosDoMesPorUsuario.get(i), inicio, fim));
+            blackhole.consume(report);
+        }
+    }
+
+    /**
+     * Relatório acumulado de todos os usuários, do primeiro mês gerado até o último.
+     */
+    @Benchmark
+    public void relatorioAcumulado(Blackhole blackhole) {
+        for (User user : dados.getUsuarios()) {
+            // Como no preenchimento do SaldoMensalLedger: uma passada pelo histórico, um relatório por mês emitido
+            engine.percorrerMeses(dados.getHistorico(user.getId()).stream(), dados.getUltimoMes(),
+                    (mes, nanosPorDia) -> blackhole.consume(primitiveEngine.montarRelatorioMensal(user, mes, nanosPorDia)));
+        }
+    }
+
+    /**
+     * Acumulado pelo cálculo original: horas por dia de cada mês em Map&lt;LocalDate, Duration&gt; e relatório mês a mês.
+     */
+    @Benchmark
+    public void relatorioAcumuladoLegado(Blackhole blackhole) {
+        for (User user : dados.getUsuarios()) {
+            List<RegistrosPonto> historico = dados.getHistorico(user.getId());
+            int inicioDoMes = 0;
+            for (YearMonth mes = dados.getPrimeiroMes(); !mes.isAfter(dados.getUltimoMes()); mes = mes.plusMonths(1)) {
+                int fimDoMes = inicioDoMes;
+                while (fimDoMes < historico.size() && YearMonth.from(historico.get(fimDoMes).getDataHoraRegistro()).equals(mes)) {
+                    fimDoMes++;
+                }
+                BankedHoursReportDTO report = legado.montarRelatorioMensal(user, mes.getYear(), mes.getMonthValue(),
+                        legado.calcularHorasPorDia(historico.subList(inicioDoMes, fimDoMes), mes.atDay(1), mes.atEndOfMonth()));
+                blackhole.consume(report);
+                inicioDoMes = fimDoMes;
+            }
+        }
+    }
+}
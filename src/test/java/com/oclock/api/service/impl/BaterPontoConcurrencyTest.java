@@ -0,0 +1,128 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.PontoLoteItemDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.repository.RegistroPontoRepository;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dispara milhares de batidas simultâneas (individuais e em lote) para poucos usuários e verifica que,
+ * na ordem de gravação, cada usuário alterna ENTRADA/SAIDA sem repetir tipo.
+ */
+@SpringBootTest
+@RecordApplicationEvents
+class BaterPontoConcurrencyTest {
+
+    private static final int USUARIOS = 10;
+    private static final int BATIDAS_POR_USUARIO = 200;
+    private static final int LOTES_POR_USUARIO = 20;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistroPontoRepository registroPontoRepository;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Test
+    void batidasSimultaneasAlternamEntradaESaidaPorUsuario() throws Exception {
+        List<Integer> idsUsuarios = new ArrayList<>();
+        for (int i = 0; i < USUARIOS; i++) {
+            idsUsuarios.add(UsuariosDeTeste.criar(userRepository, "concorrencia" + i).getId());
+        }
+        // Todas as batidas no mesmo instante: a ordem fica só por conta da serialização por usuário.
+        LocalDateTime instante = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        List<Runnable> tarefas = new ArrayList<>();
+        for (Integer idUsuario : idsUsuarios) {
+            for (int i = 0; i < BATIDAS_POR_USUARIO; i++) {
+                tarefas.add(() -> registrosPontoService.baterPonto(idUsuario, instante));
+            }
+            for (int i = 0; i < LOTES_POR_USUARIO; i++) {
+                tarefas.add(() -> registrosPontoService.baterPontoEmLote(List.of(
+                        new PontoLoteItemDTO(idUsuario, instante), new PontoLoteItemDTO(idUsuario, instante))));
+            }
+        }
+        dispararJuntas(tarefas);
+
+        for (Integer idUsuario : idsUsuarios) {
+            List<RegistrosPonto> registros = registroPontoRepository
+                    .findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(idUsuario, instante, instante).stream()
+                    .sorted(Comparator.comparing(RegistrosPonto::getId))
+                    .toList();
+
+            assertThat(registros).hasSize(BATIDAS_POR_USUARIO + 2 * LOTES_POR_USUARIO);
+            for (int i = 0; i < registros.size(); i++) {
+                assertThat(registros.get(i).getTipoRegistro())
+                        .as("usuário %d, registro %d", idUsuario, i)
+                        .isEqualTo(i % 2 == 0 ? TipoRegistro.ENTRADA : TipoRegistro.SAIDA);
+            }
+        }
+    }
+
+    @Test
+    void eventosDoLoteTrazemOIdGravado() {
+        Integer idUsuario = UsuariosDeTeste.criar(userRepository, "concorrencia" + USUARIOS).getId();
+        LocalDateTime instante = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        registrosPontoService.baterPontoEmLote(List.of(
+                new PontoLoteItemDTO(idUsuario, instante), new PontoLoteItemDTO(idUsuario, instante.plusMinutes(1))));
+
+        List<Integer> idsGravados = registroPontoRepository
+                .findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(idUsuario, instante, instante.plusMinutes(1)).stream()
+                .map(RegistrosPonto::getId)
+                .toList();
+        assertThat(eventos.stream(RegistroPontoAlteradoEvent.class)
+                .filter(evento -> evento.idUsuario().equals(idUsuario))
+                .map(RegistroPontoAlteradoEvent::idRegistro))
+                .containsExactlyElementsOf(idsGravados);
+    }
+
+    private static void dispararJuntas(List<Runnable> tarefas) throws Exception {
+        Collections.shuffle(tarefas);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> resultados = new ArrayList<>();
+            for (Runnable tarefa : tarefas) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    tarefa.run();
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.FeriadoDTO;
+import com.oclock.api.model.AbrangenciaFeriado;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.FeriadoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class CalendarioTrabalhoTest {
+
+    /**
+     * Calendário só com os feriados nacionais calculados, para os testes que montam o BankedHoursCalculator à mão.
+     */
+    static CalendarioTrabalho semFeriadosCadastrados() {
+        return new CalendarioTrabalho(mock(FeriadoRepository.class), 2000, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void somaDePrefixosIgualAoPercorrerDiaADia() {
+        FeriadoRepository repository = mock(FeriadoRepository.class);
+        List<FeriadoDTO> cadastrados = List.of(
+                new FeriadoDTO(1, LocalDate.of(2023, 1, 25), "Aniversário de São Paulo", AbrangenciaFeriado.ESTADUAL, "SP", true),
+                new FeriadoDTO(2, LocalDate.of(2024, 12, 24), "Véspera de Natal", AbrangenciaFeriado.EMPRESA, null, false),
+                new FeriadoDTO(3, LocalDate.of(2020, 2, 29), "Dia da empresa", AbrangenciaFeriado.EMPRESA, null, true));
+        when(repository.buscarDoAno(anyInt())).thenReturn(cadastrados);
+        CalendarioTrabalho calendario = new CalendarioTrabalho(repository, 2000, Duration.ofMinutes(5));
+
+        User user = usuario("SP", new BigDecimal("7.50"));
+        user.setEscalaSemanal("450,450,450,450,450,240,0");
+        Random random = new Random(3L);
+        LocalDate base = LocalDate.of(2022, 6, 1);
+        for (int i = 0; i < 500; i++) {
+            LocalDate inicio = base.plusDays(random.nextInt(1200));
+            LocalDate fim = inicio.plusDays(random.nextInt(800) - 5);
+            assertThat(calendario.minutosEsperados(user, inicio, fim))
+                    .as("%s a %s", inicio, fim)
+                    .isEqualTo(diaADia(calendario, user, new int[]{450, 450, 450, 450, 450, 240, 0}, inicio, fim));
+        }
+    }
+
+    @Test
+    void jornadaFracionadaNaoETruncada() {
+        CalendarioTrabalho calendario = semFeriadosCadastrados();
+        User user = usuario(null, new BigDecimal("7.50"));
+        // Semana de 2024-03-04 a 2024-03-08, sem feriados
+        assertThat(calendario.minutosEsperados(user, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 10))).isEqualTo(5 * 450);
+    }
+
+    @Test
+    void feriadosNacionaisCalculados() {
+        CalendarioTrabalho calendario = semFeriadosCadastrados();
+        assertThat(calendario.feriado(LocalDate.of(2024, 3, 29), null)).as("Sexta-feira Santa").isTrue();
+        assertThat(calendario.feriado(LocalDate.of(2025, 4, 18), null)).as("Sexta-feira Santa").isTrue();
+        assertThat(calendario.feriado(LocalDate.of(2023, 11, 20), null)).isFalse();
+        assertThat(calendario.feriado(LocalDate.of(2024, 11, 20), null)).isTrue();
+        assertThat(calendario.feriado(LocalDate.of(2024, 11, 21), null)).isFalse();
+    }
+
+    @Test
+    void feriadoEstadualSoParaUsuariosDaUf() {
+        FeriadoRepository repository = mock(FeriadoRepository.class);
+        when(repository.buscarDoAno(anyInt())).thenReturn(List.of(
+                new FeriadoDTO(1, LocalDate.of(2010, 7, 9), "Revolução Constitucionalista", AbrangenciaFeriado.ESTADUAL, "SP", true)));
+        CalendarioTrabalho calendario = new CalendarioTrabalho(repository, 2000, Duration.ofMinutes(5));
+        LocalDate quartaFeira = LocalDate.of(2025, 7, 9);
+
+        assertThat(calendario.minutosEsperados(usuario("SP", null), quartaFeira, quartaFeira)).isZero();
+        assertThat(calendario.minutosEsperados(usuario("RJ", null), quartaFeira, quartaFeira)).isEqualTo(480);
+        assertThat(calendario.minutosEsperados(usuario(null, null), quartaFeira, quartaFeira)).isEqualTo(480);
+        // Recorrente, mas só a partir do ano em que foi cadastrado
+        assertThat(calendario.feriado(LocalDate.of(2009, 7, 9), "SP")).isFalse();
+    }
+
+    @Test
+    void preCargaLeCadaAnoUmaVezAntesDoCalculoParalelo() {
+        FeriadoRepository repository = mock(FeriadoRepository.class);
+        when(repository.buscarDoAno(anyInt())).thenReturn(List.of());
+        CalendarioTrabalho calendario = new CalendarioTrabalho(repository, 2000, Duration.ofMinutes(5));
+
+        calendario.preCarregar(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 31));
+        verify(repository, times(1)).buscarDoAno(2024);
+        verify(repository, times(1)).buscarDoAno(2025);
+
+        // As threads do cálculo só leem do cache
+        IntStream.range(0, 200).parallel().forEach(i -> calendario.minutosEsperados(
+                usuario(i % 2 == 0 ? "SP" : null, null), LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 31)));
+        verifyNoMoreInteractions(repository);
+    }
+
+    private static long diaADia(CalendarioTrabalho calendario, User user, int[] escala, LocalDate inicio, LocalDate fim) {
+        long minutos = 0;
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            if (!calendario.feriado(dia, user.getUf())) {
+                minutos += escala[dia.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()];
+            }
+        }
+        return minutos;
+    }
+
+    private static User usuario(String uf, BigDecimal jornada) {
+        User user = UsuariosDeTeste.novo(1, jornada);
+        user.setUf(uf);
+        return user;
+    }
+}
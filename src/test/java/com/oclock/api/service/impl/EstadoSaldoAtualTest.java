@@ -0,0 +1,41 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.TipoRegistro;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EstadoSaldoAtualTest {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 3, 4);
+
+    @Test
+    void viradaDoDiaLevaParesFechadosParaOAcumuladoEDescartaEntradaSemSaida() {
+        EstadoSaldoAtual estado = new EstadoSaldoAtual(DIA.withDayOfMonth(1), DIA.toEpochDay(), 0, new long[0], null);
+        assertThat(estado.acrescentar(nanos(DIA.atTime(8, 0)), TipoRegistro.ENTRADA, DIA.toEpochDay())).isTrue();
+        assertThat(estado.acrescentar(nanos(DIA.atTime(12, 0)), TipoRegistro.SAIDA, DIA.toEpochDay())).isTrue();
+        assertThat(estado.acrescentar(nanos(DIA.atTime(13, 0)), TipoRegistro.ENTRADA, DIA.toEpochDay())).isTrue();
+
+        EstadoSaldoAtual.Leitura hoje = estado.ler(nanos(DIA.atTime(15, 30)));
+        assertThat(hoje.expedienteAberto()).isTrue();
+        assertThat(hoje.trabalhadoHojeNanos()).isEqualTo(Duration.ofMinutes(6 * 60 + 30).toNanos());
+
+        // No dia seguinte só o par fechado conta; a ENTRADA das 13h ficou sem SAIDA
+        LocalDate amanha = DIA.plusDays(1);
+        EstadoSaldoAtual.Leitura depois = estado.ler(nanos(amanha.atTime(9, 0)));
+        assertThat(depois.trabalhadoAteOntemNanos()).isEqualTo(Duration.ofHours(4).toNanos());
+        assertThat(depois.trabalhadoHojeNanos()).isZero();
+        assertThat(depois.expedienteAberto()).isFalse();
+
+        // Batida atrasada de outro dia não é aplicada incrementalmente
+        assertThat(estado.acrescentar(nanos(DIA.atTime(18, 0)), TipoRegistro.SAIDA, amanha.toEpochDay())).isFalse();
+    }
+
+    private static long nanos(LocalDateTime dataHora) {
+        return PrimitiveBankedHoursEngine.paraNanos(dataHora);
+    }
+}
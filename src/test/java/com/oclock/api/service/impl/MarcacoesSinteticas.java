@@ -0,0 +1,101 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Gerador determinístico de usuários e marcações para benchmarks: N usuários × M anos com padrão
+ * de expediente realista (entrada, almoço, saída), faltas, dias com ENTRADA sem SAIDA e plantões em fim de semana.
+ */
+final class MarcacoesSinteticas {
+
+    private static final BigDecimal[] JORNADAS = {new BigDecimal("8.00"), new BigDecimal("6.00"), new BigDecimal("7.50")};
+
+    private final List<User> usuarios = new ArrayList<>();
+    private final Map<Integer, List<RegistrosPonto>> historicoPorUsuario = new LinkedHashMap<>();
+    private final YearMonth primeiroMes;
+    private final YearMonth ultimoMes;
+
+    MarcacoesSinteticas(int quantidadeUsuarios, int anos, long seed) {
+        Random random = new Random(seed);
+        this.primeiroMes = YearMonth.of(2020, 1);
+        this.ultimoMes = primeiroMes.plusYears(anos).minusMonths(1);
+        int proximoId = 1;
+        for (int i = 1; i <= quantidadeUsuarios; i++) {
+            User user = new User();
+            user.setId(i);
+            user.setNomeCompleto("Usuário " + i);
+            user.setPermissao("usuario");
+            user.setJornadaDiariaHoras(JORNADAS[i % JORNADAS.length]);
+            usuarios.add(user);
+
+            List<RegistrosPonto> historico = new ArrayList<>();
+            for (LocalDate dia = primeiroMes.atDay(1); !dia.isAfter(ultimoMes.atEndOfMonth()); dia = dia.plusDays(1)) {
+                proximoId = gerarDia(historico, i, dia, random, proximoId);
+            }
+            historicoPorUsuario.put(i, historico);
+        }
+    }
+
+    private static int gerarDia(List<RegistrosPonto> historico, Integer idUsuario, LocalDate dia, Random random, int proximoId) {
+        boolean fimDeSemana = dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY;
+        if (fimDeSemana ? random.nextInt(20) != 0 : random.nextInt(25) == 0) {
+            return proximoId; // folga ou falta
+        }
+        LocalDateTime entrada = dia.atTime(7, 30).plusMinutes(random.nextInt(90));
+        List<LocalDateTime> batidas = new ArrayList<>(List.of(
+                entrada,
+                entrada.plusHours(4).plusMinutes(random.nextInt(30)),
+                entrada.plusHours(5).plusMinutes(random.nextInt(30)),
+                entrada.plusHours(9).plusMinutes(random.nextInt(60))));
+        if (random.nextInt(30) == 0) {
+            batidas.remove(batidas.size() - 1); // esqueceu a saída
+        }
+        for (int i = 0; i < batidas.size(); i++) {
+            RegistrosPonto registro = new RegistrosPonto();
+            registro.setId(proximoId++);
+            registro.setIdUsuario(idUsuario);
+            registro.setDataHoraRegistro(batidas.get(i));
+            registro.setTipoRegistro(i % 2 == 0 ? TipoRegistro.ENTRADA : TipoRegistro.SAIDA);
+            historico.add(registro);
+        }
+        return proximoId;
+    }
+
+    List<User> getUsuarios() {
+        return usuarios;
+    }
+
+    List<RegistrosPonto> getHistorico(Integer idUsuario) {
+        return historicoPorUsuario.get(idUsuario);
+    }
+
+    /**
+     * Marcações do usuário no mês, na ordem de data/hora, como retornadas pelo repositório.
+     */
+    List<RegistrosPonto> getRegistrosDoMes(Integer idUsuario, YearMonth mes) {
+        return historicoPorUsuario.get(idUsuario).stream()
+                .filter(r -> YearMonth.from(r.getDataHoraRegistro()).equals(mes))
+                .toList();
+    }
+
+    YearMonth getPrimeiroMes() {
+        return primeiroMes;
+    }
+
+    YearMonth getUltimoMes() {
+        return ultimoMes;
+    }
+}
@@ -0,0 +1,147 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.OrganizationMonthlyReportDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoBatchInserter;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.OrganizationReportService;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relatório da organização em um mês sem marcações de outros testes: cada linha deve ser igual ao relatório mensal do
+ * próprio usuário, e o filtro de ativos, a ordenação e o total de marcações são conferidos contra os usuários criados.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrganizationReportIntegrationTest {
+
+    private static final YearMonth COMPETENCIA = YearMonth.of(2011, 3);
+    private static final Comparator<BankedHoursReportDTO> POR_USUARIO = Comparator.comparing(BankedHoursReportDTO::getUserId);
+    private static final Comparator<BankedHoursReportDTO> POR_SALDO = Comparator.comparing(BankedHoursReportDTO::getBalanceHoursMonth);
+
+    @Autowired
+    private OrganizationReportService organizationReportService;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistroPontoBatchInserter inserter;
+
+    private User poucasHoras;
+    private User muitasHoras;
+    private User semMarcacoes;
+    private User inativo;
+    private int marcacoesDosAtivos;
+    private int marcacoesDoInativo;
+
+    @BeforeAll
+    void criarUsuarios() {
+        poucasHoras = UsuariosDeTeste.criar(userRepository, "organizacao-poucas");
+        User jornadaCurta = UsuariosDeTeste.paraGravar("organizacao-muitas");
+        jornadaCurta.setJornadaDiariaHoras(new BigDecimal("6.00"));
+        muitasHoras = userRepository.save(jornadaCurta);
+        semMarcacoes = UsuariosDeTeste.criar(userRepository, "organizacao-sem-marcacoes");
+        User desativado = UsuariosDeTeste.paraGravar("organizacao-inativo");
+        desativado.setActive(false);
+        inativo = userRepository.save(desativado);
+
+        List<RegistrosPonto> registros = new ArrayList<>();
+        adicionarDias(registros, poucasHoras, 3, 8);
+        adicionarDias(registros, muitasHoras, 20, 9);
+        marcacoesDosAtivos = registros.size();
+        adicionarDias(registros, inativo, 2, 4);
+        marcacoesDoInativo = registros.size() - marcacoesDosAtivos;
+        inserter.inserir(registros);
+    }
+
+    @Test
+    void apenasAtivosOrdenadosPeloMaiorSaldo() {
+        OrganizationMonthlyReportDTO relatorio = gerar(true, Sort.Direction.DESC);
+
+        assertThat(relatorio.getReports()).extracting(BankedHoursReportDTO::getUserId)
+                .contains(poucasHoras.getId(), muitasHoras.getId(), semMarcacoes.getId())
+                .doesNotContain(inativo.getId())
+                .allSatisfy(idUsuario -> assertThat(userRepository.findById(idUsuario).orElseThrow().isActive()).isTrue());
+        assertThat(relatorio.getReports()).isSortedAccordingTo(POR_SALDO.reversed().thenComparing(POR_USUARIO));
+        assertThat(relatorio.getTotalUsers()).isEqualTo(relatorio.getReports().size());
+        assertThat(relatorio.getTotalPunches()).isEqualTo(marcacoesDosAtivos);
+        assertIgualAoRelatorioDeCadaUsuario(relatorio);
+    }
+
+    @Test
+    void todosOsUsuariosOrdenadosPeloMenorSaldo() {
+        OrganizationMonthlyReportDTO relatorio = gerar(false, Sort.Direction.ASC);
+
+        assertThat(relatorio.getReports()).extracting(BankedHoursReportDTO::getUserId)
+                .contains(poucasHoras.getId(), muitasHoras.getId(), semMarcacoes.getId(), inativo.getId());
+        assertThat(relatorio.getReports()).isSortedAccordingTo(POR_SALDO.thenComparing(POR_USUARIO));
+        assertThat(relatorio.getTotalUsers()).isEqualTo(relatorio.getReports().size());
+        assertThat(relatorio.getTotalPunches()).isEqualTo(marcacoesDosAtivos + marcacoesDoInativo);
+        assertIgualAoRelatorioDeCadaUsuario(relatorio);
+    }
+
+    @Test
+    void semOrdemDeSaldoOrdenaPeloUsuario() {
+        OrganizationMonthlyReportDTO relatorio = gerar(true, null);
+
+        assertThat(relatorio.getReports()).isSortedAccordingTo(POR_USUARIO);
+    }
+
+    private OrganizationMonthlyReportDTO gerar(boolean apenasAtivos, Sort.Direction ordemSaldo) {
+        return organizationReportService.generateMonthlyReport(COMPETENCIA.getYear(), COMPETENCIA.getMonthValue(), apenasAtivos, ordemSaldo);
+    }
+
+    private void assertIgualAoRelatorioDeCadaUsuario(OrganizationMonthlyReportDTO relatorio) {
+        for (BankedHoursReportDTO linha : relatorio.getReports()) {
+            assertThat(linha)
+                    .as("usuário %d", linha.getUserId())
+                    .isEqualTo(registrosPontoService.generateMonthlyBankedHoursReport(
+                            linha.getUserId(), COMPETENCIA.getYear(), COMPETENCIA.getMonthValue()));
+        }
+    }
+
+    /**
+     * Uma ENTRADA às 8h e uma SAIDA depois das horas informadas, em cada um dos primeiros dias úteis do mês.
+     */
+    private static void adicionarDias(List<RegistrosPonto> registros, User user, int dias, int horas) {
+        int adicionados = 0;
+        for (LocalDate dia = COMPETENCIA.atDay(1); adicionados < dias; dia = dia.plusDays(1)) {
+            if (dia.getDayOfWeek().getValue() <= 5) {
+                registros.add(novoRegistro(user.getId(), dia, 8, TipoRegistro.ENTRADA));
+                registros.add(novoRegistro(user.getId(), dia, 8 + horas, TipoRegistro.SAIDA));
+                adicionados++;
+            }
+        }
+    }
+
+    private static RegistrosPonto novoRegistro(Integer idUsuario, LocalDate dia, int hora, TipoRegistro tipo) {
+        RegistrosPonto registro = new RegistrosPonto();
+        registro.setIdUsuario(idUsuario);
+        registro.setDataHoraRegistro(dia.atTime(hora, 0));
+        registro.setTipoRegistro(tipo);
+        return registro;
+    }
+}
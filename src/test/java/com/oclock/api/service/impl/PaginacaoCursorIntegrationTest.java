@@ -0,0 +1,106 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.CursorPageDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoBatchInserter;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtService;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Paginação por cursor de /api/ponto: as páginas seguem (data/hora, id), então marcações no mesmo instante divididas
+ * entre páginas não se repetem nem se perdem; um cursor que não foi emitido pela API é recusado com 400.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaginacaoCursorIntegrationTest {
+
+    // Antes de qualquer marcação dos outros testes, que dividem o mesmo banco
+    private static final LocalDateTime EMPATE = LocalDateTime.of(1999, 3, 1, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistroPontoBatchInserter inserter;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Test
+    void paginasAtravessamEmpateDeDataHoraSemRepetirNemPular() {
+        User user = UsuariosDeTeste.criar(userRepository, "cursor-empate");
+        List<RegistrosPonto> inseridos = new ArrayList<>();
+        inseridos.add(novoRegistro(user.getId(), EMPATE.minusMinutes(1)));
+        for (int i = 0; i < 5; i++) {
+            inseridos.add(novoRegistro(user.getId(), EMPATE));
+        }
+        inseridos.add(novoRegistro(user.getId(), EMPATE.plusMinutes(1)));
+        inserter.inserir(inseridos);
+
+        // Três por página: as quebras caem dentro das cinco marcações empatadas
+        List<Integer> lidos = new ArrayList<>();
+        String cursor = null;
+        boolean passouDoUltimo = false;
+        do {
+            CursorPageDTO<RegistrosPonto> pagina = registrosPontoService.getAllRegistrosPonto(cursor, 3);
+            for (RegistrosPonto registro : pagina.getItems()) {
+                if (registro.getIdUsuario().equals(user.getId())) {
+                    lidos.add(registro.getId());
+                }
+                passouDoUltimo |= registro.getDataHoraRegistro().isAfter(EMPATE.plusMinutes(1));
+            }
+            cursor = pagina.getNextCursor();
+        } while (cursor != null && !passouDoUltimo);
+
+        // Mesma ordem da consulta: data/hora e, no empate, id
+        assertThat(lidos).containsExactlyElementsOf(inseridos.stream().map(RegistrosPonto::getId).toList());
+    }
+
+    @Test
+    void cursorMalformadoResponde400() throws Exception {
+        String token = "Bearer " + jwtService.gerarToken(UsuariosDeTeste.criar(userRepository, "cursor-malformado"));
+        String semSeparador = Base64.getUrlEncoder().encodeToString("abc".getBytes(StandardCharsets.UTF_8));
+        String dataInvalida = Base64.getUrlEncoder().encodeToString("ontem|12".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("não é base64!", semSeparador, dataInvalida)) {
+            mockMvc.perform(get("/api/ponto").param("cursor", cursor).header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/users").param("cursor", semSeparador).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static RegistrosPonto novoRegistro(Integer idUsuario, LocalDateTime dataHora) {
+        RegistrosPonto registro = new RegistrosPonto();
+        registro.setIdUsuario(idUsuario);
+        registro.setDataHoraRegistro(dataHora);
+        registro.setTipoRegistro(TipoRegistro.ENTRADA);
+        return registro;
+    }
+}
@@ -0,0 +1,148 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.PayrollEntryDTO;
+import com.oclock.api.dto.PayrollRunDTO;
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.MarcacaoResumo;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Folha de um mês sem feriados (fevereiro de 2021: 20 dias úteis, 160 horas esperadas na jornada de 8 horas),
+ * com os usuários e as marcações simulados.
+ */
+class PayrollServiceImplTest {
+
+    private static final YearMonth COMPETENCIA = YearMonth.of(2021, 2);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RegistrosPorUsuarioLoader registrosPorUsuarioLoader = mock(RegistrosPorUsuarioLoader.class);
+    private final CalculoPorUsuarioExecutor calculoPorUsuario = new CalculoPorUsuarioExecutor();
+    private final CalendarioTrabalho calendario = CalendarioTrabalhoTest.semFeriadosCadastrados();
+    private final BankedHoursCalculator calculator = new BankedHoursCalculator(calendario);
+    private final PayrollServiceImpl service = new PayrollServiceImpl(userRepository, registrosPorUsuarioLoader, calculator,
+            new PrimitiveBankedHoursEngine(calculator), calculoPorUsuario, calendario);
+
+    @AfterEach
+    void encerrarPool() {
+        calculoPorUsuario.shutdown();
+    }
+
+    @Test
+    void horasExtrasArredondadasSoParaSaldoPositivoEDeUsuariosAtivos() {
+        User comHorasExtras = usuario(1, "10.03");
+        User semMarcacoes = usuario(2, "20.00");
+        User semValorHora = usuario(3, null);
+        Integer idInativo = 4;
+        when(userRepository.findByActiveTrue()).thenReturn(List.of(semValorHora, comHorasExtras, semMarcacoes));
+
+        // 8 horas em cada dia útil e 1h30 no sábado: saldo de 1h30, a 10,03 por hora = 15,045
+        List<Marcacao> registros = jornadasCompletasComSabado(comHorasExtras.getId(), Duration.ofMinutes(90));
+        List<Marcacao> registrosSemValorHora = jornadasCompletasComSabado(semValorHora.getId(), Duration.ofHours(2));
+        List<Marcacao> registrosDoInativo = List.of(
+                marcacao(idInativo, COMPETENCIA.atDay(1).atTime(8, 0), TipoRegistro.ENTRADA),
+                marcacao(idInativo, COMPETENCIA.atDay(1).atTime(12, 0), TipoRegistro.SAIDA));
+        when(registrosPorUsuarioLoader.carregar(any(), any())).thenReturn(Map.of(
+                comHorasExtras.getId(), registros,
+                semValorHora.getId(), registrosSemValorHora,
+                idInativo, registrosDoInativo));
+
+        PayrollRunDTO folha = service.runPayroll(COMPETENCIA.getYear(), COMPETENCIA.getMonthValue());
+
+        assertThat(folha.getTotalUsers()).isEqualTo(3);
+        assertThat(folha.getTotalPunches()).isEqualTo(registros.size() + registrosSemValorHora.size());
+        assertThat(folha.getEntries()).extracting(PayrollEntryDTO::getUserId).containsExactly(1, 2, 3);
+
+        PayrollEntryDTO horasExtras = folha.getEntries().get(0);
+        assertThat(horasExtras.getTotalHoursWorkedMonth()).isEqualTo(Duration.ofMinutes(161 * 60 + 30));
+        assertThat(horasExtras.getTotalExpectedHoursMonth()).isEqualTo(Duration.ofHours(160));
+        assertThat(horasExtras.getBalanceHoursMonth()).isEqualTo(Duration.ofMinutes(90));
+        assertThat(horasExtras.getBalanceStatus()).isEqualTo("POSITIVO");
+        // HALF_UP: 15,045 vira 15,05 (e não 15,04)
+        assertThat(horasExtras.getOvertimeValue()).isEqualTo(new BigDecimal("15.05"));
+
+        PayrollEntryDTO saldoNegativo = folha.getEntries().get(1);
+        assertThat(saldoNegativo.getBalanceHoursMonth()).isEqualTo(Duration.ofHours(-160));
+        assertThat(saldoNegativo.getBalanceStatus()).isEqualTo("NEGATIVO");
+        assertThat(saldoNegativo.getOvertimeValue()).isEqualTo(new BigDecimal("0.00"));
+
+        PayrollEntryDTO valorHoraAusente = folha.getEntries().get(2);
+        assertThat(valorHoraAusente.getBalanceHoursMonth()).isEqualTo(Duration.ofHours(2));
+        assertThat(valorHoraAusente.getOvertimeValue()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void mesSemMarcacoes() {
+        when(userRepository.findByActiveTrue()).thenReturn(List.of(usuario(1, "10.00")));
+        when(registrosPorUsuarioLoader.carregar(any(), any())).thenReturn(Map.of());
+
+        PayrollRunDTO folha = service.runPayroll(COMPETENCIA.getYear(), COMPETENCIA.getMonthValue());
+
+        assertThat(folha.getTotalUsers()).isEqualTo(1);
+        assertThat(folha.getTotalPunches()).isZero();
+        PayrollEntryDTO entrada = folha.getEntries().get(0);
+        assertThat(entrada.getTotalHoursWorkedMonth()).isEqualTo(Duration.ZERO);
+        assertThat(entrada.getBalanceHoursMonth()).isEqualTo(Duration.ofHours(-160));
+        assertThat(entrada.getOvertimeValue()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void semUsuariosAtivos() {
+        when(userRepository.findByActiveTrue()).thenReturn(List.of());
+        when(registrosPorUsuarioLoader.carregar(any(), any())).thenReturn(Map.of(
+                9, List.of(marcacao(9, COMPETENCIA.atDay(1).atTime(8, 0), TipoRegistro.ENTRADA))));
+
+        PayrollRunDTO folha = service.runPayroll(COMPETENCIA.getYear(), COMPETENCIA.getMonthValue());
+
+        assertThat(folha.getTotalUsers()).isZero();
+        assertThat(folha.getTotalPunches()).isZero();
+        assertThat(folha.getEntries()).isEmpty();
+    }
+
+    private static User usuario(Integer id, String valorHora) {
+        User user = UsuariosDeTeste.novo(id, UsuariosDeTeste.JORNADA_PADRAO);
+        user.setValorHora(valorHora != null ? new BigDecimal(valorHora) : null);
+        return user;
+    }
+
+    /**
+     * Das 8h às 12h e das 13h às 17h em cada dia útil da competência, mais o sábado 6 a partir das 9h.
+     */
+    private static List<Marcacao> jornadasCompletasComSabado(Integer idUsuario, Duration sabado) {
+        List<Marcacao> registros = new ArrayList<>();
+        for (LocalDate dia = COMPETENCIA.atDay(1); !dia.isAfter(COMPETENCIA.atEndOfMonth()); dia = dia.plusDays(1)) {
+            if (dia.getDayOfMonth() == 6) {
+                registros.add(marcacao(idUsuario, dia.atTime(9, 0), TipoRegistro.ENTRADA));
+                registros.add(marcacao(idUsuario, dia.atTime(9, 0).plus(sabado), TipoRegistro.SAIDA));
+            } else if (dia.getDayOfWeek().getValue() <= 5) {
+                registros.add(marcacao(idUsuario, dia.atTime(8, 0), TipoRegistro.ENTRADA));
+                registros.add(marcacao(idUsuario, dia.atTime(12, 0), TipoRegistro.SAIDA));
+                registros.add(marcacao(idUsuario, dia.atTime(13, 0), TipoRegistro.ENTRADA));
+                registros.add(marcacao(idUsuario, dia.atTime(17, 0), TipoRegistro.SAIDA));
+            }
+        }
+        return registros;
+    }
+
+    private static Marcacao marcacao(Integer idUsuario, LocalDateTime dataHora, TipoRegistro tipo) {
+        return new MarcacaoResumo(null, idUsuario, dataHora, tipo);
+    }
+}
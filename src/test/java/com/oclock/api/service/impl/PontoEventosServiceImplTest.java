@@ -0,0 +1,135 @@
+package com.oclock.api.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oclock.api.model.AlteracaoRegistro;
+import com.oclock.api.model.TipoRegistro;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PontoEventosServiceImplTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 4, 8, 0);
+
+    private final BlockingQueue<EmitterGravador> proximosEmitters = new LinkedBlockingQueue<>();
+    private final PontoEventosServiceImpl service = new PontoEventosServiceImpl(new ObjectMapper().findAndRegisterModules(),
+            100, 3, Duration.ofMinutes(1), Duration.ofMinutes(30)) {
+        @Override
+        SseEmitter criarEmitter(long timeoutMillis) {
+            return proximosEmitters.remove();
+        }
+    };
+
+    @Test
+    void clienteLentoPerdeOsMaisAntigosERecebeAvisoDeRessincronizacao() throws Exception {
+        EmitterGravador lento = new EmitterGravador(false);
+        proximosEmitters.add(lento);
+        service.assinar(null, null);
+        // A thread do assinante fica presa no primeiro envio enquanto as marcações chegam
+        assertThat(lento.primeiroEnvio.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 10; i++) {
+            publicar(i, 1);
+        }
+
+        lento.liberar.countDown();
+        List<String> recebidos = lento.proximos(5);
+        assertThat(recebidos.get(0)).endsWith(":conectado");
+        assertThat(recebidos.get(1)).startsWith("event:ressincronizar").contains("\"descartados\":7");
+        assertThat(recebidos.subList(2, 5)).extracting(PontoEventosServiceImplTest::idRegistro).containsExactly(8, 9, 10);
+        assertThat(service.getDescartados()).isEqualTo(7);
+    }
+
+    @Test
+    void retomaPeloLastEventIdSoComEventosDoUsuarioAssinado() throws Exception {
+        EmitterGravador todos = new EmitterGravador(true);
+        proximosEmitters.add(todos);
+        service.assinar(null, null);
+        todos.proximos(1);
+        publicar(1, 1);
+        publicar(2, 2);
+        String primeiroId = idEvento(todos.proximos(1).get(0));
+        publicar(3, 1);
+        publicar(4, 2);
+        publicar(5, 1);
+
+        EmitterGravador retomado = new EmitterGravador(true);
+        proximosEmitters.add(retomado);
+        service.assinar(1, primeiroId);
+        List<String> recebidos = retomado.proximos(3);
+        assertThat(recebidos.subList(1, 3)).extracting(PontoEventosServiceImplTest::idRegistro).containsExactly(3, 5);
+        assertThat(recebidos.get(1)).startsWith("id:").contains("event:batida");
+
+        // Id de outra execução do servidor: não há como retomar, o cliente é avisado
+        EmitterGravador desconhecido = new EmitterGravador(true);
+        proximosEmitters.add(desconhecido);
+        service.assinar(1, "outra-3");
+        assertThat(desconhecido.proximos(2).get(1)).startsWith("event:ressincronizar").contains("\"historicoIncompleto\":true");
+        assertThat(service.getAssinantes()).isEqualTo(3);
+    }
+
+    private void publicar(int idRegistro, int idUsuario) {
+        service.aoAlterarRegistro(new RegistroPontoAlteradoEvent(idRegistro, idUsuario, BASE.plusMinutes(idRegistro),
+                TipoRegistro.ENTRADA, AlteracaoRegistro.BATIDA));
+    }
+
+    private static String idEvento(String evento) {
+        return evento.lines().filter(linha -> linha.startsWith("id:")).findFirst().orElseThrow().substring(3);
+    }
+
+    private static int idRegistro(String evento) {
+        String dados = evento.lines().filter(linha -> linha.startsWith("data:")).findFirst().orElseThrow();
+        String campo = "\"idRegistro\":";
+        int inicio = dados.indexOf(campo) + campo.length();
+        return Integer.parseInt(dados.substring(inicio, dados.indexOf(',', inicio)));
+    }
+
+    /**
+     * Emitter que guarda o texto de cada envio; sem liberar, o primeiro envio fica bloqueado como num socket cheio.
+     */
+    private static final class EmitterGravador extends SseEmitter {
+
+        private final BlockingQueue<String> recebidos = new LinkedBlockingQueue<>();
+        private final CountDownLatch primeiroEnvio = new CountDownLatch(1);
+        private final CountDownLatch liberar = new CountDownLatch(1);
+
+        EmitterGravador(boolean liberado) {
+            if (liberado) {
+                liberar.countDown();
+            }
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            primeiroEnvio.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            StringBuilder texto = new StringBuilder();
+            builder.build().forEach(parte -> texto.append(parte.getData()));
+            recebidos.add(texto.toString().strip());
+        }
+
+        List<String> proximos(int quantidade) throws InterruptedException {
+            List<String> lidos = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                String evento = recebidos.poll(5, TimeUnit.SECONDS);
+                assertThat(evento).as("evento %d de %d", i + 1, quantidade).isNotNull();
+                lidos.add(evento);
+            }
+            return lidos;
+        }
+    }
+}
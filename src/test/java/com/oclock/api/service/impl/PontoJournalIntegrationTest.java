@@ -0,0 +1,185 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.PontoLoteItemDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.JournalCheckpointRepository;
+import com.oclock.api.repository.PontoJournal;
+import com.oclock.api.repository.RegistroPontoRepository;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Modo journal: a batida é aceita com 202, chega ao banco pela drenagem e, depois de um restart, o que estava
+ * no journal além do ponto de controle é gravado uma única vez. Uma batida que sempre quebra a gravação vai para a
+ * quarentena sem prender as seguintes.
+ */
+@SpringBootTest(properties = {"oclock.journal.enabled=true", "oclock.journal.intervalo-drenagem=20ms"})
+@AutoConfigureMockMvc
+class PontoJournalIntegrationTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 4, 8, 0);
+
+    @DynamicPropertySource
+    static void diretorioDoJournal(DynamicPropertyRegistry registry) throws Exception {
+        Path diretorio = Files.createTempDirectory("journal-ponto");
+        registry.add("oclock.journal.diretorio", diretorio::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistroPontoRepository registroPontoRepository;
+
+    @Autowired
+    private RegistrosPontoServiceImpl registrosPontoService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PontoJournalServiceImpl pontoJournalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batidaAceitaPeloJournalChegaAoBancoEmOrdem() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "journal-api");
+        String token = "Bearer " + jwtService.gerarToken(user);
+
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(post("/api/ponto/bater/" + user.getId())
+                            .header("Authorization", token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"dataHoraRegistro\":\"" + BASE.plusHours(i) + "\"}"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.status").value("PENDENTE"))
+                    .andExpect(jsonPath("$.sequencia").isNumber());
+        }
+
+        aguardar(() -> registrosDoDia(user).size() == 4);
+        assertThat(registrosDoDia(user)).extracting(RegistrosPonto::getTipoRegistro)
+                .containsExactly(TipoRegistro.ENTRADA, TipoRegistro.SAIDA, TipoRegistro.ENTRADA, TipoRegistro.SAIDA);
+        aguardar(() -> pontoJournalService.getProfundidade() == 0);
+    }
+
+    @Test
+    void journalReabertoGravaSoOQueFaltavaNoBanco(@TempDir Path diretorio) throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "journal-restart");
+        // Batidas aceitas antes de uma queda, nunca drenadas
+        PontoJournal anterior = new PontoJournal(diretorio, 16);
+        for (int i = 0; i < 3; i++) {
+            anterior.acrescentar(user.getId(), BASE.plusHours(i));
+        }
+        anterior.close();
+
+        PontoJournalServiceImpl subida = novaInstancia(diretorio);
+        subida.iniciar();
+        aguardar(() -> registrosDoDia(user).size() == 3);
+        subida.encerrar();
+
+        // Nova subida sobre o mesmo diretório: o ponto de controle impede a regravação
+        PontoJournalServiceImpl segundaSubida = novaInstancia(diretorio);
+        segundaSubida.drenar();
+        assertThat(segundaSubida.getProfundidade()).isZero();
+        segundaSubida.encerrar();
+        assertThat(registrosDoDia(user)).hasSize(3);
+    }
+
+    @Test
+    void batidaQueSempreFalhaVaiParaQuarentenaEAsSeguintesSaoGravadas(@TempDir Path diretorio) {
+        User user = UsuariosDeTeste.criar(userRepository, "journal-quarentena");
+        LocalDateTime invalida = BASE.plusHours(2);
+        PontoJournal anterior = new PontoJournal(diretorio, 16);
+        for (int i = 0; i < 5; i++) {
+            anterior.acrescentar(user.getId(), BASE.plusHours(i));
+        }
+        anterior.close();
+
+        // Falha determinística: todo lote que contém a batida das 10h quebra, com o banco no ar
+        RegistrosPontoServiceImpl servico = mock(RegistrosPontoServiceImpl.class);
+        when(servico.baterPontoEmLote(anyList(), any(Runnable.class))).thenAnswer(invocacao -> {
+            List<PontoLoteItemDTO> marcacoes = invocacao.getArgument(0);
+            if (marcacoes.stream().anyMatch(marcacao -> marcacao.getDataHoraRegistro().equals(invalida))) {
+                throw new IllegalStateException("batida inválida");
+            }
+            return registrosPontoService.baterPontoEmLote(marcacoes, invocacao.getArgument(1));
+        });
+        PontoJournalServiceImpl instancia = new PontoJournalServiceImpl(servico, userCache, checkpointRepository,
+                diretorio, 16, 10, 2, Duration.ofMillis(20));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        instancia.bindTo(registry);
+
+        // Lote inteiro falha duas vezes, as duas primeiras batidas passam isoladas, a inválida falha duas vezes
+        assertThatThrownBy(instancia::drenar).hasMessage("batida inválida");
+        assertThatThrownBy(instancia::drenar).hasMessage("batida inválida");
+        assertThat(registrosDoDia(user)).hasSize(2);
+        instancia.drenar();
+
+        assertThat(registrosDoDia(user)).extracting(RegistrosPonto::getDataHoraRegistro)
+                .containsExactly(BASE, BASE.plusHours(1), BASE.plusHours(3), BASE.plusHours(4));
+        assertThat(instancia.getProfundidade()).isZero();
+        assertThat(registry.get("oclock.journal.quarentena").counter().count()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM journal_ponto_quarentena WHERE id_usuario = ?",
+                Integer.class, user.getId())).isEqualTo(1);
+    }
+
+    private PontoJournalServiceImpl novaInstancia(Path diretorio) {
+        return new PontoJournalServiceImpl(registrosPontoService, userCache, checkpointRepository,
+                diretorio, 16, 2, 3, Duration.ofMillis(20));
+    }
+
+    private List<RegistrosPonto> registrosDoDia(User user) {
+        return registroPontoRepository.findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(
+                user.getId(), BASE, BASE.plusDays(1));
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo esgotado esperando a drenagem").isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.PontoLoteItemDTO;
+import com.oclock.api.dto.PontoLoteResultadoDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Resultado de cada marcação de baterPontoEmLote: tipo atribuído, status e posição na resposta.
+ */
+@SpringBootTest
+class PontoLoteIntegrationTest {
+
+    private static final Integer USUARIO_INEXISTENTE = 999_999;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cadaMarcacaoRecebeSeuResultadoNaOrdemDoLote() {
+        Integer comHistorico = UsuariosDeTeste.criar(userRepository, "lote-com-historico").getId();
+        Integer semHistorico = UsuariosDeTeste.criar(userRepository, "lote-sem-historico").getId();
+        LocalDateTime base = LocalDateTime.of(2024, 5, 10, 8, 0);
+        // Último registro gravado: ENTRADA às 8h
+        registrosPontoService.baterPonto(comHistorico, base);
+
+        // Fora de ordem e com os usuários intercalados
+        List<PontoLoteItemDTO> lote = List.of(
+                new PontoLoteItemDTO(semHistorico, base.plusHours(9)),
+                new PontoLoteItemDTO(comHistorico, base.plusHours(5)),
+                new PontoLoteItemDTO(USUARIO_INEXISTENTE, base.plusHours(1)),
+                new PontoLoteItemDTO(comHistorico, base.plusHours(4)),
+                new PontoLoteItemDTO(semHistorico, base.plusHours(1)),
+                new PontoLoteItemDTO(comHistorico, base.minusHours(1)));
+
+        List<PontoLoteResultadoDTO> resultados = registrosPontoService.baterPontoEmLote(lote);
+
+        assertThat(resultados)
+                .extracting(PontoLoteResultadoDTO::getIndice, PontoLoteResultadoDTO::getIdUsuario,
+                        PontoLoteResultadoDTO::getDataHoraRegistro, PontoLoteResultadoDTO::getTipoRegistro, PontoLoteResultadoDTO::getStatus)
+                .containsExactly(
+                        tuple(0, semHistorico, base.plusHours(9), TipoRegistro.SAIDA, PontoLoteResultadoDTO.REGISTRADO),
+                        // Continua a partir da ENTRADA gravada
+                        tuple(1, comHistorico, base.plusHours(5), TipoRegistro.ENTRADA, PontoLoteResultadoDTO.REGISTRADO),
+                        tuple(2, USUARIO_INEXISTENTE, base.plusHours(1), null, PontoLoteResultadoDTO.USUARIO_NAO_ENCONTRADO),
+                        tuple(3, comHistorico, base.plusHours(4), TipoRegistro.SAIDA, PontoLoteResultadoDTO.REGISTRADO),
+                        tuple(4, semHistorico, base.plusHours(1), TipoRegistro.ENTRADA, PontoLoteResultadoDTO.REGISTRADO),
+                        tuple(5, comHistorico, base.minusHours(1), null, PontoLoteResultadoDTO.ANTERIOR_AO_ULTIMO_REGISTRO));
+
+        // A marcação recusada não foi gravada e a alternância do dia continua íntegra
+        assertThat(registrosPontoService.getRegistrosPontoByUsuarioAndPeriodo(comHistorico, base.toLocalDate().atStartOfDay(), base.plusDays(1)))
+                .extracting(RegistrosPonto::getDataHoraRegistro, RegistrosPonto::getTipoRegistro)
+                .containsExactly(
+                        tuple(base, TipoRegistro.ENTRADA),
+                        tuple(base.plusHours(4), TipoRegistro.SAIDA),
+                        tuple(base.plusHours(5), TipoRegistro.ENTRADA));
+    }
+
+    @Test
+    void marcacaoNoMesmoInstanteDoUltimoRegistroEntraDepoisDele() {
+        Integer idUsuario = UsuariosDeTeste.criar(userRepository, "lote-mesmo-instante").getId();
+        LocalDateTime instante = LocalDateTime.of(2024, 5, 13, 8, 0);
+        registrosPontoService.baterPonto(idUsuario, instante);
+
+        List<PontoLoteResultadoDTO> resultados = registrosPontoService.baterPontoEmLote(List.of(new PontoLoteItemDTO(idUsuario, instante)));
+
+        assertThat(resultados).extracting(PontoLoteResultadoDTO::getTipoRegistro, PontoLoteResultadoDTO::getStatus)
+                .containsExactly(tuple(TipoRegistro.SAIDA, PontoLoteResultadoDTO.REGISTRADO));
+    }
+}
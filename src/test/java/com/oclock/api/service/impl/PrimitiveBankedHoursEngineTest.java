@@ -0,0 +1,97 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O relatório mensal do núcleo primitivo deve ser idêntico ao do cálculo original (BankedHoursCalculoLegado),
+ * exceto pelas horas esperadas, que passaram ao CalendarioTrabalho.
+ */
+class PrimitiveBankedHoursEngineTest {
+
+    private final BankedHoursCalculator calculator = new BankedHoursCalculator(CalendarioTrabalhoTest.semFeriadosCadastrados());
+    private final PrimitiveBankedHoursEngine engine = new PrimitiveBankedHoursEngine(calculator);
+    private final BankedHoursCalculoLegado legado = new BankedHoursCalculoLegado();
+
+    @Test
+    void relatorioMensalIgualAoCalculoOriginalEmDadosSinteticos() {
+        MarcacoesSinteticas dados = new MarcacoesSinteticas(12, 2, 7L);
+        for (User user : dados.getUsuarios()) {
+            for (YearMonth mes = dados.getPrimeiroMes(); !mes.isAfter(dados.getUltimoMes()); mes = mes.plusMonths(1)) {
+                assertMesmoRelatorio(user, mes, dados.getRegistrosDoMes(user.getId(), mes));
+            }
+        }
+    }
+
+    /**
+     * Instantes com frações de segundo, batidas logo antes e logo depois da meia-noite, dias com número ímpar
+     * de batidas e meses com 28 a 31 dias.
+     */
+    @Test
+    void relatorioMensalIgualAoCalculoOriginalEmCasosDeBorda() {
+        User user = UsuariosDeTeste.novo(1, new BigDecimal("7.50"));
+        Random random = new Random(11L);
+        for (YearMonth mes = YearMonth.of(2023, 11); !mes.isAfter(YearMonth.of(2024, 3)); mes = mes.plusMonths(1)) {
+            List<RegistrosPonto> registros = new ArrayList<>();
+            LocalDateTime dataHora = mes.atDay(1).atStartOfDay().plusNanos(random.nextInt(1_000_000_000));
+            LocalDateTime fimMes = mes.atEndOfMonth().atTime(23, 59, 59, 999_999_999);
+            while (!dataHora.isAfter(fimMes)) {
+                registros.add(novoRegistro(user.getId(), dataHora, registros.size()));
+                dataHora = dataHora.plusSeconds(random.nextInt(6 * 3600)).plusNanos(random.nextInt(1_000_000_000));
+            }
+            registros.add(novoRegistro(user.getId(), fimMes, registros.size()));
+            assertMesmoRelatorio(user, mes, registros);
+        }
+    }
+
+    @Test
+    void mesSemMarcacoesEJornadaPadrao() {
+        User user = UsuariosDeTeste.novo(1, null);
+        YearMonth mes = YearMonth.of(2024, 2);
+        assertMesmoRelatorio(user, mes, List.of());
+        // 21 dias de segunda a sexta, sem feriados nacionais em fevereiro de 2024 (Carnaval é ponto facultativo)
+        assertThat(engine.montarRelatorioMensal(user, mes, new long[0]).getTotalExpectedHoursMonth()).isEqualTo(Duration.ofHours(21 * 8));
+    }
+
+    /**
+     * As horas trabalhadas seguem idênticas às do cálculo original; as esperadas (e com elas o saldo) vêm agora do
+     * CalendarioTrabalho, com feriados e precisão de minutos, e são conferidas à parte.
+     */
+    private void assertMesmoRelatorio(User user, YearMonth mes, List<RegistrosPonto> registros) {
+        BankedHoursReportDTO relatorio = engine.montarRelatorioMensal(user, mes, engine.calcularNanosPorDia(registros, mes));
+        assertThat(relatorio)
+                .as("usuário %d, %s", user.getId(), mes)
+                .usingRecursiveComparison()
+                .ignoringFields("totalExpectedHoursMonth", "balanceHoursMonth", "balanceStatus")
+                .isEqualTo(legado.montarRelatorioMensal(user, mes.getYear(), mes.getMonthValue(),
+                        legado.calcularHorasPorDia(registros, mes.atDay(1), mes.atEndOfMonth())));
+
+        Duration esperado = calculator.calcularHorasEsperadas(user, mes.atDay(1), mes.atEndOfMonth());
+        assertThat(relatorio.getTotalExpectedHoursMonth()).isEqualTo(esperado);
+        assertThat(relatorio.getBalanceHoursMonth()).isEqualTo(relatorio.getTotalHoursWorkedMonth().minus(esperado));
+        assertThat(relatorio.getBalanceStatus()).isEqualTo(calculator.getBalanceStatus(relatorio.getBalanceHoursMonth()));
+    }
+
+    private static RegistrosPonto novoRegistro(Integer idUsuario, LocalDateTime dataHora, int indice) {
+        RegistrosPonto registro = new RegistrosPonto();
+        registro.setId(indice + 1);
+        registro.setIdUsuario(idUsuario);
+        registro.setDataHoraRegistro(dataHora);
+        registro.setTipoRegistro(indice % 2 == 0 ? TipoRegistro.ENTRADA : TipoRegistro.SAIDA);
+        return registro;
+    }
+}
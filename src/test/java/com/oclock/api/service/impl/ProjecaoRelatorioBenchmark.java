@@ -0,0 +1,162 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.OClockBancoHorasApiApplication;
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoBatchInserter;
+import com.oclock.api.repository.RegistroPontoRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Leitura das marcações de um mês no H2 para o relatório: entidades RegistrosPonto gerenciadas (como antes) contra a
+ * projeção MarcacaoResumo das consultas de relatório. "Mensal" é uma consulta por usuário, como em
+ * generateMonthlyBankedHoursReport; "organizacao" é a leitura única do período do RegistrosPorUsuarioLoader.
+ * O contador "linhas" sai como linhas lidas por segundo; com -prof gc, gc.alloc.rate.norm é o heap alocado por relatório.
+ * Executar com: mvn -Pjmh test-compile exec:exec -Djmh.args=ProjecaoRelatorioBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjecaoRelatorioBenchmark {
+
+    @Param({"200"})
+    public int usuarios;
+
+    private ConfigurableApplicationContext contexto;
+    private RegistroPontoRepository repository;
+    private RegistrosPorUsuarioLoader loader;
+    private PrimitiveBankedHoursEngine primitiveEngine;
+    private EntityManager entityManager;
+    private TransactionTemplate somenteLeitura;
+    private MarcacoesSinteticas dados;
+    private YearMonth mes;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Linhas {
+        public long linhas;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = new SpringApplicationBuilder(OClockBancoHorasApiApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-projecao;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+                        "--oclock.saldo-atual.pre-carregar=false",
+                        "--oclock.metricas.sql.enabled=false");
+        repository = contexto.getBean(RegistroPontoRepository.class);
+        loader = contexto.getBean(RegistrosPorUsuarioLoader.class);
+        primitiveEngine = contexto.getBean(PrimitiveBankedHoursEngine.class);
+        entityManager = contexto.getBean(EntityManager.class);
+        somenteLeitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        somenteLeitura.setReadOnly(true);
+
+        dados = new MarcacoesSinteticas(usuarios, 1, 42L);
+        RegistroPontoBatchInserter inserter = contexto.getBean(RegistroPontoBatchInserter.class);
+        for (User user : dados.getUsuarios()) {
+            List<RegistrosPonto> historico = dados.getHistorico(user.getId());
+            // Como as batidas da API: com a observação padrão, que a projeção deixa de ler
+            historico.forEach(registro -> registro.setObservacao("Ponto batido automaticamente pela API."));
+            inserter.inserir(historico);
+        }
+        mes = dados.getUltimoMes();
+        inicio = mes.atDay(1).atStartOfDay();
+        fim = mes.atEndOfMonth().atTime(LocalTime.MAX);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public void mensalEntidades(Linhas linhas, Blackhole blackhole) {
+        for (User user : dados.getUsuarios()) {
+            List<RegistrosPonto> registros = repository.findByIdUsuarioAndDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(user.getId(), inicio, fim);
+            linhas.linhas += registros.size();
+            blackhole.consume(relatorio(user, registros));
+        }
+    }
+
+    @Benchmark
+    public void mensalProjecao(Linhas linhas, Blackhole blackhole) {
+        for (User user : dados.getUsuarios()) {
+            List<? extends Marcacao> registros = repository.findMarcacoesDoUsuarioNoPeriodo(user.getId(), inicio, fim);
+            linhas.linhas += registros.size();
+            blackhole.consume(relatorio(user, registros));
+        }
+    }
+
+    /**
+     * Leitura do período como o RegistrosPorUsuarioLoader fazia antes: entidades em stream, desanexadas uma a uma.
+     */
+    @Benchmark
+    public void organizacaoEntidades(Linhas linhas, Blackhole blackhole) {
+        Map<Integer, List<RegistrosPonto>> registrosPorUsuario = somenteLeitura.execute(status -> {
+            Map<Integer, List<RegistrosPonto>> porUsuario = new HashMap<>();
+            try (Stream<RegistrosPonto> registros = repository.streamByDataHoraRegistroBetweenOrderByDataHoraRegistroAsc(inicio, fim)) {
+                registros.forEach(registro -> {
+                    entityManager.detach(registro);
+                    porUsuario.computeIfAbsent(registro.getIdUsuario(), id -> new ArrayList<>()).add(registro);
+                });
+            }
+            return porUsuario;
+        });
+        for (User user : dados.getUsuarios()) {
+            List<RegistrosPonto> registros = registrosPorUsuario.getOrDefault(user.getId(), List.of());
+            linhas.linhas += registros.size();
+            blackhole.consume(relatorio(user, registros));
+        }
+    }
+
+    @Benchmark
+    public void organizacaoProjecao(Linhas linhas, Blackhole blackhole) {
+        Map<Integer, List<Marcacao>> registrosPorUsuario = loader.carregar(inicio, fim);
+        for (User user : dados.getUsuarios()) {
+            List<Marcacao> registros = registrosPorUsuario.getOrDefault(user.getId(), List.of());
+            linhas.linhas += registros.size();
+            blackhole.consume(relatorio(user, registros));
+        }
+    }
+
+    private BankedHoursReportDTO relatorio(User user, List<? extends Marcacao> registros) {
+        return primitiveEngine.montarRelatorioMensal(user, mes, primitiveEngine.calcularNanosPorDia(registros, mes));
+    }
+}
@@ -0,0 +1,128 @@
+package com.oclock.api.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.model.FormatoExportacao;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoBatchInserter;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conteúdo das exportações NDJSON e CSV de um período sem marcações de outros testes, com observações que exigem
+ * escape em cada formato.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegistrosPontoExporterIntegrationTest {
+
+    private static final YearMonth PERIODO = YearMonth.of(1998, 6);
+    private static final String CABECALHO_CSV =
+            "id_registro,id_usuario,data_hora_registro,tipo_registro,observacao,created_at,updated_at\n";
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistroPontoBatchInserter inserter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<RegistrosPonto> registros = new ArrayList<>();
+
+    @BeforeAll
+    void criarMarcacoes() {
+        User user = UsuariosDeTeste.criar(userRepository, "exportacao");
+        LocalDateTime inicio = PERIODO.atDay(1).atTime(8, 0);
+        registros.add(novoRegistro(user.getId(), inicio, TipoRegistro.ENTRADA, "simples"));
+        registros.add(novoRegistro(user.getId(), inicio.plusHours(1), TipoRegistro.SAIDA, "almoço, depois volta"));
+        registros.add(novoRegistro(user.getId(), inicio.plusHours(2), TipoRegistro.ENTRADA, "disse \"ok\" ao gestor"));
+        registros.add(novoRegistro(user.getId(), inicio.plusHours(3), TipoRegistro.SAIDA, "linha 1\nlinha 2"));
+        registros.add(novoRegistro(user.getId(), inicio.plusHours(4), TipoRegistro.ENTRADA, null));
+        inserter.inserir(registros);
+    }
+
+    @Test
+    void csvEscapaVirgulasAspasEQuebrasDeLinha() throws IOException {
+        String csv = exportar(PERIODO, FormatoExportacao.CSV);
+
+        assertThat(csv).startsWith(CABECALHO_CSV).endsWith("\n");
+        assertThat(csv).contains(
+                inicioDaLinha(registros.get(0)) + "simples,",
+                inicioDaLinha(registros.get(1)) + "\"almoço, depois volta\",",
+                inicioDaLinha(registros.get(2)) + "\"disse \"\"ok\"\" ao gestor\",",
+                inicioDaLinha(registros.get(3)) + "\"linha 1\nlinha 2\",",
+                inicioDaLinha(registros.get(4)) + ",");
+        // Cabeçalho, uma linha por marcação e a continuação da observação com quebra de linha
+        assertThat(csv.split("\n", -1)).hasSize(1 + registros.size() + 1 + 1);
+    }
+
+    @Test
+    void ndjsonTemUmObjetoPorLinha() throws IOException {
+        String ndjson = exportar(PERIODO, FormatoExportacao.NDJSON);
+
+        assertThat(ndjson).endsWith("\n");
+        String[] linhas = ndjson.substring(0, ndjson.length() - 1).split("\n", -1);
+        assertThat(linhas).hasSize(registros.size());
+        for (int i = 0; i < linhas.length; i++) {
+            RegistrosPonto lido = objectMapper.readValue(linhas[i], RegistrosPonto.class);
+            RegistrosPonto esperado = registros.get(i);
+            assertThat(lido.getId()).isEqualTo(esperado.getId());
+            assertThat(lido.getIdUsuario()).isEqualTo(esperado.getIdUsuario());
+            assertThat(lido.getDataHoraRegistro()).isEqualTo(esperado.getDataHoraRegistro());
+            assertThat(lido.getTipoRegistro()).isEqualTo(esperado.getTipoRegistro());
+            assertThat(lido.getObservacao()).isEqualTo(esperado.getObservacao());
+        }
+    }
+
+    @Test
+    void periodoVazio() throws IOException {
+        YearMonth semMarcacoes = PERIODO.plusMonths(1);
+
+        assertThat(exportar(semMarcacoes, FormatoExportacao.CSV)).isEqualTo(CABECALHO_CSV);
+        assertThat(exportar(semMarcacoes, FormatoExportacao.NDJSON)).isEmpty();
+        assertThat(exportar(semMarcacoes, FormatoExportacao.CBOR)).isEmpty();
+    }
+
+    private String exportar(YearMonth mes, FormatoExportacao formato) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        registrosPontoService.exportarRegistrosPontoByPeriodo(mes.atDay(1).atStartOfDay(), mes.atEndOfMonth().atTime(23, 59, 59),
+                formato, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String inicioDaLinha(RegistrosPonto registro) {
+        return registro.getId() + "," + registro.getIdUsuario() + "," + registro.getDataHoraRegistro() + ","
+                + registro.getTipoRegistro() + ",";
+    }
+
+    private static RegistrosPonto novoRegistro(Integer idUsuario, LocalDateTime dataHora, TipoRegistro tipo, String observacao) {
+        RegistrosPonto registro = new RegistrosPonto();
+        registro.setIdUsuario(idUsuario);
+        registro.setDataHoraRegistro(dataHora);
+        registro.setTipoRegistro(tipo);
+        registro.setObservacao(observacao);
+        return registro;
+    }
+}
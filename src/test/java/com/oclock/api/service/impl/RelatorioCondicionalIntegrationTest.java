@@ -0,0 +1,150 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.RegistroPontoAdminDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtService;
+import com.oclock.api.service.RegistrosPontoService;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Os relatórios de banco de horas respondem 304 à requisição condicional enquanto a versão dos dados do usuário não
+ * muda, sem calcular o relatório, e voltam a 200 com outro ETag depois de uma alteração.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RelatorioCondicionalIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Test
+    void relatorioMensalDeMesFechadoRespondeNaoModificado() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "condicional-mensal");
+        String token = "Bearer " + jwtService.gerarToken(user);
+        YearMonth mesPassado = YearMonth.now().minusMonths(1);
+        LocalDate dia = mesPassado.atDay(10);
+        registrosPontoService.createRegistroPonto(new RegistroPontoAdminDTO(user.getId(), dia.atTime(8, 0), TipoRegistro.ENTRADA, null));
+        RegistrosPonto saida = registrosPontoService.createRegistroPonto(
+                new RegistroPontoAdminDTO(user.getId(), dia.atTime(17, 0), TipoRegistro.SAIDA, null));
+        String url = "/api/ponto/" + user.getId() + "/banco-horas-mensal?ano=" + mesPassado.getYear() + "&mes=" + mesPassado.getMonthValue();
+
+        MockHttpServletResponse primeira = mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse();
+        String etag = primeira.getHeader(HttpHeaders.ETAG);
+        String ultimaAlteracao = primeira.getHeader(HttpHeaders.LAST_MODIFIED);
+        assertThat(etag).startsWith("W/\"");
+        assertThat(ultimaAlteracao).isNotNull();
+
+        double calculados = relatoriosMensaisCalculados();
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_MODIFIED_SINCE, ultimaAlteracao))
+                .andExpect(status().isNotModified());
+        assertThat(relatoriosMensaisCalculados()).isEqualTo(calculados);
+
+        // Excluir uma marcação muda a versão mesmo que nenhuma outra tenha sido atualizada
+        registrosPontoService.deleteRegistroPonto(saida.getId());
+        String novoEtag = mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(novoEtag).isNotEqualTo(etag);
+        assertThat(relatoriosMensaisCalculados()).isEqualTo(calculados + 1);
+    }
+
+    @Test
+    void relatorioAcumuladoTemSoETag() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "condicional-acumulado");
+        String token = "Bearer " + jwtService.gerarToken(user);
+        registrosPontoService.baterPonto(user.getId(), LocalDate.now().atStartOfDay().plusSeconds(1));
+        String url = "/api/ponto/" + user.getId() + "/banco-horas-acumulado";
+
+        MockHttpServletResponse primeira = mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse();
+        String etag = primeira.getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        registrosPontoService.baterPonto(user.getId(), LocalDate.now().atStartOfDay().plusSeconds(2));
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void feriadoCadastradoMudaHorasEsperadasEVersao() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "condicional-feriado");
+        String token = "Bearer " + jwtService.gerarToken(user);
+        // Março de 2020: 22 dias de segunda a sexta e nenhum feriado nacional
+        String url = "/api/ponto/" + user.getId() + "/banco-horas-mensal?ano=2020&mes=3";
+
+        String etag = mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalExpectedHoursMonth").value("PT176H"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/feriados").header("Authorization", token).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"data\":\"2020-03-10\",\"descricao\":\"Estadual sem UF\",\"abrangencia\":\"ESTADUAL\"}"))
+                .andExpect(status().isBadRequest());
+        String criado = mockMvc.perform(post("/api/feriados").header("Authorization", token).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"data\":\"2020-03-10\",\"descricao\":\"Recesso\",\"abrangencia\":\"EMPRESA\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer idFeriado = JsonPath.read(criado, "$.id");
+
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.totalExpectedHoursMonth").value("PT168H"));
+
+        mockMvc.perform(delete("/api/feriados/" + idFeriado).header("Authorization", token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/feriados/" + idFeriado).header("Authorization", token))
+                .andExpect(status().isNotFound());
+    }
+
+    private double relatoriosMensaisCalculados() {
+        return registry.get("oclock.relatorio.mensal").timer().count();
+    }
+}
@@ -0,0 +1,121 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.RegistroPontoAdminDTO;
+import com.oclock.api.dto.SaldoAtualDTO;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.security.JwtService;
+import com.oclock.api.service.RegistrosPontoService;
+import com.oclock.api.service.SaldoAtualService;
+import com.oclock.api.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * O saldo atual combina o acumulado até ontem com o trabalhado hoje (inclusive o expediente em aberto),
+ * acompanha as batidas sem voltar ao banco e é refeito depois de uma correção de administrador. O estado de um
+ * usuário excluído sai da memória.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SaldoAtualIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    @Autowired
+    private SaldoAtualService saldoAtualService;
+
+    @Autowired
+    private BankedHoursCalculator calculator;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void saldoAtualAcompanhaBatidasECorrecoes() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "saldo-atual");
+        LocalDate hoje = LocalDate.now();
+        LocalDate diaDoMesPassado = hoje.minusMonths(1).withDayOfMonth(10);
+        LocalDateTime inicioDeHoje = hoje.atStartOfDay();
+
+        // Mês passado: 8h em um dia, lançadas pelo administrador
+        registrosPontoService.createRegistroPonto(new RegistroPontoAdminDTO(user.getId(), diaDoMesPassado.atTime(8, 0), TipoRegistro.ENTRADA, null));
+        RegistrosPonto saida = registrosPontoService.createRegistroPonto(
+                new RegistroPontoAdminDTO(user.getId(), diaDoMesPassado.atTime(16, 0), TipoRegistro.SAIDA, null));
+        // Hoje: um par fechado de 1s e uma ENTRADA em aberto
+        registrosPontoService.baterPonto(user.getId(), inicioDeHoje.plusSeconds(1));
+        registrosPontoService.baterPonto(user.getId(), inicioDeHoje.plusSeconds(2));
+        registrosPontoService.baterPonto(user.getId(), inicioDeHoje.plusSeconds(3));
+
+        Duration esperadoAteOntem = calculator.calcularHorasEsperadas(user, diaDoMesPassado.withDayOfMonth(1), hoje.minusDays(1));
+        LocalDateTime antes = LocalDateTime.now();
+        SaldoAtualDTO saldo = saldoAtualService.getSaldoAtual(user.getId());
+        LocalDateTime depois = LocalDateTime.now();
+
+        assertThat(saldo.getSaldoAteOntem()).isEqualTo(Duration.ofHours(8).minus(esperadoAteOntem));
+        assertThat(saldo.isExpedienteAberto()).isTrue();
+        assertThat(saldo.getTrabalhadoHoje())
+                .isBetween(Duration.ofSeconds(1).plus(Duration.between(inicioDeHoje.plusSeconds(3), antes)),
+                        Duration.ofSeconds(1).plus(Duration.between(inicioDeHoje.plusSeconds(3), depois)));
+        assertThat(saldo.getSaldoAtual()).isEqualTo(saldo.getSaldoAteOntem().plus(saldo.getTrabalhadoHoje()));
+
+        // Fecha o expediente: o estado em memória é atualizado pela batida e a leitura não vai ao banco
+        registrosPontoService.baterPonto(user.getId(), inicioDeHoje.plusSeconds(10));
+        String token = "Bearer " + jwtService.gerarToken(user);
+        mockMvc.perform(get("/api/ponto/" + user.getId() + "/saldo-atual").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expedienteAberto").value(false))
+                .andExpect(jsonPath("$.trabalhadoHoje").value("PT8S"));
+        DistributionSummary comandos = registry.get("oclock.sql.comandos")
+                .tags("uri", "/api/ponto/{userId}/saldo-atual", "method", "GET").summary();
+        assertThat(comandos.count()).isEqualTo(1);
+        assertThat(comandos.totalAmount()).isZero();
+
+        // Correção do administrador no mês passado: o estado é descartado e remontado na próxima leitura
+        registrosPontoService.updateRegistroPonto(saida.getId(),
+                new RegistroPontoAdminDTO(user.getId(), diaDoMesPassado.atTime(18, 0), TipoRegistro.SAIDA, null));
+        assertThat(saldoAtualService.getSaldoAtual(user.getId()).getSaldoAteOntem())
+                .isEqualTo(Duration.ofHours(10).minus(esperadoAteOntem));
+    }
+
+    @Test
+    void usuarioExcluidoSaiDaMemoria() {
+        User user = UsuariosDeTeste.criar(userRepository, "saldo-atual-excluido");
+        saldoAtualService.getSaldoAtual(user.getId());
+        double estados = registry.get("cache.size").tag("cache", "saldo-atual").gauge().value();
+
+        userService.deleteUser(user.getId());
+
+        assertThat(registry.get("cache.size").tag("cache", "saldo-atual").gauge().value()).isEqualTo(estados - 1);
+    }
+}
@@ -0,0 +1,205 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.BankedHoursReportDTO;
+import com.oclock.api.dto.RegistroPontoAdminDTO;
+import com.oclock.api.model.Marcacao;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.RegistroPontoBatchInserter;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.RegistrosPontoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Livro-razão sobre o H2: as marcações entram direto por JDBC, sem passar pelo registrarAlteracao, para que os meses
+ * fechados ainda não estejam gravados na primeira leitura.
+ */
+@SpringBootTest
+class SaldoMensalLedgerIntegrationTest {
+
+    private static final int LEITURAS_SIMULTANEAS = 8;
+
+    @Autowired
+    private SaldoMensalLedger ledger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistroPontoBatchInserter inserter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RegistrosPontoService registrosPontoService;
+
+    // Permite intercalar uma correção entre a leitura das marcações e a gravação do preenchimento
+    @SpyBean
+    private StreamingBankedHoursEngine streamingEngine;
+
+    @Test
+    void primeirasLeiturasSimultaneasGravamCadaMesUmaVez() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "ledger-concorrente");
+        YearMonth mesAtual = YearMonth.now();
+        YearMonth primeiroMes = mesAtual.minusMonths(3);
+        List<RegistrosPonto> registros = new ArrayList<>();
+        for (YearMonth mes = primeiroMes; mes.isBefore(mesAtual); mes = mes.plusMonths(1)) {
+            registros.add(novoRegistro(user.getId(), mes.atDay(5).atTime(8, 0), TipoRegistro.ENTRADA));
+            registros.add(novoRegistro(user.getId(), mes.atDay(5).atTime(17, 0), TipoRegistro.SAIDA));
+        }
+        inserter.inserir(registros);
+
+        ExecutorService executor = Executors.newFixedThreadPool(LEITURAS_SIMULTANEAS);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Map<YearMonth, long[]>>> leituras = new ArrayList<>();
+            for (int i = 0; i < LEITURAS_SIMULTANEAS; i++) {
+                leituras.add(executor.submit(() -> {
+                    largada.await();
+                    return ledger.carregarMesesFechados(user.getId(), primeiroMes, mesAtual);
+                }));
+            }
+            largada.countDown();
+            for (Future<Map<YearMonth, long[]>> leitura : leituras) {
+                Map<YearMonth, long[]> meses = leitura.get();
+                assertThat(meses).hasSize(3);
+                meses.values().forEach(nanosPorDia -> assertThat(nanosPorDia[4]).isEqualTo(Duration.ofHours(9).toNanos()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM saldos_mensais WHERE id_usuario = ?", Integer.class, user.getId()))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void mesesQueFaltamSaoRecalculadosPorTrecho() {
+        User user = UsuariosDeTeste.criar(userRepository, "ledger-trechos");
+        YearMonth mesAtual = YearMonth.now();
+        YearMonth primeiroMes = mesAtual.minusMonths(5);
+        List<RegistrosPonto> registros = new ArrayList<>();
+        for (YearMonth mes = primeiroMes; mes.isBefore(mesAtual); mes = mes.plusMonths(1)) {
+            // O segundo mês fica sem marcações
+            if (!mes.equals(primeiroMes.plusMonths(1))) {
+                registros.add(novoRegistro(user.getId(), mes.atDay(3).atTime(9, 0), TipoRegistro.ENTRADA));
+                registros.add(novoRegistro(user.getId(), mes.atDay(3).atTime(11, 0), TipoRegistro.SAIDA));
+            }
+        }
+        inserter.inserir(registros);
+        ledger.carregarMesesFechados(user.getId(), primeiroMes, mesAtual);
+
+        // Dois trechos invalidados: o segundo e terceiro meses e o último mês fechado
+        jdbcTemplate.update("DELETE FROM saldos_mensais WHERE id_usuario = ? AND ((ano = ? AND mes = ?) OR (ano = ? AND mes = ?) OR (ano = ? AND mes = ?))",
+                user.getId(), primeiroMes.plusMonths(1).getYear(), primeiroMes.plusMonths(1).getMonthValue(),
+                primeiroMes.plusMonths(2).getYear(), primeiroMes.plusMonths(2).getMonthValue(),
+                mesAtual.minusMonths(1).getYear(), mesAtual.minusMonths(1).getMonthValue());
+        Map<YearMonth, long[]> meses = ledger.carregarMesesFechados(user.getId(), primeiroMes, mesAtual);
+
+        assertThat(meses).hasSize(5);
+        meses.forEach((mes, nanosPorDia) -> assertThat(nanosPorDia[2])
+                .as("%s", mes)
+                .isEqualTo(mes.equals(primeiroMes.plusMonths(1)) ? 0 : Duration.ofHours(2).toNanos()));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM saldos_mensais WHERE id_usuario = ?", Integer.class, user.getId()))
+                .isEqualTo(5);
+    }
+
+    @Test
+    void correcaoEmMesFechadoApareceNoRelatorioAcumulado() {
+        User user = UsuariosDeTeste.criar(userRepository, "ledger-correcao");
+        YearMonth mesFechado = YearMonth.now().minusMonths(1);
+        RegistrosPonto entrada = novoRegistro(user.getId(), mesFechado.atDay(5).atTime(8, 0), TipoRegistro.ENTRADA);
+        RegistrosPonto saida = novoRegistro(user.getId(), mesFechado.atDay(5).atTime(17, 0), TipoRegistro.SAIDA);
+        inserter.inserir(List.of(entrada, saida));
+        // A primeira leitura grava o mês no livro-razão
+        assertThat(trabalhadoNoDia(registrosPontoService.generateAccumulatedBankedHoursReport(user.getId()).getMonthlySummaries(),
+                mesFechado.atDay(5))).isEqualTo(Duration.ofHours(9));
+
+        registrosPontoService.updateRegistroPonto(saida.getId(),
+                new RegistroPontoAdminDTO(user.getId(), mesFechado.atDay(5).atTime(12, 0), TipoRegistro.SAIDA, "Correção"));
+        registrosPontoService.createRegistroPonto(
+                new RegistroPontoAdminDTO(user.getId(), mesFechado.atDay(6).atTime(9, 0), TipoRegistro.ENTRADA, "Esquecida"));
+        registrosPontoService.createRegistroPonto(
+                new RegistroPontoAdminDTO(user.getId(), mesFechado.atDay(6).atTime(10, 30), TipoRegistro.SAIDA, "Esquecida"));
+
+        List<BankedHoursReportDTO> meses = registrosPontoService.generateAccumulatedBankedHoursReport(user.getId()).getMonthlySummaries();
+        assertThat(trabalhadoNoDia(meses, mesFechado.atDay(5))).isEqualTo(Duration.ofHours(4));
+        assertThat(trabalhadoNoDia(meses, mesFechado.atDay(6))).isEqualTo(Duration.ofMinutes(90));
+    }
+
+    @Test
+    void preenchimentoDaLeituraNaoSobrescreveCorrecaoGravadaNoMeioTempo() throws Exception {
+        User user = UsuariosDeTeste.criar(userRepository, "ledger-corrida");
+        YearMonth mesAtual = YearMonth.now();
+        YearMonth mesFechado = mesAtual.minusMonths(1);
+        RegistrosPonto entrada = novoRegistro(user.getId(), mesFechado.atDay(5).atTime(8, 0), TipoRegistro.ENTRADA);
+        RegistrosPonto saida = novoRegistro(user.getId(), mesFechado.atDay(5).atTime(17, 0), TipoRegistro.SAIDA);
+        inserter.inserir(List.of(entrada, saida));
+
+        // A correção é gravada (e confirmada) depois que a leitura já consultou as marcações, antes de ela gravar o mês
+        AtomicReference<Runnable> correcao = new AtomicReference<>(() -> registrosPontoService.updateRegistroPonto(saida.getId(),
+                new RegistroPontoAdminDTO(user.getId(), mesFechado.atDay(5).atTime(12, 0), TipoRegistro.SAIDA, "Correção")));
+        doAnswer(invocacao -> {
+            List<Marcacao> lidas = invocacao.<Stream<Marcacao>>getArgument(0).toList();
+            Runnable pendente = correcao.getAndSet(null);
+            if (pendente != null) {
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                try {
+                    executor.submit(pendente).get();
+                } finally {
+                    executor.shutdown();
+                }
+            }
+            new StreamingBankedHoursEngine().percorrerMeses(lidas.stream(), invocacao.getArgument(1), invocacao.getArgument(2));
+            return null;
+        }).when(streamingEngine).percorrerMeses(any(), any(), any());
+
+        ledger.carregarMesesFechados(user.getId(), mesFechado, mesAtual);
+
+        assertThat(correcao.get()).isNull();
+        long[] nanosPorDia = ledger.carregarMesesFechados(user.getId(), mesFechado, mesAtual).get(mesFechado);
+        assertThat(nanosPorDia[4]).isEqualTo(Duration.ofHours(4).toNanos());
+    }
+
+    private static Duration trabalhadoNoDia(List<BankedHoursReportDTO> meses, LocalDate dia) {
+        return meses.stream()
+                .filter(mes -> mes.getYear() == dia.getYear() && mes.getMonth() == dia.getMonthValue())
+                .findFirst()
+                .orElseThrow()
+                .getDailyHoursWorked()
+                .get(dia.toString());
+    }
+
+    private static RegistrosPonto novoRegistro(Integer idUsuario, LocalDateTime dataHora, TipoRegistro tipo) {
+        RegistrosPonto registro = new RegistrosPonto();
+        registro.setIdUsuario(idUsuario);
+        registro.setDataHoraRegistro(dataHora);
+        registro.setTipoRegistro(tipo);
+        return registro;
+    }
+}
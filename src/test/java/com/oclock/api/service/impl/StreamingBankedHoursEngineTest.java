@@ -0,0 +1,147 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.model.MarcacaoResumo;
+import com.oclock.api.model.RegistrosPonto;
+import com.oclock.api.model.SaldoMensal;
+import com.oclock.api.model.TipoRegistro;
+import com.oclock.api.repository.RegistroPontoRepository;
+import com.oclock.api.repository.SaldoMensalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Meses fechados do SaldoMensalLedger, calculados em uma passada do StreamingBankedHoursEngine por trecho de meses que
+ * faltam, comparados mês a mês ao cálculo original (BankedHoursCalculoLegado). Os repositórios são simulados sobre o
+ * histórico gerado, e parte dos meses já vem gravada no livro-razão para que os que faltam se dividam em trechos.
+ */
+class StreamingBankedHoursEngineTest {
+
+    private static final Integer ID_USUARIO = 7;
+
+    private final BankedHoursCalculoLegado legado = new BankedHoursCalculoLegado();
+
+    @Test
+    void mesesFechadosIguaisAoCalculoOriginal() {
+        YearMonth mesAtual = YearMonth.now();
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            List<RegistrosPonto> historico = gerarHistorico(ID_USUARIO, random, 26);
+            YearMonth primeiroMes = YearMonth.from(historico.get(0).getDataHoraRegistro());
+
+            // Cerca de um terço dos meses já está gravado
+            List<SaldoMensal> gravados = new ArrayList<>();
+            List<YearMonth> mesesFechados = new ArrayList<>();
+            for (YearMonth mes = primeiroMes; mes.isBefore(mesAtual); mes = mes.plusMonths(1)) {
+                mesesFechados.add(mes);
+                if (random.nextInt(3) == 0) {
+                    gravados.add(saldoGravado(mes, horasPorDiaLegado(historico, mes)));
+                }
+            }
+
+            Map<YearMonth, long[]> meses = novoLedger(historico, gravados).carregarMesesFechados(ID_USUARIO, primeiroMes, mesAtual);
+
+            assertThat(meses.keySet()).as("seed %d", seed).containsExactlyElementsOf(mesesFechados);
+            for (Map.Entry<YearMonth, long[]> mes : meses.entrySet()) {
+                assertThat(mes.getValue())
+                        .as("seed %d, %s", seed, mes.getKey())
+                        .containsExactly(horasPorDiaLegado(historico, mes.getKey()));
+            }
+        }
+    }
+
+    @Test
+    void historicoVazioGeraMesesZerados() {
+        YearMonth mesAtual = YearMonth.now();
+
+        Map<YearMonth, long[]> meses = novoLedger(List.of(), List.of()).carregarMesesFechados(ID_USUARIO, mesAtual.minusMonths(3), mesAtual);
+
+        assertThat(meses).hasSize(3);
+        meses.forEach((mes, nanosPorDia) -> assertThat(nanosPorDia).hasSize(mes.lengthOfMonth()).containsOnly(0L));
+    }
+
+    private static SaldoMensalLedger novoLedger(List<RegistrosPonto> historico, List<SaldoMensal> gravados) {
+        SaldoMensalRepository saldoMensalRepository = mock(SaldoMensalRepository.class);
+        when(saldoMensalRepository.findByIdUsuarioOrderByAnoAscMesAsc(ID_USUARIO)).thenReturn(gravados);
+        RegistroPontoRepository registroPontoRepository = mock(RegistroPontoRepository.class);
+        when(registroPontoRepository.streamMarcacoesDoUsuarioNoPeriodo(eq(ID_USUARIO), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime inicio = invocation.getArgument(1);
+                    LocalDateTime fim = invocation.getArgument(2);
+                    return historico.stream()
+                            .filter(r -> !r.getDataHoraRegistro().isBefore(inicio) && !r.getDataHoraRegistro().isAfter(fim))
+                            .map(r -> new MarcacaoResumo(r.getId(), r.getIdUsuario(), r.getDataHoraRegistro(), r.getTipoRegistro()));
+                });
+        return new SaldoMensalLedger(saldoMensalRepository, registroPontoRepository, mock(MesesArquivados.class),
+                new PrimitiveBankedHoursEngine(new BankedHoursCalculator(CalendarioTrabalhoTest.semFeriadosCadastrados())),
+                new StreamingBankedHoursEngine(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Horas trabalhadas em cada dia do mês (nanossegundos, índice dia - 1) pelo cálculo original.
+     */
+    private long[] horasPorDiaLegado(List<RegistrosPonto> historico, YearMonth mes) {
+        List<RegistrosPonto> registrosDoMes = historico.stream()
+                .filter(r -> YearMonth.from(r.getDataHoraRegistro()).equals(mes))
+                .toList();
+        return legado.calcularHorasPorDia(registrosDoMes, mes.atDay(1), mes.atEndOfMonth()).values().stream()
+                .mapToLong(Duration::toNanos)
+                .toArray();
+    }
+
+    private static SaldoMensal saldoGravado(YearMonth mes, long[] nanosPorDia) {
+        StringJoiner trabalhadoPorDia = new StringJoiner(",");
+        long total = 0;
+        for (long nanos : nanosPorDia) {
+            trabalhadoPorDia.add(Long.toString(nanos));
+            total += nanos;
+        }
+        return new SaldoMensal(null, ID_USUARIO, mes.getYear(), mes.getMonthValue(), total, trabalhadoPorDia.toString(), LocalDateTime.now());
+    }
+
+    /**
+     * Gera marcações de dias úteis com 0 a 5 batidas por dia (inclui dias com ENTRADA sem SAIDA),
+     * trabalho eventual em fim de semana e meses inteiros sem marcação.
+     */
+    private static List<RegistrosPonto> gerarHistorico(Integer idUsuario, Random random, int meses) {
+        List<RegistrosPonto> historico = new ArrayList<>();
+        LocalDate inicio = YearMonth.now().minusMonths(meses).atDay(1);
+        YearMonth mesSemMarcacoes = YearMonth.from(inicio).plusMonths(1 + random.nextInt(meses - 2));
+        for (LocalDate dia = inicio; !dia.isAfter(LocalDate.now()); dia = dia.plusDays(1)) {
+            boolean fimDeSemana = dia.getDayOfWeek().getValue() >= 6;
+            if (YearMonth.from(dia).equals(mesSemMarcacoes) || (fimDeSemana && random.nextInt(10) > 0)) {
+                continue;
+            }
+            int batidas = random.nextInt(6);
+            LocalDateTime dataHora = dia.atTime(7, 0).plusMinutes(random.nextInt(90));
+            for (int i = 0; i < batidas; i++) {
+                RegistrosPonto registro = new RegistrosPonto();
+                registro.setId(historico.size() + 1);
+                registro.setIdUsuario(idUsuario);
+                registro.setDataHoraRegistro(dataHora.plusSeconds(random.nextInt(60)));
+                registro.setTipoRegistro(i % 2 == 0 ? TipoRegistro.ENTRADA : TipoRegistro.SAIDA);
+                historico.add(registro);
+                dataHora = dataHora.plusMinutes(30 + random.nextInt(240));
+                if (!dataHora.toLocalDate().equals(dia)) {
+                    break;
+                }
+            }
+        }
+        return historico;
+    }
+}
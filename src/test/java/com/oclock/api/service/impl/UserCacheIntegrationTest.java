@@ -0,0 +1,78 @@
+package com.oclock.api.service.impl;
+
+import com.oclock.api.UsuariosDeTeste;
+import com.oclock.api.dto.UserCreateUpdateDTO;
+import com.oclock.api.model.User;
+import com.oclock.api.repository.UserRepository;
+import com.oclock.api.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O UserCache acompanha as alterações feitas pelo UserService e não expõe a instância guardada aos chamadores.
+ */
+@SpringBootTest
+class UserCacheIntegrationTest {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void atualizacaoSubstituiOUsuarioEmCache() {
+        User user = UsuariosDeTeste.criar(userRepository, "cache-atualizado");
+        assertThat(userCache.buscar(user.getId())).isPresent();
+
+        userService.updateUser(user.getId(), new UserCreateUpdateDTO("Nome Novo", user.getEmail(), null, user.getCpf(),
+                new BigDecimal("6.00"), "usuario", true, new BigDecimal("30.00"), "RJ", null));
+        double faltas = faltas();
+
+        User lido = userCache.buscar(user.getId()).orElseThrow();
+        assertThat(lido.getNomeCompleto()).isEqualTo("Nome Novo");
+        assertThat(lido.getJornadaDiariaHoras()).isEqualByComparingTo("6.00");
+        assertThat(lido.getUf()).isEqualTo("RJ");
+        // O usuário gravado substituiu a entrada: a leitura não precisou ir ao banco
+        assertThat(faltas()).isEqualTo(faltas);
+    }
+
+    @Test
+    void exclusaoRemoveOUsuarioDoCache() {
+        User user = UsuariosDeTeste.criar(userRepository, "cache-excluido");
+        assertThat(userCache.buscar(user.getId())).isPresent();
+
+        userService.deleteUser(user.getId());
+
+        assertThat(userCache.buscar(user.getId())).isEmpty();
+    }
+
+    @Test
+    void alterarOUsuarioLidoNaoAlteraOCache() {
+        User user = UsuariosDeTeste.criar(userRepository, "cache-copia");
+        userCache.atualizar(user);
+
+        user.setNomeCompleto("Alterado depois de gravar");
+        userCache.buscar(user.getId()).orElseThrow().setNomeCompleto("Alterado pelo leitor");
+
+        User lido = userCache.buscar(user.getId()).orElseThrow();
+        assertThat(lido.getNomeCompleto()).isEqualTo("Usuário cache-copia");
+        assertThat(lido).isNotSameAs(userCache.buscar(user.getId()).orElseThrow());
+    }
+
+    private double faltas() {
+        return registry.get("cache.gets").tag("cache", "usuarios").tag("result", "miss").functionCounter().count();
+    }
+}
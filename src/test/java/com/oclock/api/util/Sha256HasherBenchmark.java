@@ -0,0 +1,33 @@
+package com.oclock.api.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash de uma senha típica, executado em todo login e em cada criação/alteração de senha.
+ * Executar com: mvn -Pjmh test-compile exec:exec -Djmh.args=Sha256HasherBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Sha256HasherBenchmark {
+
+    public String senha = "S3nh@-d0-Usu4rio!";
+
+    @Benchmark
+    public String hash() {
+        return Sha256Hasher.hash(senha);
+    }
+}